@@ -0,0 +1,97 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Represents a set of benchmark results that can be saved as CSV and compared with the results of
+// another version, such as the last release
+public class BenchmarkReport {
+    private static final String HEADER = "benchmark,size,nanosPerOperation,error,iterations";
+
+    private Map<String, BenchmarkResult> results;
+
+    // EFFECTS: constructs an empty report
+    public BenchmarkReport() {
+        results = new LinkedHashMap<String, BenchmarkResult>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds result to the report, replacing any earlier result for the same benchmark and size
+    public void add(BenchmarkResult result) {
+        results.put(result.getKey(), result);
+    }
+
+    // EFFECTS: returns the results in the order they were added
+    public List<BenchmarkResult> getResults() {
+        return new ArrayList<BenchmarkResult>(results.values());
+    }
+
+    // EFFECTS: writes the report to destination as CSV; throws IOException if it cannot be written
+    public void save(String destination) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        lines.add(HEADER);
+        for (BenchmarkResult result : results.values()) {
+            lines.add(String.format(Locale.ROOT, "%s,%d,%.3f,%.3f,%d", result.getName(), result.getSize(),
+                    result.getNanosPerOperation(), result.getError(), result.getIterations()));
+        }
+        Files.write(Paths.get(destination), lines, StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: reads a report saved by save; throws IOException if it cannot be read or is not a report
+    public static BenchmarkReport load(String source) throws IOException {
+        BenchmarkReport report = new BenchmarkReport();
+        List<String> lines = Files.readAllLines(Paths.get(source), StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !lines.get(0).equals(HEADER)) {
+            throw new IOException("Not a benchmark report: " + source);
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split(",");
+            try {
+                report.add(new BenchmarkResult(fields[0], Integer.parseInt(fields[1]),
+                        Double.parseDouble(fields[2]), Double.parseDouble(fields[3]), Integer.parseInt(fields[4])));
+            } catch (RuntimeException badLine) {
+                throw new IOException("Invalid line in benchmark report " + source + ": " + line);
+            }
+        }
+        return report;
+    }
+
+    // EFFECTS: prints every result as a table to out
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%-42s %10s %16s %12s%n", "Benchmark", "Size", "ns/op", "Error");
+        for (BenchmarkResult result : results.values()) {
+            out.printf(Locale.ROOT, "%-42s %10d %16.1f %12.1f%n", result.getName(), result.getSize(),
+                    result.getNanosPerOperation(), result.getError());
+        }
+    }
+
+    // EFFECTS: prints how each result compares with the same benchmark and size in baseline and returns the
+    //          number of results more than threshold (for example 0.1 for 10%) slower than the baseline,
+    //          beyond the combined error of both measurements
+    public int compare(BenchmarkReport baseline, double threshold, PrintStream out) {
+        int regressions = 0;
+        out.printf(Locale.ROOT, "%-42s %10s %14s %14s %8s%n", "Benchmark", "Size", "Baseline", "Current", "Change");
+        for (BenchmarkResult result : results.values()) {
+            BenchmarkResult before = baseline.results.get(result.getKey());
+            if (before == null) {
+                continue;
+            }
+            double change = result.getNanosPerOperation() / before.getNanosPerOperation() - 1;
+            double slack = (result.getError() + before.getError()) / before.getNanosPerOperation();
+            boolean regressed = change > threshold + slack;
+            regressions += regressed ? 1 : 0;
+            out.printf(Locale.ROOT, "%-42s %10d %14.1f %14.1f %+7.1f%%%s%n", result.getName(), result.getSize(),
+                    before.getNanosPerOperation(), result.getNanosPerOperation(), change * 100,
+                    regressed ? "  REGRESSION" : "");
+        }
+        return regressions;
+    }
+}
@@ -0,0 +1,45 @@
+package benchmark;
+
+// Represents the measured time of one benchmark at one list size
+public class BenchmarkResult {
+    private String name;
+    private int size;
+    private double nanosPerOperation;
+    private double error;
+    private int iterations;
+
+    // EFFECTS: constructs a result in which name took nanosPerOperation, give or take error, at size employees,
+    //          measured over iterations iterations
+    public BenchmarkResult(String name, int size, double nanosPerOperation, double error, int iterations) {
+        this.name = name;
+        this.size = size;
+        this.nanosPerOperation = nanosPerOperation;
+        this.error = error;
+        this.iterations = iterations;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double getNanosPerOperation() {
+        return nanosPerOperation;
+    }
+
+    public double getError() {
+        return error;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    // EFFECTS: returns the key that identifies the same measurement in another report
+    public String getKey() {
+        return name + "@" + size;
+    }
+}
@@ -0,0 +1,160 @@
+package benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs the payroll benchmarks and reports the average time per operation for each list size.
+// Each benchmark is set up afresh for every size, run for a number of warm-up iterations so the JIT compiler
+// has optimized it, and then timed over several measurement iterations of at least a fixed duration each.
+//
+// Usage: BenchmarkRunner [--sizes 10,1000,100000] [--filter text] [--warmup 5] [--iterations 5]
+//                        [--millis 500] [--out results.csv] [--baseline old.csv] [--threshold 0.1]
+// Sizes up to 10000000 are supported given enough heap (-Xmx4g or more for the largest lists).
+// With --baseline, exits with status 1 if any benchmark got slower than the threshold allows.
+public class BenchmarkRunner {
+    private static final double ERROR_Z = 3.29;
+
+    private int[] sizes = {10, 1000, 100000};
+    private String filter = "";
+    private int warmupIterations = 5;
+    private int measurementIterations = 5;
+    private long iterationNanos = 500_000_000L;
+    private String output;
+    private String baseline;
+    private double threshold = 0.1;
+
+    // Receives a value from every iteration so the JIT compiler cannot discard the benchmarked work
+    private static volatile long sink;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        runner.parseArguments(args);
+        List<PayrollBenchmark> benchmarks = new ArrayList<PayrollBenchmark>(ModelBenchmarks.all());
+        benchmarks.addAll(PersistenceBenchmarks.all());
+        BenchmarkReport report = runner.runAll(benchmarks);
+        report.print(System.out);
+        System.exit(runner.finish(report));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the options in args; throws IllegalArgumentException if an option is not recognized
+    private void parseArguments(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            if (args[i].equals("--sizes")) {
+                sizes = parseSizes(value);
+            } else if (args[i].equals("--filter")) {
+                filter = value;
+            } else if (args[i].equals("--warmup")) {
+                warmupIterations = Integer.parseInt(value);
+            } else if (args[i].equals("--iterations")) {
+                measurementIterations = Integer.parseInt(value);
+            } else if (args[i].equals("--millis")) {
+                iterationNanos = Long.parseLong(value) * 1_000_000L;
+            } else {
+                parseReportArgument(args[i], value);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads one of the options about report files
+    private void parseReportArgument(String option, String value) {
+        if (option.equals("--out")) {
+            output = value;
+        } else if (option.equals("--baseline")) {
+            baseline = value;
+        } else if (option.equals("--threshold")) {
+            threshold = Double.parseDouble(value);
+        } else {
+            throw new IllegalArgumentException("Unknown option: " + option);
+        }
+    }
+
+    // EFFECTS: returns the comma-separated sizes in value
+    private static int[] parseSizes(String value) {
+        String[] parts = value.split(",");
+        int[] parsed = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            parsed[i] = Integer.parseInt(parts[i].trim());
+        }
+        return parsed;
+    }
+
+    // EFFECTS: runs every benchmark whose name contains the filter at every size and returns the results
+    private BenchmarkReport runAll(List<PayrollBenchmark> benchmarks) throws Exception {
+        BenchmarkReport report = new BenchmarkReport();
+        for (PayrollBenchmark benchmark : benchmarks) {
+            if (!benchmark.getName().contains(filter)) {
+                continue;
+            }
+            for (int size : sizes) {
+                System.out.println("Running " + benchmark.getName() + " with " + size + " employees");
+                benchmark.setUp(size);
+                try {
+                    report.add(measure(benchmark, size));
+                } finally {
+                    benchmark.tearDown();
+                }
+            }
+        }
+        return report;
+    }
+
+    // EFFECTS: warms benchmark up, then times it and returns the mean time per operation with a 99.9%
+    //          confidence interval as the error
+    private BenchmarkResult measure(PayrollBenchmark benchmark, int size) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(benchmark);
+        }
+        double[] samples = new double[measurementIterations];
+        double total = 0;
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = runIteration(benchmark);
+            total += samples[i];
+        }
+        double mean = total / samples.length;
+        double squares = 0;
+        for (double sample : samples) {
+            squares += (sample - mean) * (sample - mean);
+        }
+        double error = samples.length > 1 ? ERROR_Z * Math.sqrt(squares / (samples.length - 1) / samples.length) : 0;
+        return new BenchmarkResult(benchmark.getName(), size, mean, error, samples.length);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs the operation repeatedly for at least iterationNanos and returns the time per operation;
+    //          the number of calls between clock reads doubles so fast operations are not dominated by the clock
+    private double runIteration(PayrollBenchmark benchmark) throws Exception {
+        long operations = 0;
+        long batch = 1;
+        long consumed = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (long i = 0; i < batch; i++) {
+                consumed += benchmark.runOperation();
+            }
+            operations += batch;
+            batch = Math.min(batch * 2, 1 << 20);
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        sink += consumed;
+        return (double) elapsed / operations;
+    }
+
+    // EFFECTS: saves and compares the report as requested and returns the exit status
+    private int finish(BenchmarkReport report) throws IOException {
+        if (output != null) {
+            report.save(output);
+            System.out.println("Saved results to " + output);
+        }
+        if (baseline == null) {
+            return 0;
+        }
+        int regressions = report.compare(BenchmarkReport.load(baseline), threshold, System.out);
+        System.out.println(regressions + " regression(s) found");
+        return regressions > 0 ? 1 : 0;
+    }
+}
@@ -0,0 +1,107 @@
+package benchmark;
+
+import exceptions.DuplicateEmployeeException;
+import model.Employee;
+import model.EmployeeList;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Benchmarks of the in-memory operations on EmployeeList and Employee
+public final class ModelBenchmarks {
+    private static final int SEED = 210;
+    private static final int LOOKUPS = 1 << 16;
+
+    private ModelBenchmarks() {
+    }
+
+    // EFFECTS: returns every model benchmark
+    public static List<PayrollBenchmark> all() {
+        return Arrays.asList(
+                new ListBenchmark("EmployeeList.getEmployee", (list, employees, i) ->
+                        list.getEmployee(employees[i].getName()).getWage()),
+                new ListBenchmark("EmployeeList.addEmployee+deleteEmployee", (list, employees, i) -> {
+                    Employee employee = new Employee("New employee", true, 10);
+                    list.addEmployee(employee);
+                    list.deleteEmployee(employee);
+                    return list.getEmployeeCount();
+                }),
+                new ListBenchmark("EmployeeList.deleteEmployee+addEmployee", (list, employees, i) -> {
+                    list.deleteEmployee(employees[i]);
+                    list.addEmployee(employees[i]);
+                    return list.getEmployeeCount();
+                }),
+                new ListBenchmark("Employee.recordWorkAmount", (list, employees, i) -> {
+                    employees[i].recordWorkAmount(8);
+                    return employees[i].getCurrentOwned();
+                }),
+                new ListBenchmark("Employee.payEmployee", (list, employees, i) -> {
+                    employees[i].recordWorkAmount(8);
+                    return employees[i].payEmployee();
+                }),
+                new ListBenchmark("EmployeeList.toJson", (list, employees, i) ->
+                        list.toJson().length()));
+    }
+
+    // EFFECTS: returns a list of size employees named "Employee 0" onwards, alternating hourly and salaried
+    static EmployeeList createEmployeeList(int size) throws DuplicateEmployeeException {
+        EmployeeList employeeList = new EmployeeList();
+        for (int i = 0; i < size; i++) {
+            boolean hourly = i % 2 == 0;
+            employeeList.addEmployee(new Employee("Employee " + i, hourly, hourly ? 20 + i % 30 : 50000 + i));
+        }
+        return employeeList;
+    }
+
+    // One operation on an employee list, given the employee the call should use
+    private interface ListOperation {
+        long run(EmployeeList employeeList, Employee[] employees, int index) throws Exception;
+    }
+
+    // A benchmark that runs an operation against a list of the given size,
+    // picking the employee for each call in a fixed pseudo-random order
+    private static class ListBenchmark implements PayrollBenchmark {
+        private String name;
+        private ListOperation operation;
+        private EmployeeList employeeList;
+        private Employee[] employees;
+        private int[] order;
+        private int next;
+
+        ListBenchmark(String name, ListOperation operation) {
+            this.name = name;
+            this.operation = operation;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void setUp(int size) throws Exception {
+            employeeList = createEmployeeList(size);
+            employees = employeeList.getAllEmployees().toArray(new Employee[0]);
+            order = new int[Math.min(LOOKUPS, Math.max(1, size))];
+            Random random = new Random(SEED);
+            for (int i = 0; i < order.length; i++) {
+                order[i] = random.nextInt(size);
+            }
+            next = 0;
+        }
+
+        @Override
+        public long runOperation() throws Exception {
+            int index = order[next];
+            next = next + 1 == order.length ? 0 : next + 1;
+            return operation.run(employeeList, employees, index);
+        }
+
+        @Override
+        public void tearDown() {
+            employeeList = null;
+            employees = null;
+        }
+    }
+}
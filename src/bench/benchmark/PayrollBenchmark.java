@@ -0,0 +1,22 @@
+package benchmark;
+
+// A benchmark of one operation, measured for each list size given to the BenchmarkRunner
+public interface PayrollBenchmark {
+
+    // EFFECTS: returns the name of the benchmark as it appears in reports
+    String getName();
+
+    // MODIFIES: this
+    // EFFECTS: prepares the state the operation runs against, such as an employee list of size employees
+    void setUp(int size) throws Exception;
+
+    // MODIFIES: this
+    // EFFECTS: runs the operation once and returns a value derived from its result, so that the work
+    //          cannot be optimized away
+    long runOperation() throws Exception;
+
+    // MODIFIES: this
+    // EFFECTS: releases anything set up for the last size
+    default void tearDown() throws Exception {
+    }
+}
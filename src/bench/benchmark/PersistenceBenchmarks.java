@@ -0,0 +1,86 @@
+package benchmark;
+
+import model.EmployeeList;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+// Benchmarks of saving and loading an employee list as JSON; files are kept in the temporary directory
+public final class PersistenceBenchmarks {
+
+    private PersistenceBenchmarks() {
+    }
+
+    // EFFECTS: returns every persistence benchmark
+    public static List<PayrollBenchmark> all() {
+        return Arrays.asList(new ReadBenchmark(), new WriteBenchmark());
+    }
+
+    // Measures JsonReader.read on a file holding a list of the given size
+    private static class ReadBenchmark implements PayrollBenchmark {
+        private Path file;
+
+        @Override
+        public String getName() {
+            return "JsonReader.read";
+        }
+
+        @Override
+        public void setUp(int size) throws Exception {
+            file = Files.createTempFile("payzilla-bench", ".json");
+            write(ModelBenchmarks.createEmployeeList(size), file);
+        }
+
+        @Override
+        public long runOperation() throws IOException {
+            return new JsonReader(file.toString()).read().getEmployeeCount();
+        }
+
+        @Override
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Measures JsonWriter.write, including opening and closing the file, for a list of the given size
+    private static class WriteBenchmark implements PayrollBenchmark {
+        private Path file;
+        private EmployeeList employeeList;
+
+        @Override
+        public String getName() {
+            return "JsonWriter.write";
+        }
+
+        @Override
+        public void setUp(int size) throws Exception {
+            file = Files.createTempFile("payzilla-bench", ".json");
+            employeeList = ModelBenchmarks.createEmployeeList(size);
+        }
+
+        @Override
+        public long runOperation() throws IOException {
+            write(employeeList, file);
+            return Files.size(file);
+        }
+
+        @Override
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+            employeeList = null;
+        }
+    }
+
+    // EFFECTS: writes employeeList to file as indented JSON
+    private static void write(EmployeeList employeeList, Path file) throws IOException {
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.open();
+        writer.write(employeeList);
+        writer.close();
+    }
+}
@@ -0,0 +1,11 @@
+package exceptions;
+
+// Used for cases when a batch command or a server request is unknown or its arguments are missing or not in the
+// expected format
+public class InvalidCommandException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCommandException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package exceptions;
+
+import java.io.IOException;
+
+// Used for cases when a data file can be read but its contents are not in the expected format
+public class MalformedFileException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public MalformedFileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,74 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Records how long an operation takes, in buckets whose bounds are powers of two nanoseconds.
+// Recording adds to striped counters without locking, so many threads can record at once cheaply;
+// percentiles are therefore accurate to within a factor of two.
+public class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder totalNanos;
+    private final LongAccumulator maxNanos;
+
+    // EFFECTS: constructs an empty histogram
+    public LatencyHistogram() {
+        buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+        count = new LongAdder();
+        totalNanos = new LongAdder();
+        maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records one operation that took nanos nanoseconds
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[BUCKETS - 1 - Long.numberOfLeadingZeros(value | 1)].increment();
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets every recorded operation
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    // EFFECTS: returns a summary of the operations recorded so far
+    public LatencyStats snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        long mean = total == 0 ? 0 : totalNanos.sum() / total;
+        return new LatencyStats(total, mean, percentile(counts, total, 0.5),
+                percentile(counts, total, 0.99), maxNanos.get());
+    }
+
+    // EFFECTS: returns the upper bound of the bucket holding the given fraction of the total operations
+    private static long percentile(long[] counts, long total, double fraction) {
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return i >= BUCKETS - 2 ? Long.MAX_VALUE : (2L << i) - 1;
+            }
+        }
+        return 0;
+    }
+}
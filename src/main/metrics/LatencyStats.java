@@ -0,0 +1,42 @@
+package metrics;
+
+import java.beans.ConstructorProperties;
+
+// Represents a summary of the recorded durations of one kind of operation, in nanoseconds
+public class LatencyStats {
+    private final long count;
+    private final long meanNanos;
+    private final long medianNanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    // EFFECTS: constructs a summary of count operations
+    @ConstructorProperties({"count", "meanNanos", "medianNanos", "p99Nanos", "maxNanos"})
+    public LatencyStats(long count, long meanNanos, long medianNanos, long p99Nanos, long maxNanos) {
+        this.count = count;
+        this.meanNanos = meanNanos;
+        this.medianNanos = medianNanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getMedianNanos() {
+        return medianNanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+}
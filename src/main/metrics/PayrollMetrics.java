@@ -0,0 +1,202 @@
+package metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts and times the operations of the payroll application: loads and saves, lookups and changes to
+// employee lists, and payments. There is one instance per application, which register() publishes as a JMX
+// MBean so it can be watched from JConsole or a monitoring agent.
+// Every counter is a LongAdder, so recording from many threads at once does not contend; only loads, saves
+// and pay runs are timed, because reading the clock would cost more than a lookup or a single payment.
+public class PayrollMetrics implements PayrollMetricsMXBean {
+    public static final String OBJECT_NAME = "payzilla:type=PayrollMetrics";
+    private static final PayrollMetrics INSTANCE = new PayrollMetrics();
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LatencyHistogram loadLatency = new LatencyHistogram();
+    private final LongAdder saves = new LongAdder();
+    private final LongAdder saveFailures = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LatencyHistogram saveLatency = new LatencyHistogram();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder lookupMisses = new LongAdder();
+    private final LongAdder employeesAdded = new LongAdder();
+    private final LongAdder employeesDeleted = new LongAdder();
+    private final LongAdder employeesPaid = new LongAdder();
+    private final LongAdder amountPaid = new LongAdder();
+    private final LatencyHistogram payRunLatency = new LatencyHistogram();
+
+    private PayrollMetrics() {
+    }
+
+    // EFFECTS: returns the metrics of this application
+    public static PayrollMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    // EFFECTS: publishes the metrics with the platform MBean server under OBJECT_NAME, if not already published;
+    //          prints a message if they cannot be published
+    public void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException alreadyRegistered) {
+            // Published by an earlier call
+        } catch (JMException e) {
+            System.out.println("Unable to publish metrics: " + e.getMessage());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a load of bytes bytes that started at startNanos (from System.nanoTime())
+    public void recordLoad(long startNanos, long bytes, boolean succeeded) {
+        loadLatency.record(System.nanoTime() - startNanos);
+        loads.increment();
+        bytesRead.add(bytes);
+        if (!succeeded) {
+            loadFailures.increment();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a save of bytes bytes that started at startNanos (from System.nanoTime())
+    public void recordSave(long startNanos, long bytes, boolean succeeded) {
+        saveLatency.record(System.nanoTime() - startNanos);
+        saves.increment();
+        bytesWritten.add(bytes);
+        if (!succeeded) {
+            saveFailures.increment();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a lookup of an employee by name, which found one if found is true
+    public void recordLookup(boolean found) {
+        lookups.increment();
+        if (!found) {
+            lookupMisses.increment();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that an employee was added to a list
+    public void recordEmployeeAdded() {
+        employeesAdded.increment();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that an employee was deleted from a list
+    public void recordEmployeeDeleted() {
+        employeesDeleted.increment();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that an employee was paid amount
+    public void recordEmployeePaid(int amount) {
+        employeesPaid.increment();
+        amountPaid.add(amount);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a pay run that started at startNanos (from System.nanoTime())
+    public void recordPayRun(long startNanos) {
+        payRunLatency.record(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    @Override
+    public long getLoadFailures() {
+        return loadFailures.sum();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public LatencyStats getLoadLatency() {
+        return loadLatency.snapshot();
+    }
+
+    @Override
+    public long getSaves() {
+        return saves.sum();
+    }
+
+    @Override
+    public long getSaveFailures() {
+        return saveFailures.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public LatencyStats getSaveLatency() {
+        return saveLatency.snapshot();
+    }
+
+    @Override
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    @Override
+    public long getLookupMisses() {
+        return lookupMisses.sum();
+    }
+
+    @Override
+    public long getEmployeesAdded() {
+        return employeesAdded.sum();
+    }
+
+    @Override
+    public long getEmployeesDeleted() {
+        return employeesDeleted.sum();
+    }
+
+    @Override
+    public long getEmployeesPaid() {
+        return employeesPaid.sum();
+    }
+
+    @Override
+    public long getAmountPaid() {
+        return amountPaid.sum();
+    }
+
+    @Override
+    public long getPayRuns() {
+        return payRunLatency.snapshot().getCount();
+    }
+
+    @Override
+    public LatencyStats getPayRunLatency() {
+        return payRunLatency.snapshot();
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder counter : new LongAdder[] {loads, loadFailures, bytesRead, saves, saveFailures,
+                bytesWritten, lookups, lookupMisses, employeesAdded, employeesDeleted, employeesPaid, amountPaid}) {
+            counter.reset();
+        }
+        loadLatency.reset();
+        saveLatency.reset();
+        payRunLatency.reset();
+    }
+}
@@ -0,0 +1,41 @@
+package metrics;
+
+// The operation counts and timings of a running payroll application, as published over JMX
+public interface PayrollMetricsMXBean {
+
+    long getLoads();
+
+    long getLoadFailures();
+
+    long getBytesRead();
+
+    LatencyStats getLoadLatency();
+
+    long getSaves();
+
+    long getSaveFailures();
+
+    long getBytesWritten();
+
+    LatencyStats getSaveLatency();
+
+    long getLookups();
+
+    long getLookupMisses();
+
+    long getEmployeesAdded();
+
+    long getEmployeesDeleted();
+
+    long getEmployeesPaid();
+
+    long getAmountPaid();
+
+    long getPayRuns();
+
+    LatencyStats getPayRunLatency();
+
+    // MODIFIES: this
+    // EFFECTS: sets every count and timing back to zero
+    void reset();
+}
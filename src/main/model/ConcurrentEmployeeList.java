@@ -0,0 +1,94 @@
+package model;
+
+import exceptions.DuplicateEmployeeException;
+import exceptions.EmployeeDoesNotExistException;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// An employee list that can be shared between threads, such as the UI thread, an autosave thread and an
+// ingestion thread, with the same API as EmployeeList.
+// Reads never block: getEmployee and contains look the employee up in a concurrent hash map, searchByName walks
+// a concurrent skip list, and getAllEmployees returns an immutable snapshot of the list, copied again only the
+// first time it is asked for after employees were added or deleted, so loading many employees costs one copy
+// rather than one per employee. Adding, deleting and renaming employees are serialized on the list, so the list
+// and its name indexes always agree; changes to an employee's own fields lock only that employee, so writes to
+// different employees do not contend.
+//
+// Consistency of getAllEmployees(): an iterator sees exactly the employees that were in the list when the
+// iterator was created, in order, and never throws ConcurrentModificationException; employees added or
+// deleted afterwards are not reflected. The fields of those employees are read live, so an employee seen by
+// the iterator shows its latest wage, balances and name, which may include changes made after iteration began.
+public class ConcurrentEmployeeList extends EmployeeList {
+    private SnapshotList<Employee> employees;
+
+    // EFFECTS: initiates a new, empty concurrent employee list
+    public ConcurrentEmployeeList() {
+        this(new SnapshotList<Employee>());
+    }
+
+    // EFFECTS: initiates a new, empty concurrent employee list that keeps its employees in employees
+    private ConcurrentEmployeeList(SnapshotList<Employee> employees) {
+        super(employees, new ConcurrentHashMap<String, Employee>(), new ConcurrentSkipListMap<String, Employee>(),
+                new CopyOnWriteArrayList<EmployeeListener>(), new CopyOnWriteArrayList<EmployeeListener>());
+        this.employees = employees;
+    }
+
+    // EFFECTS: returns a read-only snapshot of all employees in the list now, which later additions and
+    //          deletions do not change
+    @Override
+    public List<Employee> getAllEmployees() {
+        return employees.snapshot();
+    }
+
+    // MODIFIES: this, employee
+    // EFFECTS: adds a new employee to employeeList
+    //          throws DuplicateEmployeeException if employee with same name already exists
+    @Override
+    public synchronized void addEmployee(Employee employee) throws DuplicateEmployeeException {
+        super.addEmployee(employee);
+    }
+
+    // MODIFIES: this, every employee in employees
+    // EFFECTS: adds every employee in employees, in order, skipping any whose name is already in the list, and
+    //          returns the number added; the employees are added under one lock and published to readers at once
+    public synchronized int addAllEmployees(List<Employee> employees) {
+        int added = 0;
+        for (Employee employee : employees) {
+            try {
+                super.addEmployee(employee);
+                added++;
+            } catch (DuplicateEmployeeException duplicateEmployeeException) {
+                // Skip adding duplicate employee
+            }
+        }
+        return added;
+    }
+
+    // MODIFIES: this, employee
+    // EFFECTS: deletes a given employee from the employeeList
+    //          throws EmployeeDoesNotExistException if employee to delete does not exist
+    @Override
+    public synchronized void deleteEmployee(Employee employee) throws EmployeeDoesNotExistException {
+        super.deleteEmployee(employee);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the index entry of an employee about to be renamed from oldName to newName
+    //          throws DuplicateEmployeeException, leaving the index as it was, if another employee in this list
+    //          is already called newName
+    @Override
+    synchronized void reindexEmployee(String oldName, String newName, Employee employee)
+            throws DuplicateEmployeeException {
+        super.reindexEmployee(oldName, newName, employee);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the index entry of employee from oldName to newName
+    @Override
+    synchronized void moveIndexEntry(String oldName, String newName, Employee employee) {
+        super.moveIndexEntry(oldName, newName, employee);
+    }
+}
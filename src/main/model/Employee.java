@@ -1,17 +1,38 @@
 package model;
 
+import exceptions.DuplicateEmployeeException;
+import metrics.PayrollMetrics;
 import org.json.JSONObject;
 import persistence.Writable;
 
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
+// An employee can be shared between threads: every field is volatile so reads never block, and changes to the
+// name, wage or status lock only this employee, so changes to different employees can be made at the same time.
+// The amount owed and the total paid are packed into one long that is updated without locking: any number of
+// threads can record work for the same employee at once without losing any of it, and a payment moves the
+// whole amount owed into the total paid in one atomic step.
 public class Employee implements Writable {
-    private String name;
-    private boolean hourlyStatus;
-    private int wage;
-    private int currentOwnedToEmployee;
-    private int totalPaidToEmployee;
+    private static final EmployeeList[] NO_OWNERS = new EmployeeList[0];
+    private static final EmployeeListener[] NO_LISTENERS = new EmployeeListener[0];
+    private static final AtomicReferenceFieldUpdater<Employee, EmployeeList[]> OWNERS =
+            AtomicReferenceFieldUpdater.newUpdater(Employee.class, EmployeeList[].class, "owners");
+    private static final AtomicLongFieldUpdater<Employee> BALANCES =
+            AtomicLongFieldUpdater.newUpdater(Employee.class, "balances");
+    private static final long OWED_MASK = 0xFFFFFFFFL;
+    private static final long PAID_UNIT = 1L << 32;
 
+    private volatile String name;
+    private volatile boolean hourlyStatus;
+    private volatile int wage;
+    private volatile long balances;
+    private volatile int rateVersion;
+    private volatile EmployeeList[] owners = NO_OWNERS;
+    private volatile EmployeeListener[] listeners = NO_LISTENERS;
 
     // REQUIRES: employeeName has a non-zero length and employeeWage is more than 0
     // EFFECTS: name on account is set to employeeName;
@@ -22,8 +43,7 @@ public class Employee implements Writable {
         this.name = employeeName;
         this.hourlyStatus = hourlyStatus;
         this.wage = employeeWage;
-        this.currentOwnedToEmployee = 0;
-        this.totalPaidToEmployee = 0;
+        this.balances = 0;
     }
 
     public String getName() {
@@ -39,86 +59,253 @@ public class Employee implements Writable {
     }
 
     public int getCurrentOwned() {
-        return currentOwnedToEmployee;
+        return (int) balances;
     }
 
     public int getTotalPaid() {
-        return totalPaidToEmployee;
+        return (int) (balances >>> 32);
     }
 
     // REQUIRES: newName has a non-zero length
     // MODIFIES: this
     // EFFECTS: changes employee name to a newName
-    public void changeName(String newName) {
+    //          throws DuplicateEmployeeException, leaving the name unchanged, if another employee in a list
+    //          this employee belongs to is already called newName
+    public synchronized void changeName(String newName) throws DuplicateEmployeeException {
+        String oldName = this.name;
+        reindexInOwners(oldName, newName);
         this.name = newName;
+        notifyRenamed(oldName);
     }
 
     // REQUIRES: newWage must be more than 0
     // MODIFIES: this
     // EFFECTS: changes employee wage to a newWage
-    public void changeWage(int newWage) {
+    public synchronized void changeWage(int newWage) {
+        rateVersion++;
         this.wage = newWage;
+        rateVersion++;
+        fireEvent(EmployeeEvent.Type.WAGE_CHANGED, newWage);
     }
 
     // MODIFIES: this
     // EFFECTS: changes employee status and wage from hourly to salary or vice versa
     //          and returns the new employee status as a string;
     //          assumes a full time employee works 2080 hours per year
-    public String changeHourlyStatus() {
+    public synchronized String changeHourlyStatus() {
+        rateVersion++;
         if (hourlyStatus) {
             this.hourlyStatus = false;
             this.wage = this.wage * 2080;
-            return "Salary";
         } else {
             this.hourlyStatus = true;
             this.wage = this.wage / 2080;
-            return "Hourly";
         }
+        rateVersion++;
+        fireEvent(EmployeeEvent.Type.HOURLY_STATUS_CHANGED, wage);
+        return hourlyStatus ? "Hourly" : "Salary";
     }
 
     // REQUIRES: ownedToEmployee >= 0;
     // MODIFIES: this
     // EFFECTS: sets the amount amount owned to ownedToEmployee;
     public void setCurrentOwnedToEmployee(int ownedToEmployee) {
-        this.currentOwnedToEmployee = ownedToEmployee;
+        long current;
+        do {
+            current = balances;
+        } while (!BALANCES.compareAndSet(this, current, (current & ~OWED_MASK) | (ownedToEmployee & OWED_MASK)));
+        fireEvent(EmployeeEvent.Type.CURRENT_OWNED_SET, name, ownedToEmployee, (int) current);
     }
 
     // REQUIRES: totalPaid >= 0;
     // MODIFIES: this
     // EFFECTS: sets the amount amount paid to the employee to totalPaid;
     public void setTotalPaidToEmployee(int totalPaid) {
-        this.totalPaidToEmployee = totalPaid;
+        long current;
+        do {
+            current = balances;
+        } while (!BALANCES.compareAndSet(this, current, ((long) totalPaid << 32) | (current & OWED_MASK)));
+        fireEvent(EmployeeEvent.Type.TOTAL_PAID_SET, name, totalPaid, (int) (current >>> 32));
     }
 
     // REQUIRES: if employee is hourly, timeWorked is the hours worked in a week,
     //           if employee is salaried, timeWorked is the number of days worked in pay period
     // MODIFIES: this
-    // EFFECTS: adds the time worked to the sum owning to the employee
+    // EFFECTS: adds the time worked to the sum owning to the employee;
+    //          safe to call from many threads at once without locking
     public void recordWorkAmount(int timeWorked) {
-        if (hourlyStatus) {
-            this.currentOwnedToEmployee += this.wage * timeWorked;
-        } else {
-            this.currentOwnedToEmployee += this.wage / 365 * timeWorked;
-        }
+        int amountOwed = amountOwedFor(timeWorked);
+        addOwed(amountOwed);
+        fireEvent(EmployeeEvent.Type.WORK_RECORDED, amountOwed);
     }
 
     // MODIFIES: this
     // EFFECTS: pays out all amount owning to employee and returns the amount;
-    //          sets current owned to employee back to 0
+    //          sets current owned to employee back to 0;
+    //          the amount owed is moved into the total paid in one atomic step, so work recorded
+    //          at the same time is either included in this payment or left owing, never lost
     public int payEmployee() {
-        int amountPaid = this.currentOwnedToEmployee;
-        this.totalPaidToEmployee += this.currentOwnedToEmployee;
-        this.currentOwnedToEmployee = 0;
+        long current;
+        int amountPaid;
+        do {
+            current = balances;
+            amountPaid = (int) current;
+        } while (!BALANCES.compareAndSet(this, current, (long) ((int) (current >>> 32) + amountPaid) << 32));
+        PayrollMetrics.getInstance().recordEmployeePaid(amountPaid);
+        fireEvent(EmployeeEvent.Type.PAID, amountPaid);
         return amountPaid;
     }
 
+    // EFFECTS: returns the amount owed for timeWorked at the employee's current wage and status;
+    //          if the wage or status is being changed at the same time, retries until it reads
+    //          a wage and status that were set together
+    private int amountOwedFor(int timeWorked) {
+        while (true) {
+            int version = rateVersion;
+            boolean hourly = hourlyStatus;
+            int currentWage = wage;
+            if ((version & 1) == 0 && version == rateVersion) {
+                return hourly ? currentWage * timeWorked : currentWage / 365 * timeWorked;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds amount to the amount owed with a single atomic add, keeping the int overflow
+    //          behaviour of the amount owed from carrying into the total paid
+    private void addOwed(int amount) {
+        long previous = BALANCES.getAndAdd(this, amount);
+        long owed = (previous & OWED_MASK) + amount;
+        if (owed > OWED_MASK) {
+            BALANCES.getAndAdd(this, -PAID_UNIT);
+        } else if (owed < 0) {
+            BALANCES.getAndAdd(this, PAID_UNIT);
+        }
+    }
+
     // REQUIRES: name has a non-zero length and wage > 0
     // MODIFIES: this
     // EFFECTS: resets employee fields to inputted paramters
-    public void reset(String name, boolean hourlyStatus, int wage) {
+    //          throws DuplicateEmployeeException, leaving every field unchanged, if another employee in a list
+    //          this employee belongs to is already called name
+    public synchronized void reset(String name, boolean hourlyStatus, int wage) throws DuplicateEmployeeException {
+        String oldName = this.name;
+        reindexInOwners(oldName, name);
+        boolean statusChanged = this.hourlyStatus != hourlyStatus;
+        boolean wageChanged = this.wage != wage;
         this.name = name;
+        rateVersion++;
         this.hourlyStatus = hourlyStatus;
         this.wage = wage;
+        rateVersion++;
+        notifyRenamed(oldName);
+        if (statusChanged) {
+            fireEvent(EmployeeEvent.Type.HOURLY_STATUS_CHANGED, wage);
+        } else if (wageChanged) {
+            fireEvent(EmployeeEvent.Type.WAGE_CHANGED, wage);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that this employee belongs to employeeList so it can be re-indexed on rename;
+    //          does not lock this employee, so a list may call it while holding its own lock
+    void addOwner(EmployeeList employeeList) {
+        EmployeeList[] current;
+        EmployeeList[] updated;
+        do {
+            current = owners;
+            updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = employeeList;
+        } while (!OWNERS.compareAndSet(this, current, updated));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that this employee no longer belongs to employeeList
+    void removeOwner(EmployeeList employeeList) {
+        EmployeeList[] current;
+        EmployeeList[] updated;
+        do {
+            current = owners;
+            int index = Arrays.asList(current).indexOf(employeeList);
+            if (index < 0) {
+                return;
+            }
+            updated = new EmployeeList[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, updated.length - index);
+        } while (!OWNERS.compareAndSet(this, current, updated));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers listener to be told synchronously about every change to this employee
+    public synchronized void addListener(EmployeeListener listener) {
+        EmployeeListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops telling listener about changes to this employee
+    public synchronized void removeListener(EmployeeListener listener) {
+        List<EmployeeListener> updated = new ArrayList<EmployeeListener>(Arrays.asList(listeners));
+        updated.remove(listener);
+        listeners = updated.toArray(NO_LISTENERS);
+    }
+
+    // MODIFIES: every list this employee belongs to
+    // EFFECTS: re-indexes this employee under newName in every list it belongs to, ahead of renaming it;
+    //          throws DuplicateEmployeeException, leaving every list as it was, if another employee in one of
+    //          them is already called newName
+    private void reindexInOwners(String oldName, String newName) throws DuplicateEmployeeException {
+        if (oldName.equals(newName)) {
+            return;
+        }
+        EmployeeList[] currentOwners = owners;
+        for (int i = 0; i < currentOwners.length; i++) {
+            try {
+                currentOwners[i].reindexEmployee(oldName, newName, this);
+            } catch (DuplicateEmployeeException duplicateEmployeeException) {
+                for (int j = 0; j < i; j++) {
+                    currentOwners[j].moveIndexEntry(newName, oldName, this);
+                }
+                throw duplicateEmployeeException;
+            }
+        }
+    }
+
+    // EFFECTS: fires a RENAMED event if the name has changed from oldName
+    private void notifyRenamed(String oldName) {
+        if (!oldName.equals(name)) {
+            fireEvent(EmployeeEvent.Type.RENAMED, oldName, 0, 0);
+        }
+    }
+
+    // EFFECTS: fires an event of the given type with amount about this employee
+    private void fireEvent(EmployeeEvent.Type type, int amount) {
+        fireEvent(type, name, amount, 0);
+    }
+
+    // EFFECTS: passes an event of the given type to this employee's listeners and to the lists it belongs to;
+    //          no event is created if the employee has no listeners and is in no list
+    private void fireEvent(EmployeeEvent.Type type, String oldName, int amount, int previousAmount) {
+        EmployeeList[] currentOwners = owners;
+        if (listeners.length > 0 || currentOwners.length > 0) {
+            EmployeeEvent event = new EmployeeEvent(type, this, name, oldName, -1, amount, previousAmount);
+            for (EmployeeListener listener : listeners) {
+                listener.employeeChanged(event);
+            }
+            for (EmployeeList owner : currentOwners) {
+                owner.fireEvent(event);
+            }
+        }
+    }
+
+    // EFFECTS: returns a new employee with the same name, status, wage and balances as this one,
+    //          with no listeners and in no list
+    public synchronized Employee copy() {
+        Employee copy = new Employee(name, hourlyStatus, wage);
+        copy.balances = balances;
+        return copy;
     }
 
     // EFFECTS: checks if another employee is equal to this employee
@@ -136,13 +323,14 @@ public class Employee implements Writable {
 
     @Override
     // EFFECTS: returns employee as a JSON object
-    public JSONObject toJson() {
+    public synchronized JSONObject toJson() {
         JSONObject json = new JSONObject();
         json.put("name", name);
         json.put("hourlyStatus", hourlyStatus);
         json.put("wage", wage);
-        json.put("currentOwnedToEmployee", currentOwnedToEmployee);
-        json.put("totalPaidToEmployee", totalPaidToEmployee);
+        long currentBalances = balances;
+        json.put("currentOwnedToEmployee", (int) currentBalances);
+        json.put("totalPaidToEmployee", (int) (currentBalances >>> 32));
         return json;
     }
 }
@@ -0,0 +1,88 @@
+package model;
+
+// Represents one change made to an employee list or to one of its employees.
+// Events are immutable: the name, index and amount are those at the moment the change was made,
+// so they stay correct when events are delivered later in a batch.
+public class EmployeeEvent {
+
+    // The kinds of change an event can describe
+    public enum Type {
+        // The employee was added to the list at getIndex()
+        ADDED,
+        // The employee was deleted from the list at getIndex()
+        DELETED,
+        // The employee was renamed from getOldName() to getName()
+        RENAMED,
+        // The employee's wage was changed to getAmount()
+        WAGE_CHANGED,
+        // The employee's hourly status was changed, and with it their wage, to getAmount()
+        HOURLY_STATUS_CHANGED,
+        // getAmount() was added to what the employee is owed
+        WORK_RECORDED,
+        // The employee was paid getAmount()
+        PAID,
+        // What the employee is owed was set to getAmount() from getPreviousAmount()
+        CURRENT_OWNED_SET,
+        // The total paid to the employee was set to getAmount() from getPreviousAmount()
+        TOTAL_PAID_SET
+    }
+
+    private final Type type;
+    private final Employee employee;
+    private final String name;
+    private final String oldName;
+    private final int index;
+    private final int amount;
+    private final int previousAmount;
+
+    // EFFECTS: constructs an event of the given type about employee, who is now called name
+    EmployeeEvent(Type type, Employee employee, String name, String oldName, int index, int amount,
+                  int previousAmount) {
+        this.type = type;
+        this.employee = employee;
+        this.name = name;
+        this.oldName = oldName;
+        this.index = index;
+        this.amount = amount;
+        this.previousAmount = previousAmount;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    // EFFECTS: returns the employee's name just after the change
+    public String getName() {
+        return name;
+    }
+
+    // EFFECTS: returns the employee's name before a RENAMED change, otherwise the same as getName()
+    public String getOldName() {
+        return oldName;
+    }
+
+    // EFFECTS: returns the position in the list of an ADDED or DELETED employee, otherwise -1
+    public int getIndex() {
+        return index;
+    }
+
+    // EFFECTS: returns the wage or amount described by the event type, otherwise 0
+    public int getAmount() {
+        return amount;
+    }
+
+    // EFFECTS: returns the amount owed or total paid that a CURRENT_OWNED_SET or TOTAL_PAID_SET change replaced,
+    //          otherwise 0
+    public int getPreviousAmount() {
+        return previousAmount;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + name + (index >= 0 ? " at " + index : "") + (amount != 0 ? ": " + amount : "");
+    }
+}
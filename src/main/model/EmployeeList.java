@@ -2,20 +2,123 @@ package model;
 
 import exceptions.DuplicateEmployeeException;
 import exceptions.EmployeeDoesNotExistException;
+import metrics.PayrollMetrics;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import persistence.Writable;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 public class EmployeeList implements Writable {
+    private static final int PAY_RUN_SLICE = 4096;
+    // Position of the index partitioning employees by hourly status, after the index for each order
+    private static final int HOURLY_STATUS_INDEX = Order.values().length;
     private List<Employee> employeeList;
+    private Map<String, Employee> employeeIndex;
+    private NavigableMap<String, Employee> prefixIndex;
+    private List<EmployeeListener> listeners;
+    private List<EmployeeListener> batchedListeners;
+    private List<EmployeeEvent> pendingEvents;
+    private volatile int batchDepth;
+    private volatile SortedIndex[] sortedIndexes;
+    private PayrollTotals totals;
+
+    // The orders in which employees can be ranked and queried by range
+    public enum Order {
+        WAGE(Employee::getWage, EmployeeEvent.Type.WAGE_CHANGED, EmployeeEvent.Type.HOURLY_STATUS_CHANGED),
+        CURRENT_OWNED(Employee::getCurrentOwned, EmployeeEvent.Type.WORK_RECORDED, EmployeeEvent.Type.PAID,
+                EmployeeEvent.Type.CURRENT_OWNED_SET),
+        TOTAL_PAID(Employee::getTotalPaid, EmployeeEvent.Type.PAID, EmployeeEvent.Type.TOTAL_PAID_SET);
+
+        private final ToIntFunction<Employee> valueOf;
+        private final EmployeeEvent.Type[] valueChanges;
+
+        Order(ToIntFunction<Employee> valueOf, EmployeeEvent.Type... valueChanges) {
+            this.valueOf = valueOf;
+            this.valueChanges = valueChanges;
+        }
+    }
 
     // EFFECTS: initiates a new employee list
     public EmployeeList() {
-        employeeList = new ArrayList<Employee>();
+        this(new ArrayList<Employee>(), new HashMap<String, Employee>(), new TreeMap<String, Employee>(),
+                new ArrayList<EmployeeListener>(), new ArrayList<EmployeeListener>());
+    }
+
+    // REQUIRES: every collection given is empty
+    // EFFECTS: initiates a new employee list that keeps its employees, its name index, its name prefix index
+    //          and its synchronous and batched listeners in the given collections
+    protected EmployeeList(List<Employee> employeeList, Map<String, Employee> employeeIndex,
+                           NavigableMap<String, Employee> prefixIndex, List<EmployeeListener> listeners,
+                           List<EmployeeListener> batchedListeners) {
+        this.employeeList = employeeList;
+        this.employeeIndex = employeeIndex;
+        this.prefixIndex = prefixIndex;
+        this.listeners = listeners;
+        this.batchedListeners = batchedListeners;
+        this.pendingEvents = new ArrayList<EmployeeEvent>();
+        this.totals = new PayrollTotals();
+        this.sortedIndexes = new SortedIndex[HOURLY_STATUS_INDEX + 1];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers listener to be told synchronously about every change to this list and its employees
+    public void addListener(EmployeeListener listener) {
+        addListener(listener, EmployeeListener.Delivery.SYNCHRONOUS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers listener to be told about every change to this list and its employees,
+    //          delivered as given by delivery
+    public void addListener(EmployeeListener listener, EmployeeListener.Delivery delivery) {
+        if (delivery == EmployeeListener.Delivery.SYNCHRONOUS) {
+            listeners.add(listener);
+        } else {
+            batchedListeners.add(listener);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops telling listener about changes
+    public void removeListener(EmployeeListener listener) {
+        listeners.remove(listener);
+        batchedListeners.remove(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a batch: changes are held back from batched listeners until the matching endBatch();
+    //          batches may be nested, and the changes are delivered when the outermost one ends
+    public void beginBatch() {
+        synchronized (pendingEvents) {
+            batchDepth++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends a batch started by beginBatch(); if it is the outermost one, delivers every change held
+    //          back during it to each batched listener in one call
+    public void endBatch() {
+        List<EmployeeEvent> events;
+        synchronized (pendingEvents) {
+            if (batchDepth == 0 || --batchDepth > 0 || pendingEvents.isEmpty()) {
+                return;
+            }
+            events = new ArrayList<EmployeeEvent>(pendingEvents);
+            pendingEvents.clear();
+        }
+        deliverBatch(Collections.unmodifiableList(events));
     }
 
     // EFFECTS: returns the list of all employees
@@ -26,14 +129,9 @@ public class EmployeeList implements Writable {
     // EFFECTS: returns an employee based on the employee's name
     //          Throws EmployeeDoesNotExistException if no such employee exists
     public Employee getEmployee(String employeeName) throws EmployeeDoesNotExistException {
-        Employee employeeToReturn = null;
-
-        for (Employee employee : employeeList) {
-            if (employee.getName().equals(employeeName)) {
-                employeeToReturn = employee;
-            }
-        }
+        Employee employeeToReturn = employeeIndex.get(employeeName);
 
+        PayrollMetrics.getInstance().recordLookup(employeeToReturn != null);
         if (Objects.isNull(employeeToReturn)) {
             throw new EmployeeDoesNotExistException();
         } else {
@@ -41,9 +139,43 @@ public class EmployeeList implements Writable {
         }
     }
 
+    // EFFECTS: returns, in alphabetical order, up to limit employees whose names start with prefix, ignoring
+    //          case; takes time logarithmic in the number of employees plus the number of employees returned
+    public List<Employee> searchByName(String prefix, int limit) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        List<Employee> matches = new ArrayList<Employee>();
+        for (Map.Entry<String, Employee> entry : prefixIndex.tailMap(key, true).entrySet()) {
+            if (matches.size() >= limit || !entry.getKey().startsWith(key)) {
+                break;
+            }
+            matches.add(entry.getValue());
+        }
+        return matches;
+    }
+
+    // EFFECTS: returns up to count employees with the highest values in order, highest first;
+    //          the first query builds a sorted index for order, which is then kept up to date as employees
+    //          change, so later queries take logarithmic time plus the number of employees returned
+    public List<Employee> getTop(Order order, int count) {
+        return sortedIndex(order.ordinal()).top(count);
+    }
+
+    // EFFECTS: returns every employee whose value in order is from low to high inclusive, lowest first;
+    //          uses a sorted index as getTop does
+    public List<Employee> getInRange(Order order, int low, int high) {
+        return sortedIndex(order.ordinal()).range(low, high);
+    }
+
+    // EFFECTS: returns every hourly employee if hourlyStatus is true, otherwise every salaried employee,
+    //          in no particular order; uses a sorted index as getTop does
+    public List<Employee> getEmployeesByHourlyStatus(boolean hourlyStatus) {
+        int status = hourlyStatus ? 1 : 0;
+        return sortedIndex(HOURLY_STATUS_INDEX).range(status, status);
+    }
+
     // EFFECTS: returns true if an employee already exists in the employee list
     public boolean contains(Employee employee) {
-        return employeeList.contains(employee);
+        return employeeIndex.containsKey(employee.getName());
     }
 
     // EFFECTS: returns the count of the employees in the employeeList
@@ -51,25 +183,229 @@ public class EmployeeList implements Writable {
         return employeeList.size();
     }
 
-    // MODIFIES: this
+    // EFFECTS: returns the total owed to the employees in this list, kept up to date as they change
+    public long getTotalOwed() {
+        return totals.getTotalOwed();
+    }
+
+    // EFFECTS: returns the total paid to date to the employees in this list, kept up to date as they change
+    public long getTotalPaid() {
+        return totals.getTotalPaid();
+    }
+
+    // EFFECTS: returns the number of hourly employees in this list, kept up to date as they change
+    public int getHourlyCount() {
+        return totals.getHourlyCount();
+    }
+
+    // EFFECTS: returns the number of salaried employees in this list, kept up to date as they change
+    public int getSalariedCount() {
+        return totals.getSalariedCount();
+    }
+
+    // MODIFIES: this, employee
     // EFFECTS: adds a new employee to employeeList
     //          throws DuplicateEmployeeException if employee with same name already exists
     public void addEmployee(Employee employee) throws DuplicateEmployeeException {
-        if (employeeList.contains(employee)) {
+        if (employeeIndex.containsKey(employee.getName())) {
             throw new DuplicateEmployeeException();
         } else {
             employeeList.add(employee);
+            employeeIndex.put(employee.getName(), employee);
+            prefixIndex.put(prefixKey(employee.getName()), employee);
+            employee.addOwner(this);
+            PayrollMetrics.getInstance().recordEmployeeAdded();
+            fireMembershipEvent(EmployeeEvent.Type.ADDED, employee, employeeList.size() - 1);
         }
     }
 
-    // MODIFIES: this
+    // MODIFIES: this, employee
     // EFFECTS: deletes a given employee from the employeeList
     //          throws EmployeeDoesNotExistException if employee to delete does not exist
     public void deleteEmployee(Employee employee) throws EmployeeDoesNotExistException {
-        if (!employeeList.contains(employee)) {
+        Employee employeeToDelete = employeeIndex.remove(employee.getName());
+
+        if (Objects.isNull(employeeToDelete)) {
             throw new EmployeeDoesNotExistException();
         } else {
-            employeeList.remove(employee);
+            int index = employeeList.indexOf(employeeToDelete);
+            employeeList.remove(index);
+            prefixIndex.remove(prefixKey(employeeToDelete.getName()));
+            employeeToDelete.removeOwner(this);
+            PayrollMetrics.getInstance().recordEmployeeDeleted();
+            fireMembershipEvent(EmployeeEvent.Type.DELETED, employeeToDelete, index);
+        }
+    }
+
+    // EFFECTS: returns a new list holding a copy of each employee in this list, in the same order and with
+    //          no listeners; later changes to either list or its employees do not affect the other
+    public EmployeeList copy() {
+        EmployeeList copy = new EmployeeList();
+        for (Employee employee : employeeList) {
+            Employee employeeCopy = employee.copy();
+            copy.employeeList.add(employeeCopy);
+            copy.employeeIndex.put(employeeCopy.getName(), employeeCopy);
+            copy.prefixIndex.put(prefixKey(employeeCopy.getName()), employeeCopy);
+            employeeCopy.addOwner(copy);
+            copy.totals.add(employeeCopy);
+        }
+        return copy;
+    }
+
+    // MODIFIES: every employee in this list
+    // EFFECTS: pays every employee everything they are owed and returns the result of the pay run
+    public PayRun payAll() {
+        return payEmployees(employee -> true);
+    }
+
+    // MODIFIES: every employee in this list for which filter returns true
+    // EFFECTS: pays every employee accepted by filter everything they are owed and returns the result
+    //          of the pay run; large lists are split into slices that are paid in parallel,
+    //          so synchronous listeners may be called from several threads at once;
+    //          the whole pay run is one batch
+    public PayRun payEmployees(Predicate<Employee> filter) {
+        long start = System.nanoTime();
+        Employee[] employees = employeeList.toArray(new Employee[0]);
+        int[] amountsPaid = new int[employees.length];
+        boolean[] included = new boolean[employees.length];
+        PaySlice payRun = new PaySlice(employees, amountsPaid, included, filter, 0, employees.length);
+
+        beginBatch();
+        try {
+            if (employees.length <= PAY_RUN_SLICE) {
+                payRun.compute();
+            } else {
+                ForkJoinPool.commonPool().invoke(payRun);
+            }
+        } finally {
+            endBatch();
+        }
+        PayrollMetrics.getInstance().recordPayRun(start);
+        return collectPayRun(employees, amountsPaid, included);
+    }
+
+    // EFFECTS: returns a pay run holding only the employees that were included, keeping their order
+    private PayRun collectPayRun(Employee[] employees, int[] amountsPaid, boolean[] included) {
+        int count = 0;
+        for (int i = 0; i < employees.length; i++) {
+            if (included[i]) {
+                employees[count] = employees[i];
+                amountsPaid[count] = amountsPaid[i];
+                count++;
+            }
+        }
+        return new PayRun(employees, amountsPaid, count);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the index entry of an employee about to be renamed from oldName to newName
+    //          throws DuplicateEmployeeException, leaving the index as it was, if another employee in this list
+    //          is already called newName
+    void reindexEmployee(String oldName, String newName, Employee employee) throws DuplicateEmployeeException {
+        Employee existing = employeeIndex.get(newName);
+        if (existing != null && existing != employee) {
+            throw new DuplicateEmployeeException();
+        }
+        moveIndexEntry(oldName, newName, employee);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the index entry of employee from oldName to newName
+    void moveIndexEntry(String oldName, String newName, Employee employee) {
+        employeeIndex.remove(oldName, employee);
+        employeeIndex.put(newName, employee);
+        prefixIndex.remove(prefixKey(oldName), employee);
+        prefixIndex.put(prefixKey(newName), employee);
+    }
+
+    // EFFECTS: returns the key of the employee called name in the prefix index: the name in lower case, so
+    //          names sharing a prefix in any case are next to each other, then the name itself to keep keys unique
+    private static String prefixKey(String name) {
+        return name.toLowerCase(Locale.ROOT) + '\0' + name;
+    }
+
+    // EFFECTS: brings the payroll totals and the sorted indexes that are built up to date with event, then passes
+    //          event to every synchronous listener and delivers it to the batched listeners, or holds it back for
+    //          them if a batch is in progress
+    void fireEvent(EmployeeEvent event) {
+        totals.employeeChanged(event);
+        updateSortedIndexes(event);
+        for (EmployeeListener listener : listeners) {
+            listener.employeeChanged(event);
+        }
+        if (!batchedListeners.isEmpty()) {
+            synchronized (pendingEvents) {
+                if (batchDepth > 0) {
+                    pendingEvents.add(event);
+                    return;
+                }
+            }
+            deliverBatch(Collections.singletonList(event));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the employee event is about in each built sorted index whose order the event can change;
+    //          during a batch, such as a pay run, drops each such index instead, so it is built again by the next
+    //          query rather than being updated one employee at a time while the batch runs
+    private void updateSortedIndexes(EmployeeEvent event) {
+        SortedIndex[] indexes = sortedIndexes;
+        for (int position = 0; position < indexes.length; position++) {
+            SortedIndex index = indexes[position];
+            if (index != null && index.isChangedBy(event.getType())) {
+                if (batchDepth > 0) {
+                    dropSortedIndex(position, index);
+                } else {
+                    index.employeeChanged(event);
+                }
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets index, if it is still the sorted index at position, so the next query builds it again
+    private synchronized void dropSortedIndex(int position, SortedIndex index) {
+        if (sortedIndexes[position] == index) {
+            SortedIndex[] indexes = sortedIndexes.clone();
+            indexes[position] = null;
+            sortedIndexes = indexes;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the sorted index at position, building it from the employees in the list the first time
+    //          and after it was dropped by a batch; the index is kept up to date with changes from before it is
+    //          filled, so a change made while it is being built is never missed, but it is only queried once full
+    private SortedIndex sortedIndex(int position) {
+        SortedIndex index = sortedIndexes[position];
+        if (index != null && index.isFilled()) {
+            return index;
+        }
+        synchronized (this) {
+            index = sortedIndexes[position];
+            if (index == null) {
+                index = position == HOURLY_STATUS_INDEX
+                        ? new SortedIndex(employee -> employee.getHourlyStatus() ? 1 : 0,
+                                EmployeeEvent.Type.HOURLY_STATUS_CHANGED)
+                        : new SortedIndex(Order.values()[position].valueOf, Order.values()[position].valueChanges);
+                SortedIndex[] indexes = sortedIndexes.clone();
+                indexes[position] = index;
+                sortedIndexes = indexes;
+                index.fill(employeeList.toArray(new Employee[0]));
+            }
+            return index;
+        }
+    }
+
+    // EFFECTS: fires an ADDED or DELETED event about employee at index
+    private void fireMembershipEvent(EmployeeEvent.Type type, Employee employee, int index) {
+        fireEvent(new EmployeeEvent(type, employee, employee.getName(), employee.getName(), index, 0, 0));
+    }
+
+    // EFFECTS: passes events to every batched listener
+    private void deliverBatch(List<EmployeeEvent> events) {
+        for (EmployeeListener listener : batchedListeners) {
+            listener.employeesChanged(events);
         }
     }
 
@@ -91,4 +427,41 @@ public class EmployeeList implements Writable {
 
         return jsonArray;
     }
+
+    // Represents the part of a pay run covering employees[start] to employees[end - 1]
+    private static class PaySlice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private Employee[] employees;
+        private int[] amountsPaid;
+        private boolean[] included;
+        private Predicate<Employee> filter;
+        private int start;
+        private int end;
+
+        PaySlice(Employee[] employees, int[] amountsPaid, boolean[] included, Predicate<Employee> filter,
+                 int start, int end) {
+            this.employees = employees;
+            this.amountsPaid = amountsPaid;
+            this.included = included;
+            this.filter = filter;
+            this.start = start;
+            this.end = end;
+        }
+
+        // MODIFIES: employees in this slice accepted by filter
+        // EFFECTS: pays the employees in this slice, splitting it in two if it is too large
+        @Override
+        protected void compute() {
+            if (end - start <= PAY_RUN_SLICE) {
+                for (int i = start; i < end; i++) {
+                    included[i] = filter.test(employees[i]);
+                    amountsPaid[i] = included[i] ? employees[i].payEmployee() : 0;
+                }
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new PaySlice(employees, amountsPaid, included, filter, start, middle),
+                        new PaySlice(employees, amountsPaid, included, filter, middle, end));
+            }
+        }
+    }
 }
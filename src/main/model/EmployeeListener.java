@@ -0,0 +1,27 @@
+package model;
+
+import java.util.List;
+
+// A listener for the changes made to an employee list and its employees, or to a single employee.
+// A listener registered for SYNCHRONOUS delivery is called on the thread that made each change, just after it
+// was made. One registered for BATCHED delivery is called with every change made during a batch, in order,
+// once the batch ends; changes made outside any batch are delivered straight away as a batch of one.
+public interface EmployeeListener {
+
+    // How events are delivered to a listener registered with an employee list
+    enum Delivery {
+        SYNCHRONOUS,
+        BATCHED
+    }
+
+    // EFFECTS: called with one change
+    void employeeChanged(EmployeeEvent event);
+
+    // EFFECTS: called with the changes made during a batch, in the order they were made;
+    //          by default passes each one to employeeChanged
+    default void employeesChanged(List<EmployeeEvent> events) {
+        for (EmployeeEvent event : events) {
+            employeeChanged(event);
+        }
+    }
+}
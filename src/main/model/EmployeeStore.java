@@ -0,0 +1,336 @@
+package model;
+
+import exceptions.DuplicateEmployeeException;
+import exceptions.EmployeeDoesNotExistException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// A compact store for very large numbers of employees. Instead of one Employee object per employee, every
+// field is kept in its own primitive array indexed by row: wages, amounts owed and totals paid in int arrays,
+// hourly status in a bit set and names in a name table, with an open-addressing hash index from name to row.
+// Scans such as totals and pay runs walk the arrays in order, and each employee costs a reference to its name,
+// three ints, one bit and a few index slots, with no object header, list slot or hash map entry of its own.
+// A row keeps its number until its employee is deleted, after which it may be reused by a new employee.
+// An EmployeeStore is not safe to share between threads.
+public class EmployeeStore implements Writable {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String[] names;
+    private BitSet hourlyStatus;
+    private int[] wages;
+    private int[] owed;
+    private int[] paid;
+    private int rowCount;
+    private int employeeCount;
+    private int[] freeRows;
+    private int freeRowCount;
+    private int[] nameIndex;
+
+    // EFFECTS: constructs an empty store
+    public EmployeeStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    // REQUIRES: expectedEmployees >= 0
+    // EFFECTS: constructs an empty store with room for expectedEmployees employees before it has to grow
+    public EmployeeStore(int expectedEmployees) {
+        int capacity = Math.max(INITIAL_CAPACITY, expectedEmployees);
+        names = new String[capacity];
+        hourlyStatus = new BitSet(capacity);
+        wages = new int[capacity];
+        owed = new int[capacity];
+        paid = new int[capacity];
+        freeRows = new int[INITIAL_CAPACITY];
+        nameIndex = new int[indexCapacityFor(capacity)];
+    }
+
+    // EFFECTS: returns a store holding a copy of every employee in employeeList, in list order
+    public static EmployeeStore of(EmployeeList employeeList) {
+        EmployeeStore store = new EmployeeStore(employeeList.getEmployeeCount());
+        for (Employee employee : employeeList.getAllEmployees()) {
+            try {
+                EmployeeView view = store.addEmployee(employee.getName(), employee.getHourlyStatus(),
+                        employee.getWage());
+                view.setCurrentOwnedToEmployee(employee.getCurrentOwned());
+                view.setTotalPaidToEmployee(employee.getTotalPaid());
+            } catch (DuplicateEmployeeException duplicateEmployeeException) {
+                // An employee list never holds two employees with the same name
+            }
+        }
+        return store;
+    }
+
+    // EFFECTS: returns a new employee list holding a copy of every employee in this store, in row order
+    public EmployeeList toEmployeeList() {
+        EmployeeList employeeList = new EmployeeList();
+        for (int row = 0; row < rowCount; row++) {
+            if (names[row] != null) {
+                try {
+                    employeeList.addEmployee(view(row).toEmployee());
+                } catch (DuplicateEmployeeException duplicateEmployeeException) {
+                    // Names in a store are unique
+                }
+            }
+        }
+        return employeeList;
+    }
+
+    // EFFECTS: returns the count of the employees in the store
+    public int getEmployeeCount() {
+        return employeeCount;
+    }
+
+    // EFFECTS: returns one more than the highest row that has ever held an employee; every employee is in a
+    //          row below this, and rows below it whose employee was deleted are empty
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    // EFFECTS: returns true if row holds an employee
+    public boolean isOccupied(int row) {
+        return row >= 0 && row < rowCount && names[row] != null;
+    }
+
+    // EFFECTS: returns true if an employee called name is in the store
+    public boolean contains(String name) {
+        return findRow(name) >= 0;
+    }
+
+    // EFFECTS: returns a view of the employee called name
+    //          throws EmployeeDoesNotExistException if no such employee exists
+    public EmployeeView getEmployee(String name) throws EmployeeDoesNotExistException {
+        int row = findRow(name);
+        if (row < 0) {
+            throw new EmployeeDoesNotExistException();
+        }
+        return new EmployeeView(this, row);
+    }
+
+    // REQUIRES: isOccupied(row)
+    // EFFECTS: returns a view of the employee in row
+    public EmployeeView view(int row) {
+        return new EmployeeView(this, row);
+    }
+
+    // REQUIRES: name has a non-zero length and wage is more than 0
+    // MODIFIES: this
+    // EFFECTS: adds an employee with nothing owed or paid and returns a view of it
+    //          throws DuplicateEmployeeException if an employee with the same name already exists
+    public EmployeeView addEmployee(String name, boolean hourly, int wage) throws DuplicateEmployeeException {
+        if (findRow(name) >= 0) {
+            throw new DuplicateEmployeeException();
+        }
+        int row = freeRowCount > 0 ? freeRows[--freeRowCount] : nextRow();
+        names[row] = name;
+        hourlyStatus.set(row, hourly);
+        wages[row] = wage;
+        owed[row] = 0;
+        paid[row] = 0;
+        employeeCount++;
+        insertIntoIndex(row);
+        return new EmployeeView(this, row);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the employee called name; views of it must no longer be used
+    //          throws EmployeeDoesNotExistException if employee to delete does not exist
+    public void deleteEmployee(String name) throws EmployeeDoesNotExistException {
+        int row = findRow(name);
+        if (row < 0) {
+            throw new EmployeeDoesNotExistException();
+        }
+        removeFromIndex(name);
+        names[row] = null;
+        owed[row] = 0;
+        paid[row] = 0;
+        employeeCount--;
+        if (freeRowCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeRows.length * 2);
+        }
+        freeRows[freeRowCount++] = row;
+    }
+
+    // EFFECTS: returns the sum of the amounts owed to every employee
+    public long getTotalOwed() {
+        return sum(owed);
+    }
+
+    // EFFECTS: returns the sum of the totals paid to every employee
+    public long getTotalPaid() {
+        return sum(paid);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: pays every employee everything they are owed and returns the total paid
+    public long payAll() {
+        long total = 0;
+        for (int row = 0; row < rowCount; row++) {
+            total += owed[row];
+            paid[row] += owed[row];
+            owed[row] = 0;
+        }
+        return total;
+    }
+
+    @Override
+    // EFFECTS: returns the store as a JSON object in the same format as EmployeeList.toJson()
+    public JSONObject toJson() {
+        JSONArray jsonArray = new JSONArray();
+        for (int row = 0; row < rowCount; row++) {
+            if (names[row] != null) {
+                jsonArray.put(view(row).toJson());
+            }
+        }
+        JSONObject json = new JSONObject();
+        json.put("employees", jsonArray);
+        return json;
+    }
+
+    // EFFECTS: returns the sum of values over the first rowCount rows; deleted rows always hold 0
+    private long sum(int[] values) {
+        long total = 0;
+        for (int row = 0; row < rowCount; row++) {
+            total += values[row];
+        }
+        return total;
+    }
+
+    String getName(int row) {
+        return names[row];
+    }
+
+    boolean getHourlyStatus(int row) {
+        return hourlyStatus.get(row);
+    }
+
+    int getWage(int row) {
+        return wages[row];
+    }
+
+    int getCurrentOwned(int row) {
+        return owed[row];
+    }
+
+    int getTotalPaid(int row) {
+        return paid[row];
+    }
+
+    // REQUIRES: no other employee is called newName
+    // MODIFIES: this
+    // EFFECTS: renames the employee in row to newName, moving its index entry
+    void setName(int row, String newName) {
+        removeFromIndex(names[row]);
+        names[row] = newName;
+        insertIntoIndex(row);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the status and wage of the employee in row
+    void setRate(int row, boolean hourly, int wage) {
+        hourlyStatus.set(row, hourly);
+        wages[row] = wage;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the amount owed to the employee in row
+    void setCurrentOwned(int row, int amount) {
+        owed[row] = amount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the total paid to the employee in row
+    void setTotalPaid(int row, int amount) {
+        paid[row] = amount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a row that has never been used, growing the arrays if they are full
+    private int nextRow() {
+        if (rowCount == names.length) {
+            int capacity = names.length * 2;
+            names = Arrays.copyOf(names, capacity);
+            wages = Arrays.copyOf(wages, capacity);
+            owed = Arrays.copyOf(owed, capacity);
+            paid = Arrays.copyOf(paid, capacity);
+        }
+        return rowCount++;
+    }
+
+    // EFFECTS: returns the row of the employee called name, or -1 if there is none
+    private int findRow(String name) {
+        int mask = nameIndex.length - 1;
+        for (int slot = hash(name) & mask; nameIndex[slot] != 0; slot = (slot + 1) & mask) {
+            int row = nameIndex[slot] - 1;
+            if (names[row].equals(name)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds an index entry for the employee in row, growing the index instead if it is half full,
+    //          since the grown index already holds every row including this one
+    private void insertIntoIndex(int row) {
+        if (employeeCount * 2 > nameIndex.length) {
+            rebuildIndex(nameIndex.length * 2);
+            return;
+        }
+        int mask = nameIndex.length - 1;
+        int slot = hash(names[row]) & mask;
+        while (nameIndex[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        nameIndex[slot] = row + 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the index entry for name, shifting back later entries of the same probe run
+    //          so that no lookup stops early at the emptied slot
+    private void removeFromIndex(String name) {
+        int mask = nameIndex.length - 1;
+        int slot = hash(name) & mask;
+        while (!names[nameIndex[slot] - 1].equals(name)) {
+            slot = (slot + 1) & mask;
+        }
+        for (int next = (slot + 1) & mask; nameIndex[next] != 0; next = (next + 1) & mask) {
+            int home = hash(names[nameIndex[next] - 1]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                nameIndex[slot] = nameIndex[next];
+                slot = next;
+            }
+        }
+        nameIndex[slot] = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the index with one of the given capacity holding every employee
+    private void rebuildIndex(int capacity) {
+        nameIndex = new int[capacity];
+        int mask = capacity - 1;
+        for (int row = 0; row < rowCount; row++) {
+            if (names[row] != null) {
+                int slot = hash(names[row]) & mask;
+                while (nameIndex[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                nameIndex[slot] = row + 1;
+            }
+        }
+    }
+
+    // EFFECTS: returns the smallest power of two that is at least twice employees
+    private static int indexCapacityFor(int employees) {
+        return Integer.highestOneBit(Math.max(1, employees * 2 - 1)) << 1;
+    }
+
+    // EFFECTS: returns the hash code of name with its bits spread so that nearby codes land in different slots
+    private static int hash(String name) {
+        int h = name.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,154 @@
+package model;
+
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.util.Objects;
+
+// A lightweight handle on one employee in an EmployeeStore, with the same operations as Employee.
+// A view holds only its store and row, so creating one is cheap; every call reads or writes the store's arrays.
+// A view must not be used after its employee is deleted from the store.
+public class EmployeeView implements Writable {
+    private final EmployeeStore store;
+    private final int row;
+
+    // REQUIRES: store.isOccupied(row)
+    // EFFECTS: constructs a view of the employee in row of store
+    EmployeeView(EmployeeStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    // EFFECTS: returns the row of this employee in its store
+    public int getRow() {
+        return row;
+    }
+
+    public String getName() {
+        return store.getName(row);
+    }
+
+    public boolean getHourlyStatus() {
+        return store.getHourlyStatus(row);
+    }
+
+    public int getWage() {
+        return store.getWage(row);
+    }
+
+    public int getCurrentOwned() {
+        return store.getCurrentOwned(row);
+    }
+
+    public int getTotalPaid() {
+        return store.getTotalPaid(row);
+    }
+
+    // REQUIRES: newName has a non-zero length and no other employee in the store is called newName
+    // MODIFIES: this
+    // EFFECTS: changes employee name to a newName
+    public void changeName(String newName) {
+        if (!newName.equals(getName())) {
+            store.setName(row, newName);
+        }
+    }
+
+    // REQUIRES: newWage must be more than 0
+    // MODIFIES: this
+    // EFFECTS: changes employee wage to a newWage
+    public void changeWage(int newWage) {
+        store.setRate(row, getHourlyStatus(), newWage);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: changes employee status and wage from hourly to salary or vice versa
+    //          and returns the new employee status as a string;
+    //          assumes a full time employee works 2080 hours per year
+    public String changeHourlyStatus() {
+        if (getHourlyStatus()) {
+            store.setRate(row, false, getWage() * 2080);
+        } else {
+            store.setRate(row, true, getWage() / 2080);
+        }
+        return getHourlyStatus() ? "Hourly" : "Salary";
+    }
+
+    // REQUIRES: ownedToEmployee >= 0;
+    // MODIFIES: this
+    // EFFECTS: sets the amount owned to ownedToEmployee
+    public void setCurrentOwnedToEmployee(int ownedToEmployee) {
+        store.setCurrentOwned(row, ownedToEmployee);
+    }
+
+    // REQUIRES: totalPaid >= 0;
+    // MODIFIES: this
+    // EFFECTS: sets the amount paid to the employee to totalPaid
+    public void setTotalPaidToEmployee(int totalPaid) {
+        store.setTotalPaid(row, totalPaid);
+    }
+
+    // REQUIRES: if employee is hourly, timeWorked is the hours worked in a week,
+    //           if employee is salaried, timeWorked is the number of days worked in pay period
+    // MODIFIES: this
+    // EFFECTS: adds the time worked to the sum owning to the employee
+    public void recordWorkAmount(int timeWorked) {
+        int amountOwed = getHourlyStatus() ? getWage() * timeWorked : getWage() / 365 * timeWorked;
+        store.setCurrentOwned(row, getCurrentOwned() + amountOwed);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: pays out all amount owning to employee and returns the amount;
+    //          sets current owned to employee back to 0
+    public int payEmployee() {
+        int amountPaid = getCurrentOwned();
+        store.setTotalPaid(row, getTotalPaid() + amountPaid);
+        store.setCurrentOwned(row, 0);
+        return amountPaid;
+    }
+
+    // REQUIRES: name has a non-zero length, wage > 0 and no other employee in the store is called name
+    // MODIFIES: this
+    // EFFECTS: resets employee fields to inputted parameters
+    public void reset(String name, boolean hourlyStatus, int wage) {
+        changeName(name);
+        store.setRate(row, hourlyStatus, wage);
+    }
+
+    // EFFECTS: returns a new Employee with the same fields as this employee
+    public Employee toEmployee() {
+        Employee employee = new Employee(getName(), getHourlyStatus(), getWage());
+        employee.setCurrentOwnedToEmployee(getCurrentOwned());
+        employee.setTotalPaidToEmployee(getTotalPaid());
+        return employee;
+    }
+
+    // EFFECTS: returns true if o is a view of the same row of the same store
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        EmployeeView view = (EmployeeView) o;
+        return store == view.store && row == view.row;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(store), row);
+    }
+
+    @Override
+    // EFFECTS: returns employee as a JSON object
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("name", getName());
+        json.put("hourlyStatus", getHourlyStatus());
+        json.put("wage", getWage());
+        json.put("currentOwnedToEmployee", getCurrentOwned());
+        json.put("totalPaidToEmployee", getTotalPaid());
+        return json;
+    }
+}
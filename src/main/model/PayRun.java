@@ -0,0 +1,50 @@
+package model;
+
+// Represents the result of paying a group of employees in one pay run:
+// the employees included in the run, in list order, and the amount each one was paid
+public class PayRun {
+    private Employee[] employees;
+    private int[] amountsPaid;
+    private int employeeCount;
+    private long totalPaid;
+    private int employeesPaidCount;
+
+    // REQUIRES: employees and amountsPaid have at least employeeCount elements
+    // EFFECTS: constructs a pay run in which employees[i] was paid amountsPaid[i] for i < employeeCount
+    PayRun(Employee[] employees, int[] amountsPaid, int employeeCount) {
+        this.employees = employees;
+        this.amountsPaid = amountsPaid;
+        this.employeeCount = employeeCount;
+        for (int i = 0; i < employeeCount; i++) {
+            totalPaid += amountsPaid[i];
+            employeesPaidCount += amountsPaid[i] != 0 ? 1 : 0;
+        }
+    }
+
+    // EFFECTS: returns the number of employees included in the pay run
+    public int getEmployeeCount() {
+        return employeeCount;
+    }
+
+    // REQUIRES: 0 <= index < getEmployeeCount()
+    // EFFECTS: returns the employee at index in the pay run
+    public Employee getEmployee(int index) {
+        return employees[index];
+    }
+
+    // REQUIRES: 0 <= index < getEmployeeCount()
+    // EFFECTS: returns the amount paid to the employee at index in the pay run
+    public int getAmountPaid(int index) {
+        return amountsPaid[index];
+    }
+
+    // EFFECTS: returns the number of employees who were owed something and have been paid
+    public int getEmployeesPaidCount() {
+        return employeesPaidCount;
+    }
+
+    // EFFECTS: returns the total amount paid out in the pay run
+    public long getTotalPaid() {
+        return totalPaid;
+    }
+}
@@ -0,0 +1,110 @@
+package model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Represents running totals over the employees in a list: what they are owed, what they have been paid, and how
+// many are hourly and how many salaried. Every change to the list or its employees adds its difference to the
+// totals, so they are read in constant time instead of by going through every employee. The totals are held in
+// adders, so employees paid on several threads at once, as in a parallel pay run, do not contend for them.
+// An employee's balances are read when it is added or deleted, so the totals are exact as long as an employee is
+// not changed on another thread at the very moment it joins or leaves the list.
+class PayrollTotals implements EmployeeListener {
+    private LongAdder totalOwed;
+    private LongAdder totalPaid;
+    private LongAdder hourlyCount;
+    private LongAdder salariedCount;
+
+    // EFFECTS: constructs totals for an empty list
+    PayrollTotals() {
+        totalOwed = new LongAdder();
+        totalPaid = new LongAdder();
+        hourlyCount = new LongAdder();
+        salariedCount = new LongAdder();
+    }
+
+    long getTotalOwed() {
+        return totalOwed.sum();
+    }
+
+    long getTotalPaid() {
+        return totalPaid.sum();
+    }
+
+    int getHourlyCount() {
+        return hourlyCount.intValue();
+    }
+
+    int getSalariedCount() {
+        return salariedCount.intValue();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts employee and adds its balances to the totals
+    void add(Employee employee) {
+        count(employee, 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the difference the change described by event makes to the totals
+    @Override
+    public void employeeChanged(EmployeeEvent event) {
+        Employee employee = event.getEmployee();
+        if (event.getType() == EmployeeEvent.Type.ADDED) {
+            count(employee, 1);
+        } else if (event.getType() == EmployeeEvent.Type.DELETED) {
+            count(employee, -1);
+        } else if (event.getType() == EmployeeEvent.Type.HOURLY_STATUS_CHANGED) {
+            // Fired while the employee is locked, so its status is the one just set
+            boolean hourly = employee.getHourlyStatus();
+            countStatus(hourly, 1);
+            countStatus(!hourly, -1);
+        } else {
+            totalOwed.add(owedChange(event));
+            totalPaid.add(paidChange(event));
+        }
+    }
+
+    // EFFECTS: returns how much the change described by event adds to what the employee is owed
+    private static long owedChange(EmployeeEvent event) {
+        switch (event.getType()) {
+            case WORK_RECORDED:
+                return event.getAmount();
+            case PAID:
+                return -event.getAmount();
+            case CURRENT_OWNED_SET:
+                return (long) event.getAmount() - event.getPreviousAmount();
+            default:
+                return 0;
+        }
+    }
+
+    // EFFECTS: returns how much the change described by event adds to the total paid to the employee
+    private static long paidChange(EmployeeEvent event) {
+        switch (event.getType()) {
+            case PAID:
+                return event.getAmount();
+            case TOTAL_PAID_SET:
+                return (long) event.getAmount() - event.getPreviousAmount();
+            default:
+                return 0;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds employee's balances and status to the totals sign times
+    private void count(Employee employee, int sign) {
+        totalOwed.add((long) sign * employee.getCurrentOwned());
+        totalPaid.add((long) sign * employee.getTotalPaid());
+        countStatus(employee.getHourlyStatus(), sign);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds sign to the count of hourly employees if hourly is true, otherwise of salaried employees
+    private void countStatus(boolean hourly, int sign) {
+        if (hourly) {
+            hourlyCount.add(sign);
+        } else {
+            salariedCount.add(sign);
+        }
+    }
+}
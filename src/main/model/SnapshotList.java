@@ -0,0 +1,212 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.RandomAccess;
+
+// A list for many readers and few writers that is only ever appended to or removed from. Changes are made while
+// holding the list's lock, and reads are served from an immutable snapshot that is copied again only the first
+// time it is read after a change, so a run of n changes with no reads in between costs one copy rather than the
+// n copies of a copy-on-write list. Reads of a list that has not changed since its last copy take no lock, and an
+// iterator sees the list as it was when the iterator was created.
+// Elements are kept in slots in the order they were added; removing one empties its slot, and a count of the
+// filled slots kept in a Fenwick tree turns a slot into a position and back in logarithmic time, so finding and
+// removing an element never scans the list. Empty slots are squeezed out once they are half of all slots.
+class SnapshotList<E> extends AbstractList<E> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] slots;
+    private int[] filledCounts;
+    private int slotCount;
+    private Map<Object, Integer> slotOf;
+    private volatile List<E> snapshot;
+    private volatile int size;
+
+    // EFFECTS: constructs an empty list
+    SnapshotList() {
+        slots = new Object[INITIAL_CAPACITY];
+        filledCounts = new int[INITIAL_CAPACITY + 1];
+        slotOf = new IdentityHashMap<Object, Integer>();
+        snapshot = Collections.emptyList();
+    }
+
+    // EFFECTS: returns an immutable copy of the list as it is now, copying it only if it has changed since the
+    //          last copy was taken
+    @SuppressWarnings("unchecked")
+    List<E> snapshot() {
+        List<E> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                List<E> copy = new ArrayList<E>(size);
+                for (int slot = 0; slot < slotCount; slot++) {
+                    if (slots[slot] != null) {
+                        copy.add((E) slots[slot]);
+                    }
+                }
+                snapshot = Collections.unmodifiableList(copy);
+            }
+            return snapshot;
+        }
+    }
+
+    // EFFECTS: returns the element at index in the latest snapshot
+    @Override
+    public E get(int index) {
+        return snapshot().get(index);
+    }
+
+    // EFFECTS: returns the number of elements in the list
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // EFFECTS: returns an iterator over the list as it is now that is not affected by later changes
+    @Override
+    public Iterator<E> iterator() {
+        return snapshot().iterator();
+    }
+
+    // EFFECTS: returns a list iterator, starting at index, over the list as it is now that is not affected by
+    //          later changes and cannot change the list
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        return snapshot().listIterator(index);
+    }
+
+    // EFFECTS: returns the elements of the list as it is now in an array
+    @Override
+    public Object[] toArray() {
+        return snapshot().toArray();
+    }
+
+    // EFFECTS: returns the elements of the list as it is now in an array of the type of array
+    @Override
+    public <T> T[] toArray(T[] array) {
+        return snapshot().toArray(array);
+    }
+
+    // EFFECTS: returns the position of element itself in the list, compared by identity rather than equals,
+    //          or -1 if it is not in the list
+    @Override
+    public synchronized int indexOf(Object element) {
+        Integer slot = slotOf.get(element);
+        return slot == null ? -1 : countFilled(slot);
+    }
+
+    // REQUIRES: element is not null and not already in the list
+    // MODIFIES: this
+    // EFFECTS: appends element to the end of the list;
+    //          throws UnsupportedOperationException if index is not the end of the list
+    @Override
+    public synchronized void add(int index, E element) {
+        if (index != size) {
+            throw new UnsupportedOperationException("Elements can only be appended");
+        }
+        if (slotCount == slots.length) {
+            resize(Math.max(INITIAL_CAPACITY, size * 2));
+        }
+        slots[slotCount] = element;
+        slotOf.put(element, slotCount);
+        slotCount++;
+        filledCounts[slotCount] = 1 + countFilled(slotCount - 1) - countFilled(slotCount - lowestBit(slotCount));
+        changed(1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the element at index and returns it
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized E remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int slot = findSlot(index);
+        E removed = (E) slots[slot];
+        slots[slot] = null;
+        slotOf.remove(removed);
+        for (int node = slot + 1; node <= slotCount; node += lowestBit(node)) {
+            filledCounts[node]--;
+        }
+        changed(-1);
+        if (slotCount > INITIAL_CAPACITY && size * 2 < slotCount) {
+            resize(Math.max(INITIAL_CAPACITY, size * 2));
+        }
+        return removed;
+    }
+
+    // REQUIRES: the list's lock is held
+    // MODIFIES: this
+    // EFFECTS: records that delta elements were added, or removed if negative, and drops the snapshot so the
+    //          next read copies the list again
+    private void changed(int delta) {
+        size += delta;
+        snapshot = null;
+        modCount++;
+    }
+
+    // REQUIRES: the list's lock is held
+    // EFFECTS: returns the number of filled slots before slot
+    private int countFilled(int slot) {
+        int count = 0;
+        for (int node = slot; node > 0; node -= lowestBit(node)) {
+            count += filledCounts[node];
+        }
+        return count;
+    }
+
+    // REQUIRES: the list's lock is held and 0 <= index < size
+    // EFFECTS: returns the slot holding the element at index, walking down the Fenwick tree
+    private int findSlot(int index) {
+        int node = 0;
+        int remaining = index;
+        for (int step = Integer.highestOneBit(slotCount); step > 0; step >>= 1) {
+            int next = node + step;
+            if (next <= slotCount && filledCounts[next] <= remaining) {
+                node = next;
+                remaining -= filledCounts[next];
+            }
+        }
+        return node;
+    }
+
+    // REQUIRES: the list's lock is held and capacity >= size
+    // MODIFIES: this
+    // EFFECTS: moves the elements, in order, into the first slots of new arrays with room for capacity elements,
+    //          dropping every empty slot, and rebuilds the counts of filled slots
+    private void resize(int capacity) {
+        Object[] filled = new Object[capacity];
+        int count = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slots[slot] != null) {
+                filled[count] = slots[slot];
+                slotOf.put(slots[slot], count);
+                count++;
+            }
+        }
+        slots = filled;
+        slotCount = count;
+        filledCounts = new int[capacity + 1];
+        for (int node = 1; node <= count; node++) {
+            filledCounts[node]++;
+            int parent = node + lowestBit(node);
+            if (parent <= count) {
+                filledCounts[parent] += filledCounts[node];
+            }
+        }
+    }
+
+    // EFFECTS: returns the lowest set bit of node
+    private static int lowestBit(int node) {
+        return node & -node;
+    }
+}
@@ -0,0 +1,171 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+
+// Represents an index of the employees in a list ordered by one int value of each employee, such as the wage.
+// Employees with the same value share a bucket in a sorted map, so range and top-N queries take time logarithmic
+// in the number of distinct values plus the number of employees returned. The value each employee was indexed
+// under is remembered, so a change is moved to its new bucket by reading the employee's value as it is now;
+// employees are told apart by identity, because their names can change while they are indexed.
+// Only the kinds of change that can alter the value are looked at, so other changes cost nothing.
+// Changes arrive while the index is being filled; an employee deleted before fill() reaches it is remembered and
+// taken out again once fill() finishes, so the index never holds an employee that has left the list.
+// All methods lock the index, so it can be kept up to date from several threads at once.
+class SortedIndex implements EmployeeListener {
+    private ToIntFunction<Employee> valueOf;
+    private Set<EmployeeEvent.Type> valueChanges;
+    private NavigableMap<Integer, Set<Employee>> employeesByValue;
+    private Map<Employee, Integer> indexedValues;
+    private Set<Employee> deletedWhileFilling;
+    private volatile boolean filled;
+
+    // EFFECTS: constructs an empty index ordering employees by valueOf, a value that only changes when employees
+    //          are added or deleted or by the changes of the types in valueChanges
+    SortedIndex(ToIntFunction<Employee> valueOf, EmployeeEvent.Type... valueChanges) {
+        this.valueOf = valueOf;
+        this.valueChanges = EnumSet.of(EmployeeEvent.Type.ADDED, valueChanges);
+        this.valueChanges.add(EmployeeEvent.Type.DELETED);
+        this.employeesByValue = new TreeMap<Integer, Set<Employee>>();
+        this.indexedValues = new IdentityHashMap<Employee, Integer>();
+        this.deletedWhileFilling = Collections.newSetFromMap(new IdentityHashMap<Employee, Boolean>());
+    }
+
+    // EFFECTS: returns true if a change of the given type can move an employee in this index
+    boolean isChangedBy(EmployeeEvent.Type type) {
+        return valueChanges.contains(type);
+    }
+
+    // EFFECTS: returns true once fill() has finished
+    boolean isFilled() {
+        return filled;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds every employee in employees to the index, then removes those deleted while it was being
+    //          filled and not added back, and marks it as filled
+    void fill(Employee[] employees) {
+        for (Employee employee : employees) {
+            add(employee);
+        }
+        synchronized (this) {
+            for (Employee employee : deletedWhileFilling) {
+                remove(employee);
+            }
+            deletedWhileFilling = null;
+            filled = true;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds employee to the index under its value, or moves it there if it is already indexed
+    synchronized void add(Employee employee) {
+        update(employee, true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes employee from the index if it is there
+    synchronized void remove(Employee employee) {
+        Integer indexedValue = indexedValues.remove(employee);
+        if (indexedValue != null) {
+            removeFromBucket(employee, indexedValue);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds, removes or moves the employee the event is about to match the change, if the change can
+    //          alter its value
+    @Override
+    public void employeeChanged(EmployeeEvent event) {
+        if (!isChangedBy(event.getType())) {
+            return;
+        }
+        synchronized (this) {
+            if (!filled) {
+                rememberMembershipChange(event);
+            }
+            if (event.getType() == EmployeeEvent.Type.DELETED) {
+                remove(event.getEmployee());
+            } else {
+                update(event.getEmployee(), event.getType() == EmployeeEvent.Type.ADDED);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the employee event is about was deleted, or forgets that it was if it was added back,
+    //          so fill() can take out employees it adds after they have left the list
+    private void rememberMembershipChange(EmployeeEvent event) {
+        if (event.getType() == EmployeeEvent.Type.DELETED) {
+            deletedWhileFilling.add(event.getEmployee());
+        } else if (event.getType() == EmployeeEvent.Type.ADDED) {
+            deletedWhileFilling.remove(event.getEmployee());
+        }
+    }
+
+    // EFFECTS: returns up to count employees with the highest values, highest first
+    synchronized List<Employee> top(int count) {
+        List<Employee> employees = new ArrayList<Employee>();
+        for (Set<Employee> bucket : employeesByValue.descendingMap().values()) {
+            for (Employee employee : bucket) {
+                if (employees.size() >= count) {
+                    return employees;
+                }
+                employees.add(employee);
+            }
+        }
+        return employees;
+    }
+
+    // EFFECTS: returns every employee whose value is from low to high inclusive, lowest first
+    synchronized List<Employee> range(int low, int high) {
+        List<Employee> employees = new ArrayList<Employee>();
+        if (low <= high) {
+            for (Set<Employee> bucket : employeesByValue.subMap(low, true, high, true).values()) {
+                employees.addAll(bucket);
+            }
+        }
+        return employees;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves employee to the bucket for its current value; adds it if it is not indexed and add is true
+    private void update(Employee employee, boolean add) {
+        Integer indexedValue = indexedValues.get(employee);
+        if (indexedValue == null && !add) {
+            return;
+        }
+        int value = valueOf.applyAsInt(employee);
+        if (indexedValue != null && indexedValue == value) {
+            return;
+        }
+        if (indexedValue != null) {
+            removeFromBucket(employee, indexedValue);
+        }
+        indexedValues.put(employee, value);
+        Set<Employee> bucket = employeesByValue.get(value);
+        if (bucket == null) {
+            bucket = Collections.newSetFromMap(new IdentityHashMap<Employee, Boolean>());
+            employeesByValue.put(value, bucket);
+        }
+        bucket.add(employee);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes employee from the bucket for value, dropping the bucket once it is empty
+    private void removeFromBucket(Employee employee, int value) {
+        Set<Employee> bucket = employeesByValue.get(value);
+        bucket.remove(employee);
+        if (bucket.isEmpty()) {
+            employeesByValue.remove(value);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package persistence;
+
+import model.EmployeeEvent;
+import model.EmployeeList;
+import model.EmployeeListener;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+// Represents a saver that saves an employee list to file in the background a short while after it changes.
+// Every change made while a save is waiting to start goes into that one save, and saves run one at a time on
+// a single background thread, so the thread changing the list never waits for the disk.
+// The list is copied on the save thread while holding the list lock, which every thread holds while it changes
+// the list, so every file written holds a state the list was really in without the copy running on the thread
+// that changes the list; the journal is checkpointed under the same lock, so the changes made while the file is
+// being written stay in the journal until the next save.
+public class AutoSaver implements EmployeeListener {
+
+    // Told about the outcome of every save
+    public interface SaveListener {
+        // EFFECTS: called on the save thread after a save; requested is true if the save was asked for
+        //          with saveNow()
+        void saveFinished(boolean succeeded, boolean requested);
+    }
+
+    private JsonWriter jsonWriter;
+    private Journal journal;
+    private Lock listLock;
+    private ScheduledExecutorService saveThread;
+    private long delayMillis;
+    private volatile EmployeeList employeeList;
+    private volatile SaveListener saveListener;
+    private volatile long lastSaved;
+    private ScheduledFuture<?> scheduledSave;
+    private boolean savePending;
+    private boolean saveRequested;
+    private boolean closed;
+
+    // REQUIRES: delayMillis >= 0
+    // EFFECTS: constructs a saver that saves to destination delayMillis after the first of a burst of changes,
+    //          checkpointing journal for each save; listLock is held by every thread while it changes the list
+    public AutoSaver(String destination, Journal journal, Lock listLock, long delayMillis) {
+        this.jsonWriter = new JsonWriter(destination, JsonWriter.SaveMode.ATOMIC_WITH_BACKUP);
+        this.journal = journal;
+        this.listLock = listLock;
+        this.delayMillis = delayMillis;
+        this.saveThread = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "Payzilla autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tells saveListener about the outcome of every save from now on
+    public void setSaveListener(SaveListener saveListener) {
+        this.saveListener = saveListener;
+    }
+
+    // EFFECTS: returns the time in milliseconds since the epoch that the last save finished, or 0 if none has
+    public long getLastSaved() {
+        return lastSaved;
+    }
+
+    // MODIFIES: this, employeeList
+    // EFFECTS: stops saving the list watched so far, as stop() does, and saves employeeList from now on
+    //          whenever it changes; call on the thread that changes the list
+    public void watch(EmployeeList employeeList) {
+        stop();
+        this.employeeList = employeeList;
+        employeeList.addListener(this, EmployeeListener.Delivery.BATCHED);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops saving the watched list, dropping a save that has not started yet, without waiting for a
+    //          save that has started; changes that are not saved stay in the journal
+    public void stop() {
+        synchronized (this) {
+            if (scheduledSave != null) {
+                scheduledSave.cancel(false);
+            }
+            savePending = false;
+            saveRequested = false;
+        }
+        if (employeeList != null) {
+            employeeList.removeListener(this);
+            employeeList = null;
+        }
+    }
+
+    // EFFECTS: waits until every save started so far has finished; may take as long as a save, so call it off
+    //          the thread that changes the list, for example before reading back the file saved to
+    public void awaitSaves() {
+        try {
+            saveThread.submit(() -> { }).get();
+        } catch (RejectedExecutionException | ExecutionException saveThreadEnded) {
+            // Nothing left to wait for
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops saving, as stop() does, waits for a save that has started to finish and ends the save thread
+    public void close() {
+        stop();
+        awaitSaves();
+        synchronized (this) {
+            closed = true;
+        }
+        saveThread.shutdown();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the watched list as soon as possible, taking over a save that is waiting to start
+    public void saveNow() {
+        scheduleSave(0, true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules a save for a change to the watched list
+    @Override
+    public void employeeChanged(EmployeeEvent event) {
+        scheduleSave(delayMillis, false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules one save for a batch of changes to the watched list
+    @Override
+    public void employeesChanged(List<EmployeeEvent> events) {
+        scheduleSave(delayMillis, false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules a save delay milliseconds from now unless one is already waiting to start;
+    //          a requested save replaces a waiting one that has not yet asked for a copy of the list
+    private synchronized void scheduleSave(long delay, boolean requested) {
+        if (closed) {
+            return;
+        }
+        saveRequested |= requested;
+        if (savePending && !(requested && scheduledSave.cancel(false))) {
+            return;
+        }
+        savePending = true;
+        scheduledSave = saveThread.schedule(this::startSave, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies the watched list and checkpoints the journal while holding the list lock, then saves the
+    //          copy; does nothing if the save was dropped by stop() in the meantime
+    private void startSave() {
+        boolean requested;
+        synchronized (this) {
+            if (!savePending) {
+                return;
+            }
+            savePending = false;
+            requested = saveRequested;
+            saveRequested = false;
+        }
+        EmployeeList copy = copyAndCheckpoint(requested);
+        if (copy != null) {
+            save(copy, requested);
+        }
+    }
+
+    // EFFECTS: copies the watched list and checkpoints the journal while holding the list lock, and returns the
+    //          copy; returns null if no list is watched any more, or if the checkpoint fails, which is told to the
+    //          save listener
+    private EmployeeList copyAndCheckpoint(boolean requested) {
+        listLock.lock();
+        try {
+            EmployeeList watched = employeeList;
+            if (watched == null) {
+                return null;
+            }
+            EmployeeList copy = watched.copy();
+            journal.checkpoint();
+            return copy;
+        } catch (IOException e) {
+            abortCheckpoint();
+            notifySaveListener(false, requested);
+            return null;
+        } finally {
+            listLock.unlock();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes copy to file and commits the journal checkpoint, or aborts it if the save fails
+    private void save(EmployeeList copy, boolean requested) {
+        boolean succeeded = false;
+        try {
+            jsonWriter.open();
+            jsonWriter.write(copy);
+            jsonWriter.close();
+            journal.commit();
+            lastSaved = System.currentTimeMillis();
+            succeeded = true;
+        } catch (IOException e) {
+            abortCheckpoint();
+        }
+        notifySaveListener(succeeded, requested);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the records kept apart since the checkpoint back into the journal
+    private void abortCheckpoint() {
+        try {
+            journal.abort();
+        } catch (IOException e) {
+            System.out.println("Unable to restore journal after failed save");
+        }
+    }
+
+    // EFFECTS: tells the save listener, if there is one, about the outcome of a save
+    private void notifySaveListener(boolean succeeded, boolean requested) {
+        SaveListener listener = saveListener;
+        if (listener != null) {
+            listener.saveFinished(succeeded, requested);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package persistence;
+
+import model.EmployeeList;
+import model.EmployeeListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+// Represents the employee lists of many companies, each saved in its own file in one directory and journaled next
+// to it. A company's list is loaded the first time it is locked, and saved and unloaded by a background thread
+// once it has gone unused for a while, so memory grows with the companies in use rather than with all of them.
+// Each company has its own lock, held while its list is loaded, used or saved, so work on one company never
+// waits for another; the registry itself is only a concurrent map from company name to shard.
+public class CompanyRegistry {
+    private static final String SUFFIX = ".json";
+    private static final Pattern COMPANY_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]*");
+
+    private String directory;
+    private long idleMillis;
+    private ConcurrentMap<String, Shard> shards;
+    private ScheduledExecutorService evictionThread;
+
+    // One company's list and journal, present only while the list is loaded. A shard that has been unloaded is
+    // retired and a new one is made the next time the company is locked.
+    private static class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final String company;
+        private final String source;
+        private volatile EmployeeList employeeList;
+        private Journal journal;
+        private volatile boolean changed;
+        private volatile long lastUsed;
+        private boolean retired;
+
+        Shard(String company, String source) {
+            this.company = company;
+            this.source = source;
+        }
+    }
+
+    // REQUIRES: idleMillis > 0
+    // EFFECTS: constructs a registry of the companies saved in directory, each in a file named after it, that
+    //          unloads a company's list once it has not been used for idleMillis
+    public CompanyRegistry(String directory, long idleMillis) {
+        this.directory = directory;
+        this.idleMillis = idleMillis;
+        this.shards = new ConcurrentHashMap<String, Shard>();
+        this.evictionThread = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "Payzilla company eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictionThread.scheduleWithFixedDelay(this::evictIdle, idleMillis, idleMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // EFFECTS: returns true if company can name a company: letters, digits, - and _, starting with a letter or
+    //          digit, so it is always a plain file name in the directory
+    public static boolean isCompanyName(String company) {
+        return COMPANY_NAME.matcher(company).matches();
+    }
+
+    // EFFECTS: returns the file company's list is saved in
+    public String getSource(String company) {
+        return Paths.get(directory, company + SUFFIX).toString();
+    }
+
+    // EFFECTS: returns the names of the companies whose lists are loaded, in alphabetical order
+    public Set<String> getLoadedCompanies() {
+        Set<String> loaded = new TreeSet<String>();
+        for (Shard shard : shards.values()) {
+            if (shard.employeeList != null) {
+                loaded.add(shard.company);
+            }
+        }
+        return loaded;
+    }
+
+    // REQUIRES: isCompanyName(company)
+    // MODIFIES: this
+    // EFFECTS: locks company, loading its list and replaying its journal first if it is not loaded, and returns
+    //          the list, which must only be used until the matching unlock(company); a company with no file yet
+    //          starts with an empty list; every change to the list is journaled next to its file;
+    //          throws IOException, leaving the company unlocked, if the list cannot be loaded
+    public EmployeeList lock(String company) throws IOException {
+        return lockShard(company).employeeList;
+    }
+
+    // REQUIRES: the current thread has locked company
+    // MODIFIES: this
+    // EFFECTS: undoes one lock(company)
+    public void unlock(String company) {
+        Shard shard = shards.get(company);
+        shard.lastUsed = System.currentTimeMillis();
+        shard.lock.unlock();
+    }
+
+    // REQUIRES: isCompanyName(company)
+    // MODIFIES: this
+    // EFFECTS: saves company's list to its file, loading it first if needed, and empties its journal;
+    //          throws IOException if the list cannot be loaded or saved
+    public void save(String company) throws IOException {
+        Shard shard = lockShard(company);
+        try {
+            saveShard(shard);
+        } finally {
+            unlock(company);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves, if it has changed, and unloads every company's list that is not locked and has not been
+    //          used for idleMillis, and returns the number unloaded; a list that cannot be saved stays loaded,
+    //          with its changes still in its journal
+    public int evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        int evicted = 0;
+        for (Shard shard : shards.values()) {
+            if (shard.lastUsed <= cutoff && !shard.lock.isHeldByCurrentThread() && shard.lock.tryLock()) {
+                try {
+                    if (!shard.retired && shard.lastUsed <= cutoff && retire(shard)) {
+                        evicted++;
+                    }
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+        }
+        return evicted;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops unloading idle companies, then saves every loaded list that has changed and unloads it,
+    //          waiting for any company that is locked; throws IOException if any list could not be saved, in
+    //          which case its changes are still in its journal
+    public void close() throws IOException {
+        evictionThread.shutdown();
+        boolean saved = true;
+        for (Shard shard : shards.values()) {
+            shard.lock.lock();
+            try {
+                saved &= shard.retired || retire(shard);
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        if (!saved) {
+            throw new IOException("Unable to save every company in " + directory);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: locks the shard of company, loading its list if needed, and returns it; retries with the new
+    //          shard if the one found was retired while waiting for its lock
+    private Shard lockShard(String company) throws IOException {
+        if (!isCompanyName(company)) {
+            throw new IllegalArgumentException("Not a company name: " + company);
+        }
+        while (true) {
+            Shard shard = shards.computeIfAbsent(company, name -> new Shard(name, getSource(name)));
+            shard.lock.lock();
+            if (!shard.retired) {
+                try {
+                    load(shard);
+                } catch (IOException e) {
+                    shard.lock.unlock();
+                    throw e;
+                }
+                shard.lastUsed = System.currentTimeMillis();
+                return shard;
+            }
+            shard.lock.unlock();
+        }
+    }
+
+    // REQUIRES: shard is locked
+    // MODIFIES: shard
+    // EFFECTS: loads the shard's list from its file and journal, if it is not loaded, and starts journaling it
+    private void load(Shard shard) throws IOException {
+        if (shard.employeeList != null) {
+            return;
+        }
+        JsonReader jsonReader = new JsonReader(shard.source);
+        EmployeeList loaded;
+        try {
+            loaded = jsonReader.read();
+        } catch (NoSuchFileException noSuchFileException) {
+            loaded = new EmployeeList();
+            jsonReader.replayJournal(loaded);
+        }
+        Files.createDirectories(Paths.get(directory));
+        Journal journal = new Journal(shard.source);
+        journal.open();
+        loaded.addListener(journal, EmployeeListener.Delivery.BATCHED);
+        loaded.addListener(event -> {
+            shard.changed = true;
+        });
+        shard.journal = journal;
+        shard.employeeList = loaded;
+    }
+
+    // REQUIRES: shard is locked and loaded
+    // MODIFIES: shard
+    // EFFECTS: saves the shard's list to its file and empties its journal
+    private void saveShard(Shard shard) throws IOException {
+        JsonWriter jsonWriter = new JsonWriter(shard.source, JsonWriter.SaveMode.ATOMIC_WITH_BACKUP);
+        jsonWriter.open();
+        jsonWriter.write(shard.employeeList);
+        jsonWriter.close();
+        shard.journal.clear();
+        shard.changed = false;
+    }
+
+    // REQUIRES: shard is locked
+    // MODIFIES: this, shard
+    // EFFECTS: saves the shard's list if it has changed, unloads it and removes the shard from the registry,
+    //          and returns true; returns false, leaving the shard as it was, if the list cannot be saved
+    private boolean retire(Shard shard) {
+        try {
+            if (shard.employeeList != null) {
+                if (shard.changed) {
+                    saveShard(shard);
+                }
+                shard.journal.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to write to file: " + shard.source);
+            return false;
+        }
+        shard.employeeList = null;
+        shard.journal = null;
+        shard.retired = true;
+        shards.remove(shard.company, shard);
+        return true;
+    }
+}
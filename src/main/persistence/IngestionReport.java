@@ -0,0 +1,63 @@
+package persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Represents the outcome of ingesting a timesheet file: how many rows were applied or rejected,
+// how many employees were updated, and a description of the first few problems found
+public class IngestionReport {
+    static final int MAX_ERRORS = 100;
+
+    private long rowsApplied;
+    private long rowsRejected;
+    private int employeesUpdated;
+    private List<String> errors;
+
+    // EFFECTS: constructs an empty report
+    IngestionReport() {
+        errors = new ArrayList<String>();
+    }
+
+    // EFFECTS: returns the number of rows whose time was recorded against an employee
+    public long getRowsApplied() {
+        return rowsApplied;
+    }
+
+    // EFFECTS: returns the number of rows that could not be parsed or named no known employee
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    // EFFECTS: returns the number of distinct employees that had time recorded
+    public int getEmployeesUpdated() {
+        return employeesUpdated;
+    }
+
+    // EFFECTS: returns descriptions of the first problems found, at most MAX_ERRORS of them
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that rows rows were applied to one more employee
+    void recordApplied(long rows) {
+        rowsApplied += rows;
+        employeesUpdated++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that rows rows were rejected without describing them
+    void recordRejected(long rows) {
+        rowsRejected += rows;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that rows rows were rejected, keeping error if there is still room for it
+    void recordRejected(long rows, String error) {
+        rowsRejected += rows;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+}
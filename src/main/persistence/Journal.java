@@ -0,0 +1,515 @@
+package persistence;
+
+import exceptions.DuplicateEmployeeException;
+import exceptions.EmployeeDoesNotExistException;
+import exceptions.MalformedFileException;
+import model.Employee;
+import model.EmployeeList;
+import model.EmployeeEvent;
+import model.EmployeeListener;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.List;
+
+// Represents an append-only journal, kept next to a data file, of every change made to an employee list since
+// the data file was last saved in full; each change is one compact record, so the cost of keeping the journal
+// up to date is proportional to the changes rather than to the number of employees.
+// The journal starts with the generation written into the data file it applies to by the save that wrote it,
+// so a journal left over from before the data file was saved again is never replayed on top of the newer data
+// file, even if the new save has the same size and modification time; a data file saved without a generation
+// is told apart by its size and modification time instead.
+// While the data file is being saved in the background, records are kept apart in a pending journal, so the
+// changes made during the save outlive it whether it succeeds, fails or is cut short by a crash.
+// Register the journal for BATCHED delivery: the records for a batch of changes, such as a pay run, are then
+// written together and handed to the operating system once. If a write fails, nothing more is written until the
+// list has been saved in full, since records replayed after a missing one could go wrong; checkAppended()
+// reports the failure.
+public class Journal implements EmployeeListener {
+    public static final String SUFFIX = ".journal";
+    public static final String PENDING_SUFFIX = ".pending";
+    private static final int HEADER_SIZE = 16;
+    // Starts the header of a journal for a data file holding a generation, in place of the size of the file
+    private static final long GENERATION_STAMP = -2;
+
+    private static final byte ADD = 1;
+    private static final byte DELETE = 2;
+    private static final byte RENAME = 3;
+    private static final byte WAGE = 4;
+    private static final byte STATUS = 5;
+    private static final byte WORK = 6;
+    private static final byte PAY = 7;
+    private static final byte SET_OWED = 8;
+    private static final byte SET_PAID = 9;
+
+    // The record type for each kind of event whose record holds just the event's amount, by ordinal
+    private static final byte[] AMOUNT_RECORDS = amountRecords();
+
+    private String source;
+    private String path;
+    private String pendingPath;
+    private FileOutputStream output;
+    private ByteArrayOutputStream recordBytes;
+    private DataOutputStream records;
+    private boolean checkpointed;
+    private IOException appendFailure;
+    private IOException checkpointedFailure;
+
+    // EFFECTS: constructs the journal for the data file at source, stored at source + SUFFIX
+    public Journal(String source) {
+        this.source = source;
+        this.path = source + SUFFIX;
+        this.pendingPath = path + PENDING_SUFFIX;
+        this.recordBytes = new ByteArrayOutputStream();
+        this.records = new DataOutputStream(recordBytes);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the journal for appending; if it does not exist or does not apply to the data file,
+    //          it is started afresh; records left pending by a save that never finished are moved into it;
+    //          throws IOException if the journal cannot be opened
+    public synchronized void open() throws IOException {
+        close();
+        checkpointed = false;
+        appendFailure = null;
+        checkpointedFailure = null;
+        foldPending();
+        output = openOutput(path);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: empties the journal and marks it as applying to the data file as it is now;
+    //          call once everything in the journal has been saved in full to the data file, which also makes
+    //          up for any write that failed; throws IOException if the journal cannot be truncated
+    public synchronized void clear() throws IOException {
+        writeHeader();
+        appendFailure = null;
+        checkpointedFailure = null;
+    }
+
+    // REQUIRES: no checkpoint is in progress
+    // MODIFIES: this
+    // EFFECTS: marks the state the data file is about to be saved from; records appended from now on are kept
+    //          in the pending journal until commit() or abort(), even if a write failed before, since the save
+    //          holds every change up to now; does nothing but mark the state if the journal is not open;
+    //          throws IOException if the pending journal cannot be started
+    public synchronized void checkpoint() throws IOException {
+        checkpointed = true;
+        checkpointedFailure = appendFailure;
+        appendFailure = null;
+        if (output != null) {
+            output.close();
+            writeHeader(pendingPath);
+            output = openOutput(pendingPath);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: call once the state marked by checkpoint() has been saved in full to the data file;
+    //          makes the pending journal the journal of the data file as it is now;
+    //          throws IOException if the pending journal cannot be moved
+    public synchronized void commit() throws IOException {
+        if (!checkpointed || !Files.exists(Paths.get(pendingPath))) {
+            checkpointed = false;
+            clear();
+            return;
+        }
+        boolean open = output != null;
+        close();
+        writeHeader(pendingPath);
+        try {
+            Files.move(Paths.get(pendingPath), Paths.get(path), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+            Files.move(Paths.get(pendingPath), Paths.get(path), StandardCopyOption.REPLACE_EXISTING);
+        }
+        checkpointed = false;
+        checkpointedFailure = null;
+        output = open ? openOutput(path) : null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: call if the state marked by checkpoint() could not be saved; moves the pending records back into
+    //          the journal, which is started afresh first if the data file was replaced after all;
+    //          throws IOException if the records cannot be moved
+    public synchronized void abort() throws IOException {
+        boolean open = output != null;
+        close();
+        checkpointed = false;
+        if (appendFailure == null) {
+            appendFailure = checkpointedFailure;
+        }
+        checkpointedFailure = null;
+        foldPending();
+        output = open ? openOutput(path) : null;
+    }
+
+    // EFFECTS: throws IOException if a record could not be written and the list has not been saved in full since;
+    //          the changes from that record on are not in the journal, and are kept only by saving the list
+    public synchronized void checkAppended() throws IOException {
+        if (appendFailure != null) {
+            throw new IOException("Unable to write to journal: " + path, appendFailure);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces every record appended so far to disk
+    public synchronized void sync() throws IOException {
+        if (output != null) {
+            output.getChannel().force(true);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the journal
+    public synchronized void close() throws IOException {
+        if (output != null) {
+            output.close();
+            output = null;
+        }
+    }
+
+    // MODIFIES: employeeList
+    // EFFECTS: applies every record in the journal to employeeList in the order they were written, followed by
+    //          any records left pending by a save that never finished, and returns the number of records applied;
+    //          a record cut short by a crash ends the replay of its file;
+    //          records about employees that are not in employeeList are skipped;
+    //          throws IOException if the journal exists but cannot be read
+    public int replay(EmployeeList employeeList) throws IOException {
+        int applied = appliesToSource() ? replayFile(path, employeeList) : 0;
+        if (Files.exists(Paths.get(pendingPath))) {
+            applied += replayFile(pendingPath, employeeList);
+        }
+        return applied;
+    }
+
+    // MODIFIES: employeeList
+    // EFFECTS: applies every record in the journal file to employeeList and returns the number applied
+    private int replayFile(String file, EmployeeList employeeList) throws IOException {
+        int applied = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            input.skipBytes(HEADER_SIZE);
+            while (true) {
+                applyRecord(input, employeeList);
+                applied++;
+            }
+        } catch (EOFException endOfJournal) {
+            return applied;
+        }
+    }
+
+    // EFFECTS: returns true if the journal exists and was started for the data file as it is now
+    private boolean appliesToSource() throws IOException {
+        if (!Files.exists(Paths.get(path))) {
+            return false;
+        }
+        try (DataInputStream input = new DataInputStream(new FileInputStream(path))) {
+            long[] stamp = sourceStamp();
+            return input.readLong() == stamp[0] && input.readLong() == stamp[1];
+        } catch (EOFException journalWithoutHeader) {
+            return false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: truncates the journal to a header for the data file as it is now
+    private void writeHeader() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+            writeHeader(channel);
+        }
+    }
+
+    // EFFECTS: writes a header for the data file as it is now at the start of file, keeping any records after it
+    private void writeHeader(String file) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            writeHeader(channel);
+        }
+    }
+
+    // EFFECTS: writes a header for the data file as it is now at the start of channel
+    private void writeHeader(FileChannel channel) throws IOException {
+        long[] stamp = sourceStamp();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putLong(stamp[0]).putLong(stamp[1]).flip();
+        channel.write(header, 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the journal afresh if it does not apply to the data file, then appends to it the records
+    //          in the pending journal and deletes the pending journal; does nothing more if there is none
+    private void foldPending() throws IOException {
+        if (!appliesToSource()) {
+            writeHeader();
+        }
+        Path pending = Paths.get(pendingPath);
+        if (!Files.exists(pending)) {
+            return;
+        }
+        try (FileChannel from = FileChannel.open(pending, StandardOpenOption.READ);
+             FileChannel to = FileChannel.open(Paths.get(path), StandardOpenOption.WRITE,
+                     StandardOpenOption.APPEND)) {
+            long position = HEADER_SIZE;
+            while (position < from.size()) {
+                position += from.transferTo(position, from.size() - position, to);
+            }
+        }
+        Files.delete(pending);
+    }
+
+    // EFFECTS: opens file for appending records
+    private FileOutputStream openOutput(String file) throws IOException {
+        return new FileOutputStream(file, true);
+    }
+
+    // EFFECTS: returns {GENERATION_STAMP, generation} for a data file holding a generation, otherwise the size and
+    //          modification time of the data file, or {-1, 0} if it does not exist
+    private long[] sourceStamp() throws IOException {
+        Path sourcePath = Paths.get(source);
+        if (!Files.exists(sourcePath)) {
+            return new long[] {-1, 0};
+        }
+        long generation = Files.isRegularFile(sourcePath) ? new JsonReader(source).readGeneration() : -1;
+        if (generation >= 0) {
+            return new long[] {GENERATION_STAMP, generation};
+        }
+        BasicFileAttributes attributes = Files.readAttributes(sourcePath, BasicFileAttributes.class);
+        return new long[] {attributes.size(), attributes.lastModifiedTime().toMillis()};
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a record of the change described by event
+    @Override
+    public void employeeChanged(EmployeeEvent event) {
+        append(Collections.singletonList(event));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a record of each change in a batch, writing them all at once
+    @Override
+    public void employeesChanged(List<EmployeeEvent> events) {
+        append(events);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a record of each of events in one write that hands them to the operating system; does
+    //          nothing if the journal is not open or a write has failed, and keeps the failure if this one fails
+    private synchronized void append(List<EmployeeEvent> events) {
+        if (output == null || appendFailure != null) {
+            return;
+        }
+        recordBytes.reset();
+        long size = -1;
+        try {
+            for (EmployeeEvent event : events) {
+                writeRecord(event);
+            }
+            if (recordBytes.size() > 0) {
+                size = output.getChannel().size();
+                recordBytes.writeTo(output);
+            }
+        } catch (IOException e) {
+            appendFailure = e;
+            cutOff(size);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tries to cut the journal being written back to size bytes, so that no part of a failed write is
+    //          left for a replay to misread; does nothing if size is negative
+    private void cutOff(long size) {
+        try {
+            if (size >= 0) {
+                output.getChannel().truncate(size);
+            }
+        } catch (IOException stillFailing) {
+            // A replay stops at the record the failed write cut short
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a record of the change described by event to the records being written; a payment of
+    //          nothing changes nothing, so it gets no record
+    private void writeRecord(EmployeeEvent event) throws IOException {
+        switch (event.getType()) {
+            case ADDED:
+                writeAdd(event.getEmployee());
+                break;
+            case DELETED:
+                write(DELETE, event.getName(), stream -> { });
+                break;
+            case RENAMED:
+                write(RENAME, event.getOldName(), stream -> stream.writeUTF(event.getName()));
+                break;
+            case HOURLY_STATUS_CHANGED:
+                write(STATUS, event.getName(), stream -> {
+                    stream.writeBoolean(event.getEmployee().getHourlyStatus());
+                    stream.writeInt(event.getAmount());
+                });
+                break;
+            default:
+                if (event.getType() != EmployeeEvent.Type.PAID || event.getAmount() != 0) {
+                    write(AMOUNT_RECORDS[event.getType().ordinal()], event.getName(),
+                            stream -> stream.writeInt(event.getAmount()));
+                }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds an ADD record holding every field of employee to the records being written
+    private void writeAdd(Employee employee) throws IOException {
+        write(ADD, employee.getName(), stream -> {
+            stream.writeBoolean(employee.getHourlyStatus());
+            stream.writeInt(employee.getWage());
+            stream.writeInt(employee.getCurrentOwned());
+            stream.writeInt(employee.getTotalPaid());
+        });
+    }
+
+    // Writes the fields that follow the type and name of a record
+    private interface RecordBody {
+        void write(DataOutputStream output) throws IOException;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a record of the given type about the employee called name to the records being written
+    private void write(byte type, String name, RecordBody body) throws IOException {
+        records.writeByte(type);
+        records.writeUTF(name);
+        body.write(records);
+    }
+
+    // MODIFIES: employeeList
+    // EFFECTS: reads one record from input and applies it to employeeList
+    private void applyRecord(DataInputStream input, EmployeeList employeeList) throws IOException {
+        byte type = input.readByte();
+        String name = input.readUTF();
+        if (type == ADD) {
+            applyAdd(input, employeeList, name);
+            return;
+        }
+        Employee employee = findEmployee(employeeList, name);
+        if (type == DELETE) {
+            applyDelete(employeeList, employee);
+        } else if (type == RENAME) {
+            applyRename(employee, input.readUTF());
+        } else {
+            applyChange(input, type, employee);
+        }
+    }
+
+    // MODIFIES: employeeList
+    // EFFECTS: reads the rest of an ADD record and adds the employee it describes to employeeList
+    private void applyAdd(DataInputStream input, EmployeeList employeeList, String name) throws IOException {
+        Employee employee = new Employee(name, input.readBoolean(), input.readInt());
+        employee.setCurrentOwnedToEmployee(input.readInt());
+        employee.setTotalPaidToEmployee(input.readInt());
+        try {
+            employeeList.addEmployee(employee);
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            // Already in the snapshot the journal is replayed on
+        }
+    }
+
+    // MODIFIES: employee
+    // EFFECTS: renames employee to newName if it exists
+    private void applyRename(Employee employee, String newName) {
+        try {
+            if (employee != null) {
+                employee.changeName(newName);
+            }
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            // Another employee already has the name in the snapshot the journal is replayed on
+        }
+    }
+
+    // MODIFIES: employeeList
+    // EFFECTS: deletes employee from employeeList if it is there
+    private void applyDelete(EmployeeList employeeList, Employee employee) {
+        try {
+            if (employee != null) {
+                employeeList.deleteEmployee(employee);
+            }
+        } catch (EmployeeDoesNotExistException employeeDoesNotExistException) {
+            // Already gone
+        }
+    }
+
+    // MODIFIES: employee
+    // EFFECTS: reads the rest of a STATUS record or of a record holding an amount, and applies it to employee
+    //          if it exists
+    private void applyChange(DataInputStream input, byte type, Employee employee) throws IOException {
+        if (type == STATUS) {
+            boolean hourlyStatus = input.readBoolean();
+            int wage = input.readInt();
+            if (employee != null) {
+                resetRate(employee, hourlyStatus, wage);
+            }
+        } else if (type >= WAGE && type <= SET_PAID && type != STATUS) {
+            int value = input.readInt();
+            if (employee != null) {
+                applyAmount(type, employee, value);
+            }
+        } else {
+            throw new MalformedFileException("Unknown journal record type " + type + " in " + path);
+        }
+    }
+
+    // MODIFIES: employee
+    // EFFECTS: sets the status and wage of employee, keeping its name
+    private void resetRate(Employee employee, boolean hourlyStatus, int wage) {
+        try {
+            employee.reset(employee.getName(), hourlyStatus, wage);
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            // Cannot happen: the name is unchanged
+        }
+    }
+
+    // MODIFIES: employee
+    // EFFECTS: applies the value of a WAGE, WORK, PAY, SET_OWED or SET_PAID record to employee
+    private void applyAmount(byte type, Employee employee, int value) {
+        if (type == WAGE) {
+            employee.changeWage(value);
+        } else if (type == WORK) {
+            employee.setCurrentOwnedToEmployee(employee.getCurrentOwned() + value);
+        } else if (type == SET_OWED) {
+            employee.setCurrentOwnedToEmployee(value);
+        } else if (type == SET_PAID) {
+            employee.setTotalPaidToEmployee(value);
+        } else {
+            employee.setCurrentOwnedToEmployee(employee.getCurrentOwned() - value);
+            employee.setTotalPaidToEmployee(employee.getTotalPaid() + value);
+        }
+    }
+
+    // EFFECTS: returns the record types of the events whose record holds just the event's amount, by ordinal
+    private static byte[] amountRecords() {
+        byte[] records = new byte[EmployeeEvent.Type.values().length];
+        records[EmployeeEvent.Type.WAGE_CHANGED.ordinal()] = WAGE;
+        records[EmployeeEvent.Type.WORK_RECORDED.ordinal()] = WORK;
+        records[EmployeeEvent.Type.PAID.ordinal()] = PAY;
+        records[EmployeeEvent.Type.CURRENT_OWNED_SET.ordinal()] = SET_OWED;
+        records[EmployeeEvent.Type.TOTAL_PAID_SET.ordinal()] = SET_PAID;
+        return records;
+    }
+
+    // EFFECTS: returns the employee called name in employeeList, or null if there is none
+    private Employee findEmployee(EmployeeList employeeList, String name) {
+        try {
+            return employeeList.getEmployee(name);
+        } catch (EmployeeDoesNotExistException employeeDoesNotExistException) {
+            return null;
+        }
+    }
+}
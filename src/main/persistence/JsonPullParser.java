@@ -0,0 +1,416 @@
+package persistence;
+
+import exceptions.MalformedFileException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Represents a pull parser that reads JSON one token at a time from a channel of UTF-8 bytes,
+// so callers never need the whole document in memory
+public class JsonPullParser implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_DEPTH = 64;
+
+    // Kinds of token returned by next()
+    public enum Token {
+        START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY, NAME, STRING, NUMBER, TRUE, FALSE, NULL, END_DOCUMENT
+    }
+
+    private ReadableByteChannel channel;
+    private ByteBuffer buffer;
+    private long bufferStart;
+    private boolean endOfInput;
+
+    private boolean[] objectStack;
+    private int depth;
+    private boolean expectName;
+
+    private Token token;
+    private long tokenOffset;
+    private byte[] scratch;
+    private int scratchLength;
+
+    // EFFECTS: constructs a parser that reads tokens from channel
+    public JsonPullParser(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.buffer.flip();
+        this.objectStack = new boolean[MAX_DEPTH];
+        this.scratch = new byte[64];
+    }
+
+    // EFFECTS: constructs a parser that reads tokens from the remaining bytes of bytes,
+    //          without copying them; offsets are relative to the current position of bytes
+    public JsonPullParser(ByteBuffer bytes) {
+        this.buffer = bytes.slice();
+        this.endOfInput = true;
+        this.objectStack = new boolean[MAX_DEPTH];
+        this.scratch = new byte[64];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: advances to the next token and returns it;
+    //          throws MalformedFileException if the input is not well-formed JSON
+    public Token next() throws IOException {
+        int nextByte = skipSeparators();
+        tokenOffset = getPosition() - 1;
+        if (nextByte == -1) {
+            return finish();
+        } else if (nextByte == '{' || nextByte == '[') {
+            return open(nextByte == '{');
+        } else if (nextByte == '}' || nextByte == ']') {
+            return close(nextByte == '}');
+        } else if (nextByte == '"') {
+            readString();
+            return stringToken();
+        }
+        return value(readScalar(nextByte));
+    }
+
+    // EFFECTS: returns the token most recently returned by next()
+    public Token getToken() {
+        return token;
+    }
+
+    // EFFECTS: returns the text of the current NAME, STRING or NUMBER token
+    public String getText() {
+        return new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: returns true if the text of the current token is exactly text;
+    //          ASCII text is compared without allocating
+    public boolean textEquals(String text) {
+        if (text.length() != scratchLength) {
+            return !isAscii(text) && getText().equals(text);
+        }
+        for (int i = 0; i < scratchLength; i++) {
+            if (text.charAt(i) != scratch[i]) {
+                return !isAscii(text) && getText().equals(text);
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns true if every character of text is ASCII
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns the current NUMBER token as an int, truncating any fractional part;
+    //          throws MalformedFileException if it is not a number that fits in an int
+    public int getInt() throws MalformedFileException {
+        if (token == Token.NUMBER || token == Token.STRING) {
+            long value = parseWholeNumber();
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                return (int) value;
+            }
+        }
+        throw new MalformedFileException("Expected an integer at byte " + tokenOffset + " but found " + getText());
+    }
+
+    // EFFECTS: returns the current TRUE or FALSE token as a boolean;
+    //          throws MalformedFileException if it is not a boolean
+    public boolean getBoolean() throws MalformedFileException {
+        if (token == Token.TRUE || token == Token.FALSE) {
+            return token == Token.TRUE;
+        } else if (token == Token.STRING && (textEquals("true") || textEquals("false"))) {
+            return textEquals("true");
+        }
+        throw new MalformedFileException("Expected a boolean at byte " + tokenOffset);
+    }
+
+    // EFFECTS: returns the byte offset in the input at which the current token starts
+    public long getTokenOffset() {
+        return tokenOffset;
+    }
+
+    // EFFECTS: returns the number of bytes consumed from the input so far
+    public long getPosition() {
+        return bufferStart + buffer.position();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips the value that follows the current NAME token, including any nested values;
+    //          if the current token starts an object or array, skips to its matching end
+    public void skipValue() throws IOException {
+        int startDepth = depth;
+        Token skipped = token;
+        if (skipped != Token.START_OBJECT && skipped != Token.START_ARRAY) {
+            skipped = next();
+            if (skipped != Token.START_OBJECT && skipped != Token.START_ARRAY) {
+                return;
+            }
+            startDepth = depth;
+        }
+        while (depth >= startDepth) {
+            if (next() == Token.END_DOCUMENT) {
+                throw new MalformedFileException("Unexpected end of input while skipping a value");
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the underlying channel, if there is one
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next byte that is not whitespace, ':' or ',', or -1 at end of input;
+    //          a ',' inside an object means the next string is a name
+    private int skipSeparators() throws IOException {
+        int nextByte = read();
+        while (nextByte == ' ' || nextByte == '\n' || nextByte == '\r' || nextByte == '\t'
+                || nextByte == ':' || nextByte == ',') {
+            if (nextByte == ',' && depth > 0 && objectStack[depth - 1]) {
+                expectName = true;
+            }
+            nextByte = read();
+        }
+        return nextByte;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns END_DOCUMENT, or throws MalformedFileException if input ended inside a value
+    private Token finish() throws MalformedFileException {
+        if (depth != 0) {
+            throw new MalformedFileException("Unexpected end of input at byte " + tokenOffset);
+        }
+        token = Token.END_DOCUMENT;
+        return token;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: enters a new object or array and returns its start token
+    private Token open(boolean isObject) throws MalformedFileException {
+        if (depth == MAX_DEPTH) {
+            throw new MalformedFileException("JSON nested too deeply at byte " + tokenOffset);
+        }
+        objectStack[depth++] = isObject;
+        expectName = isObject;
+        token = isObject ? Token.START_OBJECT : Token.START_ARRAY;
+        return token;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: leaves the current object or array and returns its end token
+    private Token close(boolean isObject) throws MalformedFileException {
+        if (depth == 0 || objectStack[depth - 1] != isObject) {
+            throw new MalformedFileException("Unexpected '" + (isObject ? '}' : ']') + "' at byte " + tokenOffset);
+        }
+        depth--;
+        expectName = false;
+        token = isObject ? Token.END_OBJECT : Token.END_ARRAY;
+        return token;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns NAME if a name was expected at this point, otherwise STRING
+    private Token stringToken() throws MalformedFileException {
+        if (expectName) {
+            expectName = false;
+            token = Token.NAME;
+        } else {
+            token = value(Token.STRING);
+        }
+        return token;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records valueToken as the current token, checking that a name was not expected instead
+    private Token value(Token valueToken) throws MalformedFileException {
+        if (expectName) {
+            throw new MalformedFileException("Expected a field name at byte " + tokenOffset);
+        }
+        token = valueToken;
+        return token;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a number or literal starting with firstByte and returns its token
+    private Token readScalar(int firstByte) throws IOException {
+        scratchLength = 0;
+        int nextByte = firstByte;
+        while ((nextByte >= '0' && nextByte <= '9') || (nextByte >= 'a' && nextByte <= 'z')
+                || nextByte == '-' || nextByte == '+' || nextByte == '.' || nextByte == 'E') {
+            append(nextByte);
+            nextByte = read();
+        }
+        if (nextByte != -1) {
+            buffer.position(buffer.position() - 1);
+        }
+        return scalarToken();
+    }
+
+    // EFFECTS: parses scratch as a number and returns its whole part,
+    //          or Long.MAX_VALUE if it is not a number or is out of range
+    private long parseWholeNumber() {
+        boolean negative = scratchLength > 0 && scratch[0] == '-';
+        long value = 0;
+        for (int i = negative ? 1 : 0; i < scratchLength; i++) {
+            int digit = scratch[i] - '0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                return parseDecimal();
+            }
+            value = value * 10 + digit;
+        }
+        boolean hasDigits = scratchLength > (negative ? 1 : 0);
+        return hasDigits ? (negative ? -value : value) : Long.MAX_VALUE;
+    }
+
+    // EFFECTS: parses scratch as a decimal number and returns its whole part,
+    //          or Long.MAX_VALUE if it is not a number
+    private long parseDecimal() {
+        try {
+            return (long) Double.parseDouble(getText());
+        } catch (NumberFormatException numberFormatException) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    // EFFECTS: returns the token for the scalar text just read into scratch
+    private Token scalarToken() throws MalformedFileException {
+        if (textEquals("true")) {
+            return Token.TRUE;
+        } else if (textEquals("false")) {
+            return Token.FALSE;
+        } else if (textEquals("null")) {
+            return Token.NULL;
+        } else if (scratchLength > 0 && (scratch[0] == '-' || (scratch[0] >= '0' && scratch[0] <= '9'))) {
+            return Token.NUMBER;
+        }
+        throw new MalformedFileException("Unexpected character at byte " + tokenOffset);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of a string whose opening quote has been consumed into scratch as UTF-8
+    private void readString() throws IOException {
+        scratchLength = 0;
+        int nextByte = read();
+        while (nextByte != '"') {
+            if (nextByte == -1) {
+                throw new MalformedFileException("Unterminated string starting at byte " + tokenOffset);
+            } else if (nextByte == '\\') {
+                readEscape();
+            } else {
+                append(nextByte);
+            }
+            nextByte = read();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads one escape sequence whose backslash has been consumed and appends the character
+    private void readEscape() throws IOException {
+        int escaped = read();
+        if (escaped == 'u') {
+            appendCodePoint(readUnicodeEscape());
+        } else if (escaped == '"' || escaped == '\\' || escaped == '/') {
+            append(escaped);
+        } else {
+            int index = "bfnrt".indexOf(escaped);
+            if (index < 0) {
+                throw new MalformedFileException("Invalid escape sequence at byte " + (getPosition() - 2));
+            }
+            append("\b\f\n\r\t".charAt(index));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the hex digits of a \\u escape, joining a following low surrogate escape if present
+    private int readUnicodeEscape() throws IOException {
+        char high = (char) readHex();
+        if (!Character.isHighSurrogate(high) || peek() != '\\') {
+            return high;
+        }
+        read();
+        if (read() != 'u') {
+            throw new MalformedFileException("Expected a low surrogate at byte " + getPosition());
+        }
+        return Character.toCodePoint(high, (char) readHex());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads four hex digits and returns their value
+    private int readHex() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw new MalformedFileException("Invalid unicode escape at byte " + getPosition());
+            }
+            value = value * 16 + digit;
+        }
+        return value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends codePoint to scratch encoded as UTF-8
+    private void appendCodePoint(int codePoint) {
+        byte[] encoded = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8);
+        for (byte b : encoded) {
+            append(b);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a single byte to scratch, growing it if needed
+    private void append(int value) {
+        if (scratchLength == scratch.length) {
+            scratch = Arrays.copyOf(scratch, scratch.length * 2);
+        }
+        scratch[scratchLength++] = (byte) value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next byte without consuming it, or -1 at end of input
+    private int peek() throws IOException {
+        int nextByte = read();
+        if (nextByte != -1) {
+            buffer.position(buffer.position() - 1);
+        }
+        return nextByte;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next byte, or -1 at end of input
+    private int read() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: refills the buffer from the channel, keeping the last byte so it can be pushed back;
+    //          returns false if there is nothing left to read
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        int keep = buffer.limit() > 0 ? 1 : 0;
+        bufferStart += buffer.limit() - keep;
+        buffer.position(buffer.limit() - keep);
+        buffer.compact();
+        int count = 0;
+        while (count == 0) {
+            count = channel.read(buffer);
+        }
+        buffer.flip();
+        buffer.position(keep);
+        endOfInput = count < 0;
+        return buffer.hasRemaining();
+    }
+}
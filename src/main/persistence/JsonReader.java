@@ -1,19 +1,24 @@
 package persistence;
 
 import exceptions.DuplicateEmployeeException;
+import exceptions.MalformedFileException;
+import metrics.PayrollMetrics;
 import model.Employee;
 import model.EmployeeList;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import persistence.JsonPullParser.Token;
 
+import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
-import java.util.stream.Stream;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 // Represents a reader that reads workroom from JSON data stored in file
 public class JsonReader {
+    private static final String[] FIELDS = {"name", "hourlyStatus", "wage", "currentOwnedToEmployee",
+            "totalPaidToEmployee"};
     private String source;
 
     // EFFECTS: constructs reader to read from source file
@@ -21,55 +26,159 @@ public class JsonReader {
         this.source = source;
     }
 
-    // EFFECTS: reads employeeList from file and returns it;
+    // EFFECTS: reads employeeList from file, replays on top of it any changes recorded in the
+    //          file's journal since it was last saved, and returns it;
     //          throws IOException if an error occurs reading data from file
     public EmployeeList read() throws IOException {
-        String jsonData = readFile(source);
-        JSONObject jsonObject = new JSONObject(jsonData);
-        return parseEmployeeList(jsonObject);
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            EmployeeList employeeList = new EmployeeList();
+            readEmployees(employee -> addEmployee(employeeList, employee));
+            replayJournal(employeeList);
+            succeeded = true;
+            return employeeList;
+        } finally {
+            PayrollMetrics.getInstance().recordLoad(start, succeeded ? new File(source).length() : 0, succeeded);
+        }
     }
 
-    // EFFECTS: reads source file as string and returns it
-    private String readFile(String source) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
+    // EFFECTS: opens the source file for lazy reading, indexing where each employee is without parsing any
+    //          of them, and returns it; the caller must close it;
+    //          throws IOException if an error occurs reading data from file
+    public LazyEmployeeFile readLazily() throws IOException {
+        LazyEmployeeFile lazyEmployeeFile = new LazyEmployeeFile(source);
+        lazyEmployeeFile.open();
+        return lazyEmployeeFile;
+    }
 
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(s -> contentBuilder.append(s));
-        }
+    // EFFECTS: streams the source file and passes each employee to consumer as soon as its
+    //          JSON object has been parsed, in file order;
+    //          throws IOException if an error occurs reading data from file
+    public void readEmployees(Consumer<Employee> consumer) throws IOException {
+        readEmployees(consumer, bytesRead -> { });
+    }
 
-        return contentBuilder.toString();
+    // EFFECTS: streams the source file and passes each employee to consumer as soon as its
+    //          JSON object has been parsed, in file order, passing the number of bytes read so far to
+    //          progress after each one; throws IOException if an error occurs reading data from file
+    public void readEmployees(Consumer<Employee> consumer, LongConsumer progress) throws IOException {
+        try (JsonPullParser parser = openParser()) {
+            expect(parser, parser.next(), Token.START_OBJECT);
+            boolean foundEmployees = false;
+            while (parser.next() == Token.NAME) {
+                if (parser.textEquals("employees")) {
+                    parseEmployees(parser, consumer, progress);
+                    foundEmployees = true;
+                } else {
+                    parser.skipValue();
+                }
+            }
+            expect(parser, parser.getToken(), Token.END_OBJECT);
+            if (!foundEmployees) {
+                throw new MalformedFileException("No employees found in " + source);
+            }
+        }
     }
 
-    // EFFECTS: parses employeeList from JSON object and returns it
-    private EmployeeList parseEmployeeList(JSONObject jsonObject) {
-        EmployeeList employeeList = new EmployeeList();
-        addEmployees(employeeList, jsonObject);
-        return employeeList;
+    // EFFECTS: returns the generation written at the start of the source file by the save that wrote it,
+    //          reading no further, or -1 if the file does not start with one;
+    //          throws IOException if the file cannot be read
+    long readGeneration() throws IOException {
+        try (JsonPullParser parser = openParser()) {
+            if (parser.next() != Token.START_OBJECT || parser.next() != Token.NAME
+                    || !parser.textEquals(JsonWriter.GENERATION) || parser.next() != Token.STRING) {
+                return -1;
+            }
+            return Long.parseLong(parser.getText(), 16);
+        } catch (MalformedFileException | NumberFormatException noGeneration) {
+            return -1;
+        }
     }
 
     // MODIFIES: employeeList
-    // EFFECTS: parses employees from JSON object and adds them to employeeList
-    private void addEmployees(EmployeeList employeeList, JSONObject jsonObject) {
-        JSONArray jsonArray = jsonObject.getJSONArray("employees");
+    // EFFECTS: replays on top of employeeList any changes recorded in the source file's journal since it was
+    //          last saved, and returns the number of changes replayed;
+    //          throws IOException if the journal exists but cannot be read
+    public int replayJournal(EmployeeList employeeList) throws IOException {
+        return new Journal(source).replay(employeeList);
+    }
+
+    // EFFECTS: opens a pull parser over the source file
+    private JsonPullParser openParser() throws IOException {
+        return new JsonPullParser(FileChannel.open(Paths.get(source), StandardOpenOption.READ));
+    }
+
+    // EFFECTS: parses the employees array and passes each employee to consumer, and the bytes read so far
+    //          to progress
+    private void parseEmployees(JsonPullParser parser, Consumer<Employee> consumer, LongConsumer progress)
+            throws IOException {
+        expect(parser, parser.next(), Token.START_ARRAY);
+        while (parser.next() == Token.START_OBJECT) {
+            consumer.accept(parseEmployee(parser));
+            progress.accept(parser.getPosition());
+        }
+        expect(parser, parser.getToken(), Token.END_ARRAY);
+    }
+
+    // EFFECTS: parses employee from the fields of the JSON object the parser is positioned in and returns it
+    static Employee parseEmployee(JsonPullParser parser) throws IOException {
+        String name = null;
+        int[] values = new int[5];
+        int seen = 0;
+
+        while (parser.next() == Token.NAME) {
+            int field = fieldNumber(parser);
+            if (field < 0) {
+                parser.skipValue();
+            } else if (field == 0) {
+                parser.next();
+                name = parser.getText();
+            } else {
+                parser.next();
+                values[field] = field == 1 ? (parser.getBoolean() ? 1 : 0) : parser.getInt();
+            }
+            seen |= field >= 0 ? 1 << field : 0;
+        }
+        expect(parser, parser.getToken(), Token.END_OBJECT);
+        return createEmployee(parser, name, values, seen);
+    }
+
+    // EFFECTS: returns the position of the current field name in the employee format, or -1 if it is unknown
+    private static int fieldNumber(JsonPullParser parser) {
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (parser.textEquals(FIELDS[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: creates an employee from the parsed fields;
+    //          throws MalformedFileException if any field was missing
+    private static Employee createEmployee(JsonPullParser parser, String name, int[] values, int seen)
+            throws MalformedFileException {
+        if (seen != 0b11111) {
+            throw new MalformedFileException("Employee ending at byte " + parser.getTokenOffset()
+                    + " is missing a field");
+        }
+        Employee employee = new Employee(name, values[1] == 1, values[2]);
+        employee.setCurrentOwnedToEmployee(values[3]);
+        employee.setTotalPaidToEmployee(values[4]);
+        return employee;
+    }
 
-        for (Object json : jsonArray) {
-            JSONObject nextEmployee = (JSONObject) json;
-            addEmployee(employeeList, nextEmployee);
+    // EFFECTS: throws MalformedFileException if actual is not the expected token
+    private static void expect(JsonPullParser parser, Token actual, Token expected) throws MalformedFileException {
+        if (actual != expected) {
+            throw new MalformedFileException("Expected " + expected + " but found " + actual
+                    + " at byte " + parser.getTokenOffset());
         }
     }
 
     // MODIFIES: employeeList
-    // EFFECTS: parses employee from JSON object and adds it to employeeList
-    private void addEmployee(EmployeeList employeeList, JSONObject jsonObject) {
-        String name = jsonObject.getString("name");
-        boolean hourlyStatus = jsonObject.getBoolean("hourlyStatus");
-        int wage = jsonObject.getInt("wage");
-        int currentOwnedToEmployee = jsonObject.getInt("currentOwnedToEmployee");
-        int totalPaidToEmployee = jsonObject.getInt("totalPaidToEmployee");
-
-        Employee employee = new Employee(name, hourlyStatus, wage);
-        employee.setCurrentOwnedToEmployee(currentOwnedToEmployee);
-        employee.setTotalPaidToEmployee(totalPaidToEmployee);
+    // EFFECTS: adds employee to employeeList, skipping it if an employee with the same name was already read
+    private void addEmployee(EmployeeList employeeList, Employee employee) {
         try {
             employeeList.addEmployee(employee);
         } catch (DuplicateEmployeeException duplicateEmployeeException) {
@@ -1,44 +1,275 @@
 package persistence;
 
+import metrics.PayrollMetrics;
+import model.Employee;
 import model.EmployeeList;
 import org.json.JSONObject;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
 
-// Represents a writer that writes JSON representation of workroom to file
+// Represents a writer that writes JSON representation of workroom to file.
+// Every file written starts with a new random generation, which the file's journal records so that it is
+// never replayed on top of a later save of the file, even one of the same size written in the same instant.
 public class JsonWriter {
+    static final String GENERATION = "generation";
     private static final int TAB = 4;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String BACKUP_SUFFIX = ".bak";
     private PrintWriter writer;
+    private FileChannel temporaryChannel;
+    private FileChannel outputChannel;
+    private long openedAt;
+    private long bytesWritten;
+    private Path temporaryFile;
     private String destination;
+    private boolean prettyPrint;
+    private SaveMode saveMode;
+    private String[] employeeFragments;
 
-    // EFFECTS: constructs writer to write to destination file
+    // How the destination file is replaced when the writer is closed
+    public enum SaveMode {
+        // Truncate and write the destination file in place
+        OVERWRITE,
+        // Write a temporary file next to the destination, force it to disk and rename it over the destination
+        ATOMIC,
+        // As ATOMIC, but first keep the previous destination file as destination + ".bak"
+        ATOMIC_WITH_BACKUP
+    }
+
+    // EFFECTS: constructs writer to write indented JSON to destination file
     public JsonWriter(String destination) {
+        this(destination, true, SaveMode.OVERWRITE);
+    }
+
+    // EFFECTS: constructs writer to write to destination file;
+    //          JSON is indented if prettyPrint is true, otherwise it is written without whitespace
+    public JsonWriter(String destination, boolean prettyPrint) {
+        this(destination, prettyPrint, SaveMode.OVERWRITE);
+    }
+
+    // EFFECTS: constructs writer to write indented JSON to destination file using saveMode
+    public JsonWriter(String destination, SaveMode saveMode) {
+        this(destination, true, saveMode);
+    }
+
+    // EFFECTS: constructs writer to write to destination file using saveMode;
+    //          JSON is indented if prettyPrint is true, otherwise it is written without whitespace
+    public JsonWriter(String destination, boolean prettyPrint, SaveMode saveMode) {
         this.destination = destination;
+        this.prettyPrint = prettyPrint;
+        this.saveMode = saveMode;
+        this.employeeFragments = employeeFragments(prettyPrint);
     }
 
     // MODIFIES: this
-    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
-    //          be opened for writing
-    public void open() throws FileNotFoundException {
-        writer = new PrintWriter(new File(destination));
+    // EFFECTS: opens writer; in an atomic save mode the data is written to a new temporary file
+    //          in the destination's directory and the destination is left untouched until close;
+    //          throws IOException if the file cannot be opened for writing
+    public void open() throws IOException {
+        openedAt = System.nanoTime();
+        OutputStream outputStream;
+        try {
+            if (saveMode == SaveMode.OVERWRITE) {
+                FileOutputStream fileOutputStream = new FileOutputStream(destination);
+                outputChannel = fileOutputStream.getChannel();
+                outputStream = fileOutputStream;
+            } else {
+                temporaryChannel = createTemporaryFile(destinationPath());
+                outputChannel = temporaryChannel;
+                outputStream = Channels.newOutputStream(temporaryChannel);
+            }
+        } catch (IOException e) {
+            PayrollMetrics.getInstance().recordSave(openedAt, 0, false);
+            throw e;
+        }
+        writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE));
     }
 
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of EmployeeList to file
+    // EFFECTS: writes JSON representation of EmployeeList to file one employee at a time, after a new random
+    //          generation; apart from the generation, the output is the same as employeeList.toJson() rendered
+    //          by org.json
     public void write(EmployeeList employeeList) {
-        JSONObject json = employeeList.toJson();
-        saveToFile(json.toString(TAB));
+        boolean first = true;
+        String generation = String.format("%016x", ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+        writer.print(prettyPrint ? "{\"" + GENERATION + "\": \"" + generation + "\", \"employees\": ["
+                : "{\"" + GENERATION + "\":\"" + generation + "\",\"employees\":[");
+        for (Employee employee : employeeList.getAllEmployees()) {
+            if (!first) {
+                writer.print(',');
+            }
+            writeEmployee(employee);
+            first = false;
+        }
+        if (prettyPrint && !first) {
+            writer.print('\n');
+        }
+        writer.print("]}");
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void close() {
-        writer.close();
+    // EFFECTS: closes writer; in an atomic save mode, forces the temporary file to disk, keeps a backup
+    //          if requested and then renames the temporary file over the destination;
+    //          throws IOException if any of the data could not be written, leaving the destination untouched
+    //          in an atomic save mode
+    public void close() throws IOException {
+        boolean succeeded = false;
+        try {
+            closeWriter();
+            succeeded = true;
+        } finally {
+            PayrollMetrics.getInstance().recordSave(openedAt, succeeded ? bytesWritten : 0, succeeded);
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: writes string to file
-    private void saveToFile(String json) {
-        writer.print(json);
+    // EFFECTS: flushes and closes writer, then commits or discards the temporary file as in close()
+    private void closeWriter() throws IOException {
+        writer.flush();
+        boolean failed = writer.checkError();
+        try {
+            bytesWritten = failed ? 0 : outputChannel.size();
+            if (!failed && temporaryChannel != null) {
+                temporaryChannel.force(true);
+            }
+        } finally {
+            writer.close();
+        }
+        if (failed) {
+            discardTemporaryFile();
+            throw new IOException("Unable to write to file: " + destination);
+        } else if (temporaryFile != null) {
+            commitTemporaryFile();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates a new, uniquely named temporary file in the same directory as target and returns
+    //          a channel for writing to it
+    private FileChannel createTemporaryFile(Path target) throws IOException {
+        Path directory = target.getParent();
+        while (true) {
+            String suffix = Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp";
+            temporaryFile = directory.resolve("." + target.getFileName() + "." + suffix);
+            try {
+                return FileChannel.open(temporaryFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException fileAlreadyExistsException) {
+                // Pick another name
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the destination with the temporary file, keeping a backup first if requested
+    private void commitTemporaryFile() throws IOException {
+        Path target = destinationPath();
+        try {
+            if (saveMode == SaveMode.ATOMIC_WITH_BACKUP && Files.exists(target)) {
+                backUp(target);
+            }
+            try {
+                Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            forceDirectory(temporaryFile.getParent());
+        } finally {
+            discardTemporaryFile();
+        }
+    }
+
+    // EFFECTS: makes target + ".bak" refer to the current contents of target,
+    //          hard-linking where the file system allows it and copying otherwise
+    private void backUp(Path target) throws IOException {
+        Path backup = Paths.get(destination + BACKUP_SUFFIX);
+        Files.deleteIfExists(backup);
+        try {
+            Files.createLink(backup, target);
+        } catch (IOException | UnsupportedOperationException linkNotSupported) {
+            Files.copy(target, backup, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // EFFECTS: forces the directory entry for a renamed file to disk where the platform supports it
+    private void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException directoriesCannotBeForced) {
+            // Not supported on every platform; the rename itself is still atomic
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the temporary file if it still exists
+    private void discardTemporaryFile() throws IOException {
+        if (temporaryFile != null) {
+            Files.deleteIfExists(temporaryFile);
+            temporaryFile = null;
+            temporaryChannel = null;
+        }
+    }
+
+    // EFFECTS: returns the destination as a path; throws FileNotFoundException if it is not a valid path
+    private Path destinationPath() throws FileNotFoundException {
+        try {
+            return Paths.get(destination).toAbsolutePath();
+        } catch (InvalidPathException invalidPathException) {
+            throw new FileNotFoundException("Invalid file path: " + destination);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of employee
+    private void writeEmployee(Employee employee) {
+        writer.print(employeeFragments[0]);
+        writer.print(employee.getHourlyStatus());
+        writer.print(employeeFragments[1]);
+        writer.print(employee.getTotalPaid());
+        writer.print(employeeFragments[2]);
+        writer.print(JSONObject.quote(employee.getName()));
+        writer.print(employeeFragments[3]);
+        writer.print(employee.getCurrentOwned());
+        writer.print(employeeFragments[4]);
+        writer.print(employee.getWage());
+        writer.print(employeeFragments[5]);
+    }
+
+    // EFFECTS: returns the text written around each employee field value,
+    //          with the fields in the order org.json renders them
+    private static String[] employeeFragments(boolean prettyPrint) {
+        String indent = prettyPrint ? "\n" + spaces(TAB) : "";
+        String fieldIndent = prettyPrint ? "\n" + spaces(TAB * 2) : "";
+        String colon = prettyPrint ? ": " : ":";
+        String[] fields = {"hourlyStatus", "totalPaidToEmployee", "name", "currentOwnedToEmployee", "wage"};
+        String[] fragments = new String[fields.length + 1];
+
+        for (int i = 0; i < fields.length; i++) {
+            String start = i == 0 ? indent + "{" : ",";
+            fragments[i] = start + fieldIndent + "\"" + fields[i] + "\"" + colon;
+        }
+        fragments[fields.length] = indent + "}";
+        return fragments;
+    }
+
+    // EFFECTS: returns a string of count spaces
+    private static String spaces(int count) {
+        StringBuilder spaces = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            spaces.append(' ');
+        }
+        return spaces.toString();
     }
 }
@@ -0,0 +1,225 @@
+package persistence;
+
+import exceptions.EmployeeDoesNotExistException;
+import exceptions.MalformedFileException;
+import model.Employee;
+import model.EmployeeList;
+import persistence.JsonPullParser.Token;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a saved employee list that is opened without reading its employees: opening scans the file once
+// and keeps only each employee's name and the byte range of its JSON object, in sorted arrays, and an employee
+// is parsed from the file the first time it is asked for and kept from then on. Opening is one pass that builds
+// no employees, and memory grows with the employees used rather than with the size of the file.
+// If the file's journal holds changes not yet saved, the file is read in full instead, so that every employee
+// is exactly what JsonReader.read() would return. The file must not be saved over while it is open, since the
+// index holds byte positions in it.
+public class LazyEmployeeFile implements Closeable {
+    private String source;
+    private FileChannel channel;
+
+    private String[] names;
+    private long[] offsets;
+    private int[] lengths;
+    private Map<String, Employee> hydrated;
+
+    // EFFECTS: constructs a lazily read view of the employee list saved at source
+    public LazyEmployeeFile(String source) {
+        this.source = source;
+        this.names = new String[0];
+        this.hydrated = new HashMap<String, Employee>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the file and indexes the name and position of every employee in it, keeping the first of
+    //          any employees with the same name as JsonReader.read() does;
+    //          throws IOException if the file cannot be read or is not a well-formed employee list
+    public synchronized void open() throws IOException {
+        EmployeeList journaled = new EmployeeList();
+        if (new Journal(source).replay(journaled) > 0) {
+            hydrateAll(new JsonReader(source).read());
+            return;
+        }
+        channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ);
+        try {
+            scan();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    // EFFECTS: returns the number of employees in the file
+    public synchronized int getEmployeeCount() {
+        return names.length;
+    }
+
+    // EFFECTS: returns the names of the employees in the file in sorted order, without reading any of them
+    public synchronized List<String> getEmployeeNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    // EFFECTS: returns true if the file holds an employee called employeeName
+    public synchronized boolean contains(String employeeName) {
+        return Arrays.binarySearch(names, employeeName) >= 0;
+    }
+
+    // EFFECTS: returns the number of employees that have been read from the file so far
+    public synchronized int getHydratedCount() {
+        return hydrated.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the employee called employeeName, reading it from the file if it has not been asked for
+    //          before; later calls return the same employee, including any changes made to it;
+    //          throws EmployeeDoesNotExistException if no such employee is in the file, or IOException if
+    //          its record cannot be read
+    public synchronized Employee getEmployee(String employeeName) throws EmployeeDoesNotExistException,
+            IOException {
+        Employee employee = hydrated.get(employeeName);
+        if (employee != null) {
+            return employee;
+        }
+        int index = Arrays.binarySearch(names, employeeName);
+        if (index < 0) {
+            throw new EmployeeDoesNotExistException();
+        }
+        employee = readRecord(offsets[index], lengths[index]);
+        hydrated.put(employeeName, employee);
+        return employee;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the file; employees already read can still be used
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: keeps every employee in employeeList as already read
+    private void hydrateAll(EmployeeList employeeList) {
+        List<String> allNames = new ArrayList<String>();
+        for (Employee employee : employeeList.getAllEmployees()) {
+            allNames.add(employee.getName());
+            hydrated.put(employee.getName(), employee);
+        }
+        names = allNames.toArray(new String[0]);
+        Arrays.sort(names);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: streams the file once, recording the name and byte range of every employee object in it
+    private void scan() throws IOException {
+        List<String> foundNames = new ArrayList<String>();
+        List<long[]> ranges = new ArrayList<long[]>();
+        JsonPullParser parser = new JsonPullParser(channel);
+        expect(parser, parser.next(), Token.START_OBJECT);
+        boolean foundEmployees = false;
+        while (parser.next() == Token.NAME) {
+            if (parser.textEquals("employees")) {
+                scanEmployees(parser, foundNames, ranges);
+                foundEmployees = true;
+            } else {
+                parser.skipValue();
+            }
+        }
+        expect(parser, parser.getToken(), Token.END_OBJECT);
+        if (!foundEmployees) {
+            throw new MalformedFileException("No employees found in " + source);
+        }
+        buildIndex(foundNames, ranges);
+    }
+
+    // MODIFIES: foundNames, ranges
+    // EFFECTS: records the name and {offset, length} of each object in the employees array
+    private void scanEmployees(JsonPullParser parser, List<String> foundNames, List<long[]> ranges)
+            throws IOException {
+        expect(parser, parser.next(), Token.START_ARRAY);
+        while (parser.next() == Token.START_OBJECT) {
+            long offset = parser.getTokenOffset();
+            String name = null;
+            while (parser.next() == Token.NAME) {
+                if (parser.textEquals("name")) {
+                    parser.next();
+                    name = parser.getText();
+                } else {
+                    parser.skipValue();
+                }
+            }
+            expect(parser, parser.getToken(), Token.END_OBJECT);
+            if (name == null) {
+                throw new MalformedFileException("Employee at byte " + offset + " has no name");
+            }
+            foundNames.add(name);
+            ranges.add(new long[] {offset, parser.getPosition() - offset});
+        }
+        expect(parser, parser.getToken(), Token.END_ARRAY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sorts the names found and their byte ranges into the index, keeping the first of any duplicates
+    private void buildIndex(List<String> foundNames, List<long[]> ranges) {
+        Integer[] order = new Integer[foundNames.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> foundNames.get(first).compareTo(foundNames.get(second)));
+        int unique = 0;
+        names = new String[order.length];
+        offsets = new long[order.length];
+        lengths = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            String name = foundNames.get(order[i]);
+            if (unique == 0 || !names[unique - 1].equals(name)) {
+                names[unique] = name;
+                offsets[unique] = ranges.get(order[i])[0];
+                lengths[unique] = (int) ranges.get(order[i])[1];
+                unique++;
+            }
+        }
+        names = Arrays.copyOf(names, unique);
+        offsets = Arrays.copyOf(offsets, unique);
+        lengths = Arrays.copyOf(lengths, unique);
+    }
+
+    // EFFECTS: reads and parses the employee object of length bytes starting at offset in the file
+    private Employee readRecord(long offset, int length) throws IOException {
+        if (channel == null) {
+            throw new IOException("File is closed: " + source);
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, offset + bytes.position()) < 0) {
+                throw new MalformedFileException("File ended inside the employee at byte " + offset);
+            }
+        }
+        bytes.flip();
+        JsonPullParser parser = new JsonPullParser(bytes);
+        expect(parser, parser.next(), Token.START_OBJECT);
+        return JsonReader.parseEmployee(parser);
+    }
+
+    // EFFECTS: throws MalformedFileException if actual is not the expected token
+    private static void expect(JsonPullParser parser, Token actual, Token expected) throws MalformedFileException {
+        if (actual != expected) {
+            throw new MalformedFileException("Expected " + expected + " but found " + actual
+                    + " at byte " + parser.getTokenOffset());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package persistence;
+
+import model.EmployeeList;
+
+import java.io.IOException;
+
+// Converts employee data between the JSON format and the binary snapshot format
+public class SnapshotConverter {
+
+    // EFFECTS: reads the JSON file at jsonSource and writes it as a snapshot to snapshotDestination;
+    //          throws IOException if either file cannot be read or written
+    public void jsonToSnapshot(String jsonSource, String snapshotDestination) throws IOException {
+        EmployeeList employeeList = new JsonReader(jsonSource).read();
+        SnapshotWriter writer = new SnapshotWriter(snapshotDestination);
+        writer.open();
+        try {
+            writer.write(employeeList);
+        } finally {
+            writer.close();
+        }
+    }
+
+    // EFFECTS: reads the snapshot at snapshotSource and writes it as indented JSON to jsonDestination;
+    //          throws IOException if either file cannot be read or written
+    public void snapshotToJson(String snapshotSource, String jsonDestination) throws IOException {
+        EmployeeList employeeList = new SnapshotReader(snapshotSource).read();
+        JsonWriter writer = new JsonWriter(jsonDestination, JsonWriter.SaveMode.ATOMIC);
+        writer.open();
+        writer.write(employeeList);
+        writer.close();
+    }
+}
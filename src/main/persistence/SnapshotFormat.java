@@ -0,0 +1,18 @@
+package persistence;
+
+// Describes the layout of a binary employee snapshot file; all numbers are big-endian:
+//   header:  int magic, short version, short reserved (0), int employee count
+//   records: unsigned short name length, UTF-8 name bytes, byte hourlyStatus (1 or 0),
+//            int wage, int currentOwnedToEmployee, int totalPaidToEmployee
+//   trailer: long CRC-32 of every byte before the trailer
+final class SnapshotFormat {
+    static final int MAGIC = 0x505A534E;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 12;
+    static final int TRAILER_SIZE = 8;
+    static final int FIXED_RECORD_SIZE = 2 + 1 + 4 + 4 + 4;
+    static final int MAX_NAME_LENGTH = 0xFFFF;
+
+    private SnapshotFormat() {
+    }
+}
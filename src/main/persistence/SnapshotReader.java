@@ -0,0 +1,115 @@
+package persistence;
+
+import exceptions.DuplicateEmployeeException;
+import exceptions.MalformedFileException;
+import model.Employee;
+import model.EmployeeList;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Represents a reader that reads an employee list from a binary snapshot file by memory-mapping it
+public class SnapshotReader {
+    private String source;
+
+    // EFFECTS: constructs reader to read from source file
+    public SnapshotReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads employeeList from file and returns it;
+    //          throws IOException if an error occurs reading data from file,
+    //          or MalformedFileException if the file is not a valid snapshot
+    public EmployeeList read() throws IOException {
+        EmployeeList employeeList = new EmployeeList();
+        readEmployees(employee -> addEmployee(employeeList, employee));
+        return employeeList;
+    }
+
+    // EFFECTS: verifies the snapshot and passes each employee in it to consumer, in file order;
+    //          throws IOException if an error occurs reading data from file,
+    //          or MalformedFileException if the file is not a valid snapshot
+    public void readEmployees(Consumer<Employee> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SnapshotFormat.HEADER_SIZE + SnapshotFormat.TRAILER_SIZE || size > Integer.MAX_VALUE) {
+                throw new MalformedFileException("Not a snapshot file: " + source);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int count = readHeader(mapped);
+            verifyChecksum(mapped);
+            try {
+                readRecords(mapped, count, consumer);
+            } catch (BufferUnderflowException bufferUnderflowException) {
+                throw new MalformedFileException("Snapshot ends before all employees were read: " + source);
+            }
+        }
+    }
+
+    // EFFECTS: checks the snapshot header and returns the number of employees in the snapshot
+    private int readHeader(MappedByteBuffer mapped) throws MalformedFileException {
+        if (mapped.getInt() != SnapshotFormat.MAGIC) {
+            throw new MalformedFileException("Not a snapshot file: " + source);
+        }
+        short version = mapped.getShort();
+        if (version != SnapshotFormat.VERSION) {
+            throw new MalformedFileException("Unsupported snapshot version " + version + ": " + source);
+        }
+        mapped.getShort();
+        int count = mapped.getInt();
+        if (count < 0) {
+            throw new MalformedFileException("Invalid employee count in snapshot: " + source);
+        }
+        return count;
+    }
+
+    // EFFECTS: throws MalformedFileException if the stored checksum does not match the file contents
+    private void verifyChecksum(MappedByteBuffer mapped) throws MalformedFileException {
+        int trailer = mapped.limit() - SnapshotFormat.TRAILER_SIZE;
+        CRC32 checksum = new CRC32();
+        ByteBuffer contents = mapped.duplicate();
+        contents.position(0);
+        contents.limit(trailer);
+        checksum.update(contents);
+        if (checksum.getValue() != mapped.getLong(trailer)) {
+            throw new MalformedFileException("Snapshot checksum does not match: " + source);
+        }
+        mapped.limit(trailer);
+    }
+
+    // EFFECTS: reads count employee records and passes each one to consumer
+    private void readRecords(MappedByteBuffer mapped, int count, Consumer<Employee> consumer) {
+        byte[] name = new byte[256];
+        for (int i = 0; i < count; i++) {
+            int nameLength = Short.toUnsignedInt(mapped.getShort());
+            if (nameLength > name.length) {
+                name = new byte[nameLength];
+            }
+            mapped.get(name, 0, nameLength);
+            boolean hourlyStatus = mapped.get() != 0;
+            Employee employee = new Employee(new String(name, 0, nameLength, StandardCharsets.UTF_8),
+                    hourlyStatus, mapped.getInt());
+            employee.setCurrentOwnedToEmployee(mapped.getInt());
+            employee.setTotalPaidToEmployee(mapped.getInt());
+            consumer.accept(employee);
+        }
+    }
+
+    // MODIFIES: employeeList
+    // EFFECTS: adds employee to employeeList, skipping it if an employee with the same name was already read
+    private void addEmployee(EmployeeList employeeList, Employee employee) {
+        try {
+            employeeList.addEmployee(employee);
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            // Skip adding duplicate employee
+        }
+    }
+}
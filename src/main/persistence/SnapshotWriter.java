@@ -0,0 +1,94 @@
+package persistence;
+
+import model.Employee;
+import model.EmployeeList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Represents a writer that writes an employee list to file in the binary snapshot format
+public class SnapshotWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private String destination;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private CRC32 checksum;
+
+    // EFFECTS: constructs writer to write to destination file
+    public SnapshotWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer, truncating the destination file;
+    //          throws IOException if destination file cannot be opened for writing
+    public void open() throws IOException {
+        try {
+            channel = FileChannel.open(Paths.get(destination), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (InvalidPathException invalidPathException) {
+            throw new IOException("Invalid file path: " + destination);
+        }
+        buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        checksum = new CRC32();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes employeeList to file as a snapshot;
+    //          throws IOException if the data cannot be written or a name is too long for the format
+    public void write(EmployeeList employeeList) throws IOException {
+        buffer.putInt(SnapshotFormat.MAGIC);
+        buffer.putShort(SnapshotFormat.VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(employeeList.getEmployeeCount());
+        for (Employee employee : employeeList.getAllEmployees()) {
+            writeEmployee(employee);
+        }
+        flush(true);
+        buffer.putLong(checksum.getValue());
+        flush(false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes one employee record
+    private void writeEmployee(Employee employee) throws IOException {
+        byte[] name = employee.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > SnapshotFormat.MAX_NAME_LENGTH) {
+            throw new IOException("Employee name is too long for a snapshot: " + employee.getName());
+        }
+        if (buffer.remaining() < SnapshotFormat.FIXED_RECORD_SIZE + name.length) {
+            flush(true);
+        }
+        buffer.putShort((short) name.length);
+        buffer.put(name);
+        buffer.put((byte) (employee.getHourlyStatus() ? 1 : 0));
+        buffer.putInt(employee.getWage());
+        buffer.putInt(employee.getCurrentOwned());
+        buffer.putInt(employee.getTotalPaid());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes out the buffered bytes, adding them to the checksum if updateChecksum is true
+    private void flush(boolean updateChecksum) throws IOException {
+        buffer.flip();
+        if (updateChecksum) {
+            checksum.update(buffer.duplicate());
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
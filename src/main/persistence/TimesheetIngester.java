@@ -0,0 +1,368 @@
+package persistence;
+
+import exceptions.EmployeeDoesNotExistException;
+import model.EmployeeList;
+import persistence.JsonPullParser.Token;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Represents an ingester that records the time in a timesheet file against the employees in an employee list.
+// Each line of the file is one row, either CSV (name,timeWorked, with the name optionally in double quotes)
+// or a JSON object such as {"name": "Kyle", "timeWorked": 8}; a first line that is a CSV header is skipped.
+// The file is memory-mapped and split into chunks that are parsed on several threads; the time in every
+// row for the same employee is added up first, so each employee has work recorded only once.
+public class TimesheetIngester {
+    private static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private EmployeeList employeeList;
+    private int threads;
+    private int chunkSize;
+
+    // EFFECTS: constructs an ingester for employeeList that uses one thread per processor
+    public TimesheetIngester(EmployeeList employeeList) {
+        this(employeeList, Runtime.getRuntime().availableProcessors());
+    }
+
+    // REQUIRES: threads > 0
+    // EFFECTS: constructs an ingester for employeeList that parses on up to threads threads
+    public TimesheetIngester(EmployeeList employeeList, int threads) {
+        this(employeeList, threads, DEFAULT_CHUNK_SIZE);
+    }
+
+    // REQUIRES: threads > 0 and chunkSize > 0
+    // EFFECTS: constructs an ingester for employeeList that parses chunks of about chunkSize bytes
+    //          on up to threads threads
+    TimesheetIngester(EmployeeList employeeList, int threads, int chunkSize) {
+        this.employeeList = employeeList;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    // MODIFIES: employees in employeeList named in the file
+    // EFFECTS: records the time in every valid row of the timesheet at source and returns a report;
+    //          rows that cannot be parsed or name no known employee are reported and skipped;
+    //          throws IOException if the file cannot be read
+    public IngestionReport ingest(String source) throws IOException {
+        List<TimesheetChunk> chunks;
+        try (FileChannel channel = FileChannel.open(sourcePath(source), StandardOpenOption.READ)) {
+            chunks = parseChunks(channel, splitIntoChunks(channel));
+        }
+        IngestionReport report = new IngestionReport();
+        Map<String, long[]> totals = new HashMap<String, long[]>();
+        for (TimesheetChunk chunk : chunks) {
+            chunk.mergeInto(totals, report);
+        }
+        applyTotals(totals, report);
+        return report;
+    }
+
+    // EFFECTS: returns source as a path; throws FileNotFoundException if it is not a valid path
+    private Path sourcePath(String source) throws FileNotFoundException {
+        try {
+            return Paths.get(source);
+        } catch (InvalidPathException invalidPathException) {
+            throw new FileNotFoundException("Invalid file path: " + source);
+        }
+    }
+
+    // EFFECTS: returns the byte offsets at which chunks start, each at the beginning of a line,
+    //          followed by the size of the file
+    private List<Long> splitIntoChunks(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<Long>();
+        long start = 0;
+        while (start < size) {
+            boundaries.add(start);
+            start = size - start <= chunkSize ? size : nextLineStart(channel, start + chunkSize);
+        }
+        boundaries.add(size);
+        return boundaries;
+    }
+
+    // EFFECTS: returns the offset just after the first newline at or after position, or the file size
+    private long nextLineStart(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long offset = position;
+        while (channel.read(buffer, offset) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                offset++;
+                if (buffer.get() == '\n') {
+                    return offset;
+                }
+            }
+            buffer.clear();
+        }
+        return channel.size();
+    }
+
+    // EFFECTS: maps and parses every chunk, using up to threads threads, and returns the results in file order
+    private List<TimesheetChunk> parseChunks(FileChannel channel, List<Long> boundaries) throws IOException {
+        List<TimesheetChunk> chunks = new ArrayList<TimesheetChunk>();
+        for (int i = 0; i + 1 < boundaries.size(); i++) {
+            long start = boundaries.get(i);
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, boundaries.get(i + 1) - start);
+            chunks.add(new TimesheetChunk(bytes, start, i == 0));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, chunks.size())));
+        try {
+            for (Future<TimesheetChunk> parsed : executor.invokeAll(chunks)) {
+                parsed.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IOException("Unable to parse timesheet", e);
+        } finally {
+            executor.shutdown();
+        }
+        return chunks;
+    }
+
+    // MODIFIES: employees in employeeList named in totals, report
+    // EFFECTS: records the total time for each named employee, as one batch of changes to employeeList,
+    //          and reports names that are not in employeeList
+    private void applyTotals(Map<String, long[]> totals, IngestionReport report) {
+        employeeList.beginBatch();
+        try {
+            for (Map.Entry<String, long[]> total : totals.entrySet()) {
+                applyTotal(total.getKey(), total.getValue(), report);
+            }
+        } finally {
+            employeeList.endBatch();
+        }
+    }
+
+    // MODIFIES: the employee called name in employeeList, report
+    // EFFECTS: records total[0] time for the employee called name, which appeared in total[1] rows
+    private void applyTotal(String name, long[] total, IngestionReport report) {
+        long timeWorked = total[0];
+        long rows = total[1];
+        try {
+            if (timeWorked > Integer.MAX_VALUE) {
+                report.recordRejected(rows, "Total time for " + name + " is too large");
+            } else {
+                employeeList.getEmployee(name).recordWorkAmount((int) timeWorked);
+                report.recordApplied(rows);
+            }
+        } catch (EmployeeDoesNotExistException employeeDoesNotExistException) {
+            report.recordRejected(rows, "No employee named " + name + " (" + rows + " rows)");
+        }
+    }
+
+    // Represents one chunk of the timesheet and, once parsed, the total time per name found in it
+    private static class TimesheetChunk implements Callable<TimesheetChunk> {
+        private ByteBuffer bytes;
+        private long fileOffset;
+        private boolean firstChunk;
+        private Map<String, long[]> totals;
+        private List<String> errors;
+        private long rejectedRows;
+
+        // EFFECTS: constructs a chunk over bytes, which start at fileOffset in the file
+        TimesheetChunk(ByteBuffer bytes, long fileOffset, boolean firstChunk) {
+            this.bytes = bytes;
+            this.fileOffset = fileOffset;
+            this.firstChunk = firstChunk;
+            this.totals = new HashMap<String, long[]>();
+            this.errors = new ArrayList<String>();
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses every line in the chunk, adding up the time per name and noting bad rows
+        @Override
+        public TimesheetChunk call() {
+            int lineStart = 0;
+            int limit = bytes.limit();
+            for (int i = 0; i <= limit; i++) {
+                if (i == limit || bytes.get(i) == '\n') {
+                    parseLine(lineStart, i, firstChunk && lineStart == 0);
+                    lineStart = i + 1;
+                }
+            }
+            return this;
+        }
+
+        // MODIFIES: totals, report
+        // EFFECTS: adds this chunk's totals to totals and its rejected rows to report
+        void mergeInto(Map<String, long[]> allTotals, IngestionReport report) {
+            for (Map.Entry<String, long[]> total : totals.entrySet()) {
+                long[] sum = allTotals.computeIfAbsent(total.getKey(), name -> new long[2]);
+                sum[0] += total.getValue()[0];
+                sum[1] += total.getValue()[1];
+            }
+            for (String error : errors) {
+                report.recordRejected(1, error);
+            }
+            report.recordRejected(rejectedRows - errors.size());
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses the row in bytes[start, end), skipping blank lines and a CSV header on the first line
+        private void parseLine(int start, int end, boolean firstLine) {
+            int trimmedEnd = end > start && bytes.get(end - 1) == '\r' ? end - 1 : end;
+            if (isBlank(start, trimmedEnd)) {
+                return;
+            }
+            boolean parsed = bytes.get(firstNonBlank(start, trimmedEnd)) == '{'
+                    ? parseJsonRow(start, trimmedEnd) : parseCsvRow(start, trimmedEnd);
+            if (!parsed && !(firstLine && isCsvHeader(start, trimmedEnd))) {
+                rejectRow(start, trimmedEnd);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses a CSV row in bytes[start, end) and returns true if it was valid
+        private boolean parseCsvRow(int start, int end) {
+            int comma = findCsvComma(start, end);
+            if (comma < 0) {
+                return false;
+            }
+            String name = csvName(start, comma);
+            long timeWorked = parseTime(comma + 1, end);
+            return addTime(name, timeWorked);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses a JSON row in bytes[start, end) and returns true if it was valid
+        private boolean parseJsonRow(int start, int end) {
+            ByteBuffer row = bytes.duplicate();
+            row.position(start);
+            row.limit(end);
+            JsonPullParser parser = new JsonPullParser(row);
+            String name = null;
+            long timeWorked = -1;
+            try {
+                parser.next();
+                while (parser.next() == Token.NAME) {
+                    if (parser.textEquals("name")) {
+                        parser.next();
+                        name = parser.getText();
+                    } else if (parser.textEquals("timeWorked")) {
+                        parser.next();
+                        timeWorked = parser.getInt();
+                    } else {
+                        parser.skipValue();
+                    }
+                }
+                return parser.getToken() == Token.END_OBJECT && parser.next() == Token.END_DOCUMENT
+                        && addTime(name, timeWorked);
+            } catch (IOException malformedRow) {
+                return false;
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds timeWorked to the total for name and returns true, or returns false if the row is invalid
+        private boolean addTime(String name, long timeWorked) {
+            if (name == null || name.isEmpty() || timeWorked < 0) {
+                return false;
+            }
+            long[] total = totals.computeIfAbsent(name, key -> new long[2]);
+            total[0] += timeWorked;
+            total[1]++;
+            return true;
+        }
+
+        // EFFECTS: returns the index of the comma separating the name from the time, or -1 if there is none
+        private int findCsvComma(int start, int end) {
+            boolean quoted = false;
+            for (int i = start; i < end; i++) {
+                byte b = bytes.get(i);
+                if (b == '"') {
+                    quoted = !quoted;
+                } else if (b == ',' && !quoted) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // EFFECTS: returns the CSV name field in bytes[start, end), without surrounding quotes or spaces
+        private String csvName(int start, int end) {
+            int from = firstNonBlank(start, end);
+            int to = end;
+            while (to > from && bytes.get(to - 1) == ' ') {
+                to--;
+            }
+            if (to - from >= 2 && bytes.get(from) == '"' && bytes.get(to - 1) == '"') {
+                return decode(from + 1, to - 1).replace("\"\"", "\"");
+            }
+            return decode(from, to);
+        }
+
+        // EFFECTS: returns the non-negative whole number in bytes[start, end), ignoring surrounding spaces,
+        //          or -1 if it is not one or is larger than Integer.MAX_VALUE
+        private long parseTime(int start, int end) {
+            int from = firstNonBlank(start, end);
+            int to = end;
+            while (to > from && (bytes.get(to - 1) == ' ' || bytes.get(to - 1) == '\t')) {
+                to--;
+            }
+            long value = 0;
+            for (int i = from; i < to; i++) {
+                byte b = bytes.get(i);
+                if (b < '0' || b > '9' || value > Integer.MAX_VALUE) {
+                    return -1;
+                }
+                value = value * 10 + (b - '0');
+            }
+            return from < to && value <= Integer.MAX_VALUE ? value : -1;
+        }
+
+        // EFFECTS: returns true if the row in bytes[start, end) looks like a CSV header
+        private boolean isCsvHeader(int start, int end) {
+            int comma = findCsvComma(start, end);
+            return comma >= 0 && parseTime(comma + 1, end) < 0;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: records the row in bytes[start, end) as rejected
+        private void rejectRow(int start, int end) {
+            rejectedRows++;
+            if (errors.size() < IngestionReport.MAX_ERRORS) {
+                String row = decode(start, Math.min(end, start + 80));
+                errors.add("Invalid row at byte " + (fileOffset + start) + ": " + row);
+            }
+        }
+
+        // EFFECTS: returns the index of the first byte in bytes[start, end) that is not a space or tab
+        private int firstNonBlank(int start, int end) {
+            int i = start;
+            while (i < end && (bytes.get(i) == ' ' || bytes.get(i) == '\t')) {
+                i++;
+            }
+            return i;
+        }
+
+        // EFFECTS: returns true if bytes[start, end) holds only spaces and tabs
+        private boolean isBlank(int start, int end) {
+            return firstNonBlank(start, end) == end;
+        }
+
+        // EFFECTS: decodes bytes[start, end) as UTF-8
+        private String decode(int start, int end) {
+            byte[] text = new byte[end - start];
+            for (int i = start; i < end; i++) {
+                text[i - start] = bytes.get(i);
+            }
+            return new String(text, StandardCharsets.UTF_8);
+        }
+    }
+}
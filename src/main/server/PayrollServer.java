@@ -0,0 +1,337 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exceptions.EmployeeDoesNotExistException;
+import exceptions.InvalidCommandException;
+import model.ConcurrentEmployeeList;
+import model.Employee;
+import model.EmployeeList;
+import model.EmployeeListener;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import persistence.Journal;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// An HTTP server that lets other tools look up, list, record work for, pay and save the employees in a list,
+// with every response in JSON:
+//     GET  /employees?offset=0&limit=50   a page of employees in list order, with the total count
+//     GET  /employees/NAME                one employee
+//     POST /employees/NAME/work           records {"time": N} hours, or days if salaried, worked
+//     POST /employees/NAME/pay            pays out what the employee is owed
+//     POST /save                          saves the list to file
+// The server only listens on the loopback address, as it has no authentication. Each request is handled on a
+// virtual thread where the JVM has them, and otherwise on a fixed pool of threads, so thousands of requests can
+// be in flight at once; responses always give their length, so clients can keep connections alive.
+// The list is a concurrent one, so requests read and change it without waiting for each other. Every change is
+// journaled as it is made, and a save copies the list and checkpoints the journal while changes are held off for
+// a moment, then writes the file while they carry on, as the GUI's autosave does.
+public class PayrollServer {
+    private static final int BACKLOG = 1024;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int POOL_THREADS_PER_CPU = 16;
+
+    private ConcurrentEmployeeList employeeList;
+    private String source;
+    private Journal journal;
+    private JsonWriter jsonWriter;
+    private ReadWriteLock changeLock;
+    private Object saveLock;
+    private HttpServer httpServer;
+    private ExecutorService requestExecutor;
+
+    // EFFECTS: constructs a server over employeeList that saves it to source and journals its changes next to it
+    public PayrollServer(ConcurrentEmployeeList employeeList, String source) {
+        this.employeeList = employeeList;
+        this.source = source;
+        this.journal = new Journal(source);
+        this.jsonWriter = new JsonWriter(source, JsonWriter.SaveMode.ATOMIC_WITH_BACKUP);
+        this.changeLock = new ReentrantReadWriteLock();
+        this.saveLock = new Object();
+    }
+
+    // EFFECTS: reads the employees in source and replays its journal on top of them into a new concurrent list
+    //          and returns it; a file that does not exist yet loads as an empty list;
+    //          throws IOException if the file or its journal cannot be read
+    public static ConcurrentEmployeeList load(String source) throws IOException {
+        List<Employee> employees = new ArrayList<Employee>();
+        JsonReader jsonReader = new JsonReader(source);
+        try {
+            jsonReader.readEmployees(employees::add);
+        } catch (NoSuchFileException noSuchFileException) {
+            // Nothing saved yet
+        }
+        ConcurrentEmployeeList loaded = new ConcurrentEmployeeList();
+        loaded.addAllEmployees(employees);
+        jsonReader.replayJournal(loaded);
+        return loaded;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts journaling changes and serving requests on port of the loopback address, or on a free port
+    //          if port is 0; throws IOException if the journal cannot be opened or the port cannot be bound
+    public void start(int port) throws IOException {
+        journal.open();
+        employeeList.addListener(journal, EmployeeListener.Delivery.BATCHED);
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        httpServer.createContext("/employees", this::handleEmployees);
+        httpServer.createContext("/save", this::handleSave);
+        requestExecutor = newRequestExecutor();
+        httpServer.setExecutor(requestExecutor);
+        httpServer.start();
+    }
+
+    // EFFECTS: returns the port the server is listening on
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops accepting requests, waits up to delaySeconds for those in progress to finish, then stops
+    //          journaling; changes not yet saved stay in the journal
+    public void stop(int delaySeconds) throws IOException {
+        httpServer.stop(delaySeconds);
+        requestExecutor.shutdown();
+        try {
+            requestExecutor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        employeeList.removeListener(journal);
+        journal.close();
+    }
+
+    // EFFECTS: returns an executor that runs each task on a new virtual thread if this JVM has them, otherwise
+    //          one that runs tasks on a fixed pool of threads
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException noVirtualThreads) {
+            int threads = Runtime.getRuntime().availableProcessors() * POOL_THREADS_PER_CPU;
+            return Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "Payzilla http");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // EFFECTS: answers a request under /employees
+    private void handleEmployees(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath().substring("/employees".length());
+        String[] parts = path.split("/", -1);
+        try {
+            if (path.isEmpty() || path.equals("/")) {
+                expectMethod(exchange, "GET");
+                send(exchange, 200, listEmployees(exchange));
+            } else if (parts.length == 2 && parts[0].isEmpty()) {
+                expectMethod(exchange, "GET");
+                send(exchange, 200, employeeList.getEmployee(parts[1]).toJson());
+            } else if (parts.length == 3 && parts[0].isEmpty() && parts[2].equals("work")) {
+                expectMethod(exchange, "POST");
+                sendChange(exchange, recordWork(exchange, employeeList.getEmployee(parts[1])));
+            } else if (parts.length == 3 && parts[0].isEmpty() && parts[2].equals("pay")) {
+                expectMethod(exchange, "POST");
+                sendChange(exchange, payEmployee(employeeList.getEmployee(parts[1])));
+            } else {
+                sendError(exchange, 404, "No such resource: " + exchange.getRequestURI().getPath());
+            }
+        } catch (EmployeeDoesNotExistException e) {
+            sendError(exchange, 404, "No such employee exists in the system");
+        } catch (InvalidCommandException e) {
+            sendError(exchange, 400, e.getMessage());
+        }
+    }
+
+    // EFFECTS: answers a request that changed an employee with result, or with an error if the change could not
+    //          be journaled, since it is then lost if the server stops before the list is next saved
+    private void sendChange(HttpExchange exchange, JSONObject result) throws IOException {
+        try {
+            journal.checkAppended();
+        } catch (IOException e) {
+            sendError(exchange, 500, "Change made but not journaled; save to keep it: " + e.getMessage());
+            return;
+        }
+        send(exchange, 200, result);
+    }
+
+    // EFFECTS: saves the list to file and answers with the number of employees saved
+    private void handleSave(HttpExchange exchange) throws IOException {
+        try {
+            expectMethod(exchange, "POST");
+            JSONObject result = new JSONObject();
+            result.put("employees", save());
+            result.put("file", source);
+            send(exchange, 200, result);
+        } catch (InvalidCommandException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IOException e) {
+            sendError(exchange, 500, "Unable to write to file: " + source);
+        }
+    }
+
+    // EFFECTS: returns the page of employees asked for by the offset and limit in the request's query, and the
+    //          total number of employees; the page is taken from the list as it was when the request arrived
+    private JSONObject listEmployees(HttpExchange exchange) throws InvalidCommandException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int offset = parseNumber(query, "offset", 0);
+        int limit = Math.min(parseNumber(query, "limit", DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+        List<Employee> employees = employeeList.getAllEmployees();
+        int start = Math.min(offset, employees.size());
+        JSONArray page = new JSONArray();
+        for (Employee employee : employees.subList(start, start + Math.min(limit, employees.size() - start))) {
+            page.put(employee.toJson());
+        }
+        JSONObject result = new JSONObject();
+        result.put("total", employees.size());
+        result.put("offset", offset);
+        result.put("employees", page);
+        return result;
+    }
+
+    // MODIFIES: employee
+    // EFFECTS: records the time worked given in the request body for employee and returns the employee
+    private JSONObject recordWork(HttpExchange exchange, Employee employee) throws InvalidCommandException {
+        int timeWorked;
+        try {
+            timeWorked = new JSONObject(new JSONTokener(exchange.getRequestBody())).getInt("time");
+        } catch (JSONException e) {
+            throw new InvalidCommandException("Body must be a JSON object with a whole number \"time\"");
+        }
+        changeLock.readLock().lock();
+        try {
+            employee.recordWorkAmount(timeWorked);
+        } finally {
+            changeLock.readLock().unlock();
+        }
+        return employee.toJson();
+    }
+
+    // MODIFIES: employee
+    // EFFECTS: pays out what employee is owed and returns the amount paid and the employee
+    private JSONObject payEmployee(Employee employee) {
+        JSONObject result = new JSONObject();
+        changeLock.readLock().lock();
+        try {
+            result.put("paid", employee.payEmployee());
+        } finally {
+            changeLock.readLock().unlock();
+        }
+        result.put("employee", employee.toJson());
+        return result;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the list to file, one save at a time, and returns the number of employees saved; the list is
+    //          copied and the journal checkpointed with changes held off, so the file holds a state the list was
+    //          really in and the changes made while it is written stay in the journal;
+    //          throws IOException if the file cannot be written
+    private int save() throws IOException {
+        synchronized (saveLock) {
+            EmployeeList copy;
+            changeLock.writeLock().lock();
+            try {
+                copy = employeeList.copy();
+                journal.checkpoint();
+            } finally {
+                changeLock.writeLock().unlock();
+            }
+            try {
+                jsonWriter.open();
+                jsonWriter.write(copy);
+                jsonWriter.close();
+                journal.commit();
+            } catch (IOException e) {
+                journal.abort();
+                throw e;
+            }
+            return copy.getEmployeeCount();
+        }
+    }
+
+    // EFFECTS: throws InvalidCommandException unless the request uses method
+    private static void expectMethod(HttpExchange exchange, String method) throws InvalidCommandException {
+        if (!exchange.getRequestMethod().equalsIgnoreCase(method)) {
+            throw new InvalidCommandException("Use " + method + " for " + exchange.getRequestURI().getPath());
+        }
+    }
+
+    // EFFECTS: returns the decoded names and values in rawQuery, which may be null
+    private static Map<String, String> parseQuery(String rawQuery) throws InvalidCommandException {
+        Map<String, String> query = new HashMap<String, String>();
+        if (rawQuery == null) {
+            return query;
+        }
+        try {
+            for (String pair : rawQuery.split("&")) {
+                int equals = pair.indexOf('=');
+                String name = equals < 0 ? pair : pair.substring(0, equals);
+                String value = equals < 0 ? "" : pair.substring(equals + 1);
+                query.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+            }
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            throw new InvalidCommandException("Malformed query: " + rawQuery);
+        }
+        return query;
+    }
+
+    // EFFECTS: returns the value of name in query as a whole number of at least 0, or fallback if it is not
+    //          there; throws InvalidCommandException if it is not such a number
+    private static int parseNumber(Map<String, String> query, String name, int fallback)
+            throws InvalidCommandException {
+        String value = query.get(name);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number >= 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new InvalidCommandException(name + " must be a whole number of at least 0: " + value);
+    }
+
+    // EFFECTS: answers the request with status and an object holding message as its error
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JSONObject error = new JSONObject();
+        error.put("error", message);
+        send(exchange, status, error);
+    }
+
+    // EFFECTS: answers the request with status and body, giving the length of the body so the connection can be
+    //          kept alive for the client's next request
+    private static void send(HttpExchange exchange, int status, JSONObject body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+        exchange.close();
+    }
+}
@@ -0,0 +1,230 @@
+package ui;
+
+import model.Employee;
+import model.EmployeeList;
+import model.EmployeeEvent;
+import model.EmployeeListener;
+
+import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// A list model that shows the names of the employees in an employee list, reading the list in place rather
+// than copying it. It observes the list and fires only the events for the rows that actually changed, so a
+// JList showing hundreds of thousands of employees stays responsive while they are edited.
+// Changes made on other threads are shown by one coalesced refresh on the event dispatch thread, and a batch
+// of employees added one after another, such as a chunk of a file being loaded, is shown with one event.
+// With a filter set, only the employees whose names start with the filter are shown, found through the list's
+// name prefix index and found again whenever an employee is added, deleted or renamed.
+// The row of a renamed employee is found in a lookup from employee to row, built from the list the first time a
+// rename needs it and kept up to date as employees are added to the end; a deletion drops it, since every row
+// after the deleted one moves up.
+public class EmployeeListModel extends AbstractListModel<String> implements EmployeeListener {
+    private static final long serialVersionUID = 1L;
+    private EmployeeList employeeList;
+    private String filter;
+    private List<Employee> matches;
+    private int shownSize;
+    private Map<Employee, Integer> rows;
+    private volatile boolean refreshPending;
+
+    // EFFECTS: constructs a model showing no employees
+    public EmployeeListModel() {
+        filter = "";
+        shownSize = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the employees of employeeList instead of those of the previous list, which is no longer
+    //          observed; employeeList may be null to show no employees
+    public void setEmployeeList(EmployeeList employeeList) {
+        if (this.employeeList != null) {
+            this.employeeList.removeListener(this);
+        }
+        this.employeeList = employeeList;
+        if (employeeList != null) {
+            employeeList.addListener(this, EmployeeListener.Delivery.BATCHED);
+        }
+        refresh();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows only the employees whose names start with prefix, ignoring case, in alphabetical order;
+    //          an empty prefix shows every employee in list order
+    public void setFilter(String prefix) {
+        filter = prefix;
+        refresh();
+    }
+
+    // EFFECTS: returns the number of employees shown
+    @Override
+    public int getSize() {
+        return shownSize;
+    }
+
+    // EFFECTS: returns the name of the employee at index
+    @Override
+    public String getElementAt(int index) {
+        return getEmployeeAt(index).getName();
+    }
+
+    // EFFECTS: returns the employee at index;
+    //          throws ArrayIndexOutOfBoundsException if no employee is shown at index
+    public Employee getEmployeeAt(int index) {
+        List<Employee> shown = matches != null ? matches : employeeList.getAllEmployees();
+        if (index < 0 || index >= shownSize || index >= shown.size()) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return shown.get(index);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: fires the list data event matching an added, deleted or renamed employee, or finds the matches
+    //          again if a filter is set; other changes do not affect the names shown
+    @Override
+    public void employeeChanged(EmployeeEvent event) {
+        EmployeeEvent.Type type = event.getType();
+        if (!changesNames(event) || !onEventDispatchThread()) {
+            return;
+        }
+        if (matches != null) {
+            refresh();
+        } else if (type == EmployeeEvent.Type.ADDED) {
+            addRow(event);
+            fireIntervalAdded(this, event.getIndex(), event.getIndex());
+        } else if (type == EmployeeEvent.Type.DELETED) {
+            shownSize--;
+            rows = null;
+            fireIntervalRemoved(this, event.getIndex(), event.getIndex());
+        } else {
+            int row = rowOf(event.getEmployee());
+            if (row >= 0) {
+                fireContentsChanged(this, row, row);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: fires the list data events matching a batch of changes, with one event for each run of employees
+    //          added at consecutive indexes
+    @Override
+    public void employeesChanged(List<EmployeeEvent> events) {
+        if (matches != null) {
+            refreshIfNamesChanged(events);
+            return;
+        }
+        int start = 0;
+        while (start < events.size()) {
+            int end = start + 1;
+            while (end < events.size() && isNextAdded(events.get(end - 1), events.get(end))) {
+                end++;
+            }
+            if (end - start == 1) {
+                employeeChanged(events.get(start));
+            } else if (onEventDispatchThread()) {
+                for (int i = start; i < end; i++) {
+                    addRow(events.get(i));
+                }
+                fireIntervalAdded(this, events.get(start).getIndex(), events.get(end - 1).getIndex());
+            }
+            start = end;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finds the matches for the filter again if any of events added, deleted or renamed an employee
+    private void refreshIfNamesChanged(List<EmployeeEvent> events) {
+        for (EmployeeEvent event : events) {
+            if (changesNames(event)) {
+                if (onEventDispatchThread()) {
+                    refresh();
+                }
+                return;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows one more row, for the employee added by event, keeping the lookup of rows if the employee
+    //          was added at the end and dropping it otherwise
+    private void addRow(EmployeeEvent event) {
+        if (rows != null && event.getIndex() == shownSize) {
+            rows.put(event.getEmployee(), shownSize);
+        } else {
+            rows = null;
+        }
+        shownSize++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the row showing employee, or -1 if it is not shown, building the lookup of rows from the
+    //          list if there is none
+    private int rowOf(Employee employee) {
+        if (rows == null) {
+            rows = new IdentityHashMap<Employee, Integer>();
+            List<Employee> shown = employeeList.getAllEmployees();
+            for (int row = 0; row < shownSize && row < shown.size(); row++) {
+                rows.put(shown.get(row), row);
+            }
+        }
+        Integer row = rows.get(employee);
+        return row == null ? -1 : row;
+    }
+
+    // EFFECTS: returns true if event added, deleted or renamed an employee
+    private boolean changesNames(EmployeeEvent event) {
+        EmployeeEvent.Type type = event.getType();
+        return type == EmployeeEvent.Type.ADDED || type == EmployeeEvent.Type.DELETED
+                || type == EmployeeEvent.Type.RENAMED;
+    }
+
+    // EFFECTS: returns true if previous and next both added an employee, next at the index after previous
+    private boolean isNextAdded(EmployeeEvent previous, EmployeeEvent next) {
+        return previous.getType() == EmployeeEvent.Type.ADDED && next.getType() == EmployeeEvent.Type.ADDED
+                && next.getIndex() == previous.getIndex() + 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if called on the event dispatch thread; otherwise schedules a refresh of every row
+    //          on the event dispatch thread, unless one is already pending, and returns false
+    private boolean onEventDispatchThread() {
+        if (SwingUtilities.isEventDispatchThread() && !refreshPending) {
+            return true;
+        }
+        synchronized (this) {
+            if (!refreshPending) {
+                refreshPending = true;
+                SwingUtilities.invokeLater(this::refresh);
+            }
+        }
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows every employee in the list as it is now, or every one matching the filter
+    private void refresh() {
+        synchronized (this) {
+            refreshPending = false;
+        }
+        int oldSize = shownSize;
+        rows = null;
+        if (employeeList == null) {
+            matches = null;
+            shownSize = 0;
+        } else if (filter.isEmpty()) {
+            matches = null;
+            shownSize = employeeList.getEmployeeCount();
+        } else {
+            matches = employeeList.searchByName(filter, Integer.MAX_VALUE);
+            shownSize = matches.size();
+        }
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (shownSize > 0) {
+            fireIntervalAdded(this, 0, shownSize - 1);
+        }
+    }
+}
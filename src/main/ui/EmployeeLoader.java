@@ -0,0 +1,145 @@
+package ui;
+
+import exceptions.DuplicateEmployeeException;
+import metrics.PayrollMetrics;
+import model.Employee;
+import model.EmployeeList;
+import persistence.AutoSaver;
+import persistence.JsonReader;
+
+import javax.swing.SwingWorker;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+// Loads an employee list from file on a background thread and hands the employees to the event dispatch thread
+// in chunks as they are parsed, so the window stays usable, and shows the employees read so far, while a large
+// file loads. Progress is reported as the percentage of the file read. The list being filled is only changed on
+// the event dispatch thread, and the file's journal is replayed on top of it once every employee has been read.
+// Reading starts only once any save the autosaver had started has finished, and that wait is on the background
+// thread too.
+public class EmployeeLoader extends SwingWorker<Void, Employee> {
+
+    // Told how loading ended, on the event dispatch thread
+    public interface LoadListener {
+        // EFFECTS: called once every employee and the journal have been loaded into employeeList
+        void loadFinished(EmployeeList employeeList);
+
+        // EFFECTS: called if loading was cancelled or failed; message says which
+        void loadStopped(String message);
+    }
+
+    private JsonReader jsonReader;
+    private String source;
+    private EmployeeList employeeList;
+    private LoadListener loadListener;
+    private AutoSaver autoSaver;
+    private volatile long sourceSize;
+
+    // EFFECTS: constructs a loader that reads the employees in source into employeeList, once autoSaver has
+    //          finished any save it started, and tells loadListener how loading ended
+    public EmployeeLoader(String source, EmployeeList employeeList, AutoSaver autoSaver, LoadListener loadListener) {
+        this.jsonReader = new JsonReader(source);
+        this.source = source;
+        this.employeeList = employeeList;
+        this.autoSaver = autoSaver;
+        this.loadListener = loadListener;
+    }
+
+    // EFFECTS: waits for a save in progress to finish, then streams the employees from file, publishing each one
+    //          and the progress made; stops early if cancelled
+    @Override
+    protected Void doInBackground() throws IOException {
+        autoSaver.awaitSaves();
+        sourceSize = new File(source).length();
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            jsonReader.readEmployees(this::publishEmployee, this::publishProgress);
+            succeeded = true;
+        } finally {
+            PayrollMetrics.getInstance().recordLoad(start, succeeded ? sourceSize : 0, succeeded);
+        }
+        return null;
+    }
+
+    // EFFECTS: hands employee to the event dispatch thread; throws CancellationException if cancelled
+    private void publishEmployee(Employee employee) {
+        if (isCancelled()) {
+            throw new CancellationException();
+        }
+        publish(employee);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the progress to the percentage of the file read
+    private void publishProgress(long bytesRead) {
+        if (sourceSize > 0) {
+            setProgress((int) Math.min(100, bytesRead * 100 / sourceSize));
+        }
+    }
+
+    // MODIFIES: employeeList
+    // EFFECTS: adds a chunk of parsed employees to employeeList in one batch, skipping duplicates;
+    //          does nothing if cancelled
+    @Override
+    protected void process(List<Employee> employees) {
+        if (isCancelled()) {
+            return;
+        }
+        employeeList.beginBatch();
+        try {
+            for (Employee employee : employees) {
+                addEmployee(employee);
+            }
+        } finally {
+            employeeList.endBatch();
+        }
+    }
+
+    // MODIFIES: employeeList
+    // EFFECTS: adds employee to employeeList, skipping it if an employee with the same name was already read
+    private void addEmployee(Employee employee) {
+        try {
+            employeeList.addEmployee(employee);
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            // Skip adding duplicate employee
+        }
+    }
+
+    // MODIFIES: employeeList
+    // EFFECTS: replays the journal on top of employeeList and tells the load listener how loading ended;
+    //          a file that does not exist yet loads as an empty list
+    @Override
+    protected void done() {
+        if (isCancelled()) {
+            loadListener.loadStopped("Loading cancelled");
+            return;
+        }
+        try {
+            if (!fileRead()) {
+                loadListener.loadStopped("Unable to read from file: " + source);
+                return;
+            }
+            jsonReader.replayJournal(employeeList);
+            loadListener.loadFinished(employeeList);
+        } catch (IOException e) {
+            loadListener.loadStopped("Unable to read journal for: " + source);
+        } catch (InterruptedException e) {
+            loadListener.loadStopped("Loading interrupted");
+        }
+    }
+
+    // EFFECTS: returns true if every employee in the file was read, or the file does not exist yet
+    private boolean fileRead() throws InterruptedException {
+        try {
+            get();
+            return true;
+        } catch (ExecutionException e) {
+            return e.getCause() instanceof NoSuchFileException;
+        }
+    }
+}
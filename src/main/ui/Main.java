@@ -1,7 +1,80 @@
 package ui;
 
+import server.PayrollServer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
 public class Main {
+    private static final String JSON_STORE = "./data/employees.json";
+    private static final int DEFAULT_PORT = 8080;
+
+    // EFFECTS: opens the GUI, or with --batch [FILE] runs the commands in FILE, or on standard input, without a
+    //          window and exits with status 1 if any command failed, or 2 if the commands could not be read,
+    //          or with --server [PORT] serves the employee list over HTTP on PORT of the loopback address
     public static void main(String[] args) {
-        new PayrollAppGUI();
+        if (args.length > 0 && args[0].equals("--batch")) {
+            System.exit(runBatch(args.length > 1 ? args[1] : null));
+        } else if (args.length > 0 && args[0].equals("--server")) {
+            runServer(args.length > 1 ? parsePort(args[1]) : DEFAULT_PORT);
+        } else {
+            new PayrollAppGUI();
+        }
+    }
+
+    // EFFECTS: returns port as a port number; prints usage and exits with status 2 if it is not one
+    private static int parsePort(String port) {
+        try {
+            int number = Integer.parseInt(port);
+            if (number >= 0 && number <= 65535) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        System.err.println("Not a port number: " + port);
+        System.err.println("Usage: --server [PORT], where PORT is 0 to 65535 (8080 by default)");
+        System.exit(2);
+        return DEFAULT_PORT;
+    }
+
+    // EFFECTS: loads the employee list and serves it over HTTP on port until the process is stopped
+    private static void runServer(int port) {
+        try {
+            PayrollServer server = new PayrollServer(PayrollServer.load(JSON_STORE), JSON_STORE);
+            server.start(port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.stop(1);
+                } catch (IOException e) {
+                    System.err.println("Unable to close journal for: " + JSON_STORE);
+                }
+            }));
+            System.out.println("Serving " + JSON_STORE + " at http://localhost:" + server.getPort() + "/employees");
+        } catch (IOException e) {
+            System.err.println("Unable to start server: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    // EFFECTS: runs the commands in file, or on standard input if file is null, writing the results to standard
+    //          output, and returns the exit status
+    private static int runBatch(String file) {
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try (BufferedReader input = file == null
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            return new PayrollAppBatch().run(input, output) == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("Unable to run commands: " + e.getMessage());
+            return 2;
+        }
     }
 }
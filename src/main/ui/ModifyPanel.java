@@ -1,17 +1,20 @@
 package ui;
 
+import exceptions.DuplicateEmployeeException;
 import model.Employee;
 import model.EmployeeList;
 
 import javax.swing.*;
 import java.awt.*;
 import java.text.NumberFormat;
+import java.util.concurrent.locks.Lock;
 
 // Represents a panel that allows employees to modify selected employees
 public class ModifyPanel extends JPanel {
 
     private Employee selectedEmployee;
     private EmployeeList employeeList;
+    private Lock listLock;
 
     private JTextField employeeNameField;
     private JComboBox employeeHourlyField;
@@ -19,10 +22,13 @@ public class ModifyPanel extends JPanel {
 
     private String[] hourlyTypes = {"Hourly", "Salary"};
 
-    public ModifyPanel(Employee employee, EmployeeList employeeList) {
+    // EFFECTS: asks the user for new details of employee and changes it while holding listLock, the lock held by
+    //          every change to employeeList
+    public ModifyPanel(Employee employee, EmployeeList employeeList, Lock listLock) {
         super(new GridLayout(0, 1));
         this.selectedEmployee = employee;
         this.employeeList = employeeList;
+        this.listLock = listLock;
 
         initializeFields();
         initializePanel();
@@ -70,17 +76,15 @@ public class ModifyPanel extends JPanel {
     // EFFECTS: If user presses OK, the selected employee will be modified with new fields
     private void modifyEmployee() {
         String hourlyStatusSelection = (String) employeeHourlyField.getSelectedItem();
-        String newEmployeeName = employeeNameField.getText();
         boolean hourlyStatus = hourlyStatusSelection.equals("Hourly") ? true : false;
-        int newEmployeeWage = (Integer) employeeWageField.getValue();
-        Employee employeeToModify = new Employee(newEmployeeName, hourlyStatus, newEmployeeWage);
-        boolean nameTaken = selectedEmployee.getName().equals(employeeNameField.getText());
-        boolean listContainsEmployee = employeeList.contains(employeeToModify);
-        if (!nameTaken && listContainsEmployee) {
-            JOptionPane.showMessageDialog(new JPanel(), "ERROR: Employee with same name already exists");
-        } else {
+        listLock.lock();
+        try {
             selectedEmployee.reset(employeeNameField.getText(), hourlyStatus,
                     (Integer) employeeWageField.getValue());
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            JOptionPane.showMessageDialog(new JPanel(), "ERROR: Employee with same name already exists");
+        } finally {
+            listLock.unlock();
         }
     }
 }
@@ -0,0 +1,439 @@
+package ui;
+
+import exceptions.DuplicateEmployeeException;
+import exceptions.EmployeeDoesNotExistException;
+import exceptions.InvalidCommandException;
+import model.Employee;
+import model.EmployeeList;
+import model.EmployeeListener;
+import model.PayRun;
+import org.json.JSONObject;
+import persistence.CompanyRegistry;
+import persistence.Journal;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs payroll commands without menus or prompts, for nightly jobs and scripts. Commands are read one per line
+// from a command file or standard input, and the result of each one is written as one JSON object per line, in
+// order, so another program can read the results line by line. Output is buffered and flushed only once every
+// command read so far has run, so a command file runs without waiting on the output, while a program feeding
+// commands one at a time still gets each result as soon as it is ready.
+//
+// A line holds a command and its arguments separated by spaces; an argument holding spaces goes in double quotes.
+// Blank lines and lines starting with # are skipped. The commands are:
+//     add NAME hourly|salaried WAGE       record NAME TIME       load [FILE]
+//     delete NAME                         pay NAME               save [FILE]
+//     modify NAME name|wage|status [NEW]  payall                 summary
+//     company NAME
+// As in the console, every change made after a load or save is journaled next to the file loaded or saved.
+// save with no file saves to the file last loaded or saved, and is refused if there is none, so a script that
+// never loaded anything cannot overwrite the saved employee list by mistake.
+// After company NAME, the commands that follow work on that company's list, kept in its own file in
+// COMPANIES_DIRECTORY and journaled there, and save with no file saves it; load goes back to a single list.
+public class PayrollAppBatch {
+    private static final String JSON_STORE = "./data/employees.json";
+    private static final String COMPANIES_DIRECTORY = "./data/companies";
+    private static final long COMPANY_IDLE_MILLIS = 60 * 1000;
+
+    private String companiesDirectory;
+    private EmployeeList employeeList;
+    private String source;
+    private Journal journal;
+    private CompanyRegistry registry;
+    private String company;
+
+    // EFFECTS: constructs a batch runner starting with an empty employee list
+    public PayrollAppBatch() {
+        this(COMPANIES_DIRECTORY);
+    }
+
+    // EFFECTS: constructs a batch runner starting with an empty employee list that keeps the lists of companies
+    //          in companiesDirectory
+    public PayrollAppBatch(String companiesDirectory) {
+        this.companiesDirectory = companiesDirectory;
+        employeeList = new EmployeeList();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs every command read from input in order, writing the result of each to output, and returns
+    //          the number of commands that failed; a failed command does not stop the ones after it;
+    //          throws IOException if input cannot be read or output cannot be written
+    public int run(BufferedReader input, Writer output) throws IOException {
+        int failedCount = 0;
+        int lineNumber = 0;
+        String line;
+        try {
+            while ((line = input.readLine()) != null) {
+                lineNumber++;
+                JSONObject result = runLine(lineNumber, line);
+                if (result != null) {
+                    failedCount += result.getBoolean("ok") ? 0 : 1;
+                    output.write(result.toString());
+                    output.write('\n');
+                }
+                if (!input.ready()) {
+                    output.flush();
+                }
+            }
+        } finally {
+            output.flush();
+            closeJournal();
+            closeRegistry();
+        }
+        return failedCount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs the command on line and returns its result, or null if the line is blank or a comment
+    private JSONObject runLine(int lineNumber, String line) {
+        if (line.trim().isEmpty() || line.trim().startsWith("#")) {
+            return null;
+        }
+        JSONObject result = new JSONObject();
+        result.put("line", lineNumber);
+        try {
+            List<String> words = split(line);
+            result.put("command", words.get(0));
+            runCommand(words.get(0).toLowerCase(), words.subList(1, words.size()), result);
+            checkJournal();
+            result.put("ok", true);
+        } catch (InvalidCommandException e) {
+            fail(result, e.getMessage());
+        } catch (EmployeeDoesNotExistException e) {
+            fail(result, "No such employee exists in the system");
+        } catch (DuplicateEmployeeException e) {
+            fail(result, "Another employee with the same name already exists");
+        } catch (IOException e) {
+            fail(result, "Unable to use file: " + e.getMessage());
+        }
+        return result;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs command with args, adding what it did to result
+    private void runCommand(String command, List<String> args, JSONObject result) throws InvalidCommandException,
+            EmployeeDoesNotExistException, DuplicateEmployeeException, IOException {
+        if (command.equals("add")) {
+            addEmployee(args, result);
+        } else if (command.equals("delete")) {
+            deleteEmployee(args, result);
+        } else if (command.equals("modify")) {
+            modifyEmployee(args, result);
+        } else if (command.equals("record")) {
+            recordWork(args, result);
+        } else if (command.equals("pay")) {
+            payEmployee(args, result);
+        } else if (command.equals("payall")) {
+            payAllEmployees(args, result);
+        } else {
+            runListCommand(command, args, result);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs a command that works on the list as a whole with args, adding what it did to result
+    private void runListCommand(String command, List<String> args, JSONObject result)
+            throws InvalidCommandException, IOException {
+        if (command.equals("save")) {
+            saveEmployeeList(args, result);
+        } else if (command.equals("load")) {
+            loadEmployeeList(args, result);
+        } else if (command.equals("summary")) {
+            summarize(args, result);
+        } else if (command.equals("company")) {
+            useCompany(args, result);
+        } else {
+            throw new InvalidCommandException("Unknown command: " + command);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the employee described by args to the employee list
+    private void addEmployee(List<String> args, JSONObject result) throws InvalidCommandException,
+            DuplicateEmployeeException {
+        expectArgs(args, 3, "add NAME hourly|salaried WAGE");
+        Employee employee = new Employee(args.get(0), parseHourlyStatus(args.get(1)), parseWage(args.get(2)));
+        employeeList.addEmployee(employee);
+        result.put("employee", employee.toJson());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the employee named by args from the employee list
+    private void deleteEmployee(List<String> args, JSONObject result) throws InvalidCommandException,
+            EmployeeDoesNotExistException {
+        expectArgs(args, 1, "delete NAME");
+        Employee employee = employeeList.getEmployee(args.get(0));
+        employeeList.deleteEmployee(employee);
+        result.put("employee", employee.toJson());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: renames the employee named by args, changes their wage, or switches them between hourly and
+    //          salaried
+    private void modifyEmployee(List<String> args, JSONObject result) throws InvalidCommandException,
+            EmployeeDoesNotExistException, DuplicateEmployeeException {
+        String usage = "modify NAME name NEW_NAME | modify NAME wage WAGE | modify NAME status";
+        String field = args.size() >= 2 ? args.get(1).toLowerCase() : "";
+        expectArgs(args, field.equals("status") ? 2 : 3, usage);
+        Employee employee = employeeList.getEmployee(args.get(0));
+        if (field.equals("name")) {
+            employee.changeName(args.get(2));
+        } else if (field.equals("wage")) {
+            employee.changeWage(parseWage(args.get(2)));
+        } else if (field.equals("status")) {
+            employee.changeHourlyStatus();
+        } else {
+            throw new InvalidCommandException("Usage: " + usage);
+        }
+        result.put("employee", employee.toJson());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the hours, or for a salaried employee the days, worked by the employee named by args
+    private void recordWork(List<String> args, JSONObject result) throws InvalidCommandException,
+            EmployeeDoesNotExistException {
+        expectArgs(args, 2, "record NAME TIME");
+        Employee employee = employeeList.getEmployee(args.get(0));
+        employee.recordWorkAmount(parseNumber(args.get(1), "Time worked"));
+        result.put("employee", employee.toJson());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: pays out the money owned to the employee named by args
+    private void payEmployee(List<String> args, JSONObject result) throws InvalidCommandException,
+            EmployeeDoesNotExistException {
+        expectArgs(args, 1, "pay NAME");
+        Employee employee = employeeList.getEmployee(args.get(0));
+        result.put("paid", employee.payEmployee());
+        result.put("employee", employee.toJson());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: pays out the money owned to every employee in one pay run
+    private void payAllEmployees(List<String> args, JSONObject result) throws InvalidCommandException {
+        expectArgs(args, 0, "payall");
+        PayRun payRun = employeeList.payAll();
+        result.put("employeesPaid", payRun.getEmployeesPaidCount());
+        result.put("paid", payRun.getTotalPaid());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the employee list to the file named by args, or to the file last loaded or saved, and
+    //          journals every further change next to that file; throws InvalidCommandException if no file is
+    //          named and none has been loaded or saved
+    private void saveEmployeeList(List<String> args, JSONObject result) throws InvalidCommandException,
+            IOException {
+        if (company != null && args.isEmpty()) {
+            saveCompany(result);
+            return;
+        }
+        if (args.isEmpty() && source == null) {
+            throw new InvalidCommandException("Nothing has been loaded to save back; use save FILE");
+        }
+        String file = args.isEmpty() ? source : fileArgument(args, "save [FILE]");
+        JsonWriter jsonWriter = new JsonWriter(file, JsonWriter.SaveMode.ATOMIC_WITH_BACKUP);
+        jsonWriter.open();
+        jsonWriter.write(employeeList);
+        jsonWriter.close();
+        attachJournal(file).clear();
+        source = file;
+        result.put("file", file);
+        result.put("employees", employeeList.getEmployeeCount());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads the employee list from the file named by args, or from JSON_STORE, along with the changes
+    //          in its journal, and journals every further change next to that file
+    private void loadEmployeeList(List<String> args, JSONObject result) throws InvalidCommandException,
+            IOException {
+        String file = fileArgument(args, "load [FILE]");
+        EmployeeList loaded = new JsonReader(file).read();
+        closeJournal();
+        releaseCompany();
+        employeeList = loaded;
+        source = file;
+        attachJournal(file);
+        result.put("file", file);
+        result.put("employees", employeeList.getEmployeeCount());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs the commands that follow on the list of the company named by args, loading it from its own
+    //          file in COMPANIES_DIRECTORY if it is not loaded
+    private void useCompany(List<String> args, JSONObject result) throws InvalidCommandException, IOException {
+        expectArgs(args, 1, "company NAME");
+        if (!CompanyRegistry.isCompanyName(args.get(0))) {
+            throw new InvalidCommandException("Company names are letters, digits, - and _: " + args.get(0));
+        }
+        closeJournal();
+        releaseCompany();
+        if (registry == null) {
+            registry = new CompanyRegistry(companiesDirectory, COMPANY_IDLE_MILLIS);
+        }
+        employeeList = registry.lock(args.get(0));
+        company = args.get(0);
+        result.put("company", company);
+        result.put("employees", employeeList.getEmployeeCount());
+    }
+
+    // EFFECTS: saves the list of the company in use to its file
+    private void saveCompany(JSONObject result) throws IOException {
+        registry.save(company);
+        result.put("company", company);
+        result.put("file", registry.getSource(company));
+        result.put("employees", employeeList.getEmployeeCount());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops working on the company in use, if there is one, and starts again with an empty list that
+    //          has not been loaded from any file
+    private void releaseCompany() {
+        if (company != null) {
+            registry.unlock(company);
+            company = null;
+            employeeList = new EmployeeList();
+            source = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops working on the company in use and saves every company changed during the run
+    private void closeRegistry() throws IOException {
+        releaseCompany();
+        if (registry != null) {
+            registry.close();
+            registry = null;
+        }
+    }
+
+    // EFFECTS: adds the number of hourly and salaried employees, the total owed to them and the total paid to
+    //          them to date to result
+    private void summarize(List<String> args, JSONObject result) throws InvalidCommandException {
+        expectArgs(args, 0, "summary");
+        result.put("employees", employeeList.getEmployeeCount());
+        result.put("hourly", employeeList.getHourlyCount());
+        result.put("salaried", employeeList.getSalariedCount());
+        result.put("totalOwed", employeeList.getTotalOwed());
+        result.put("totalPaid", employeeList.getTotalPaid());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops journaling to the current journal, opens the journal next to file and journals every
+    //          further change to the employee list there, and returns it
+    private Journal attachJournal(String file) throws IOException {
+        closeJournal();
+        journal = new Journal(file);
+        journal.open();
+        employeeList.addListener(journal, EmployeeListener.Delivery.BATCHED);
+        return journal;
+    }
+
+    // EFFECTS: throws IOException if a change to the employee list could not be written to its journal and the
+    //          list has not been saved since
+    private void checkJournal() throws IOException {
+        if (journal != null) {
+            journal.checkAppended();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops journaling changes to the employee list, if they are being journaled
+    private void closeJournal() throws IOException {
+        if (journal != null) {
+            employeeList.removeListener(journal);
+            journal.close();
+            journal = null;
+        }
+    }
+
+    // EFFECTS: returns the file named by args, or JSON_STORE if none is named
+    private static String fileArgument(List<String> args, String usage) throws InvalidCommandException {
+        if (args.size() > 1) {
+            throw new InvalidCommandException("Usage: " + usage);
+        }
+        return args.isEmpty() ? JSON_STORE : args.get(0);
+    }
+
+    // EFFECTS: throws InvalidCommandException showing usage unless there are exactly count args
+    private static void expectArgs(List<String> args, int count, String usage) throws InvalidCommandException {
+        if (args.size() != count) {
+            throw new InvalidCommandException("Usage: " + usage);
+        }
+    }
+
+    // EFFECTS: returns true for hourly, false for salaried; throws InvalidCommandException for anything else
+    private static boolean parseHourlyStatus(String word) throws InvalidCommandException {
+        String status = word.toLowerCase();
+        if (status.equals("hourly") || status.equals("h")) {
+            return true;
+        } else if (status.equals("salaried") || status.equals("s")) {
+            return false;
+        }
+        throw new InvalidCommandException("Status must be hourly or salaried: " + word);
+    }
+
+    // EFFECTS: returns word as a wage; throws InvalidCommandException unless it is a whole number above 0
+    private static int parseWage(String word) throws InvalidCommandException {
+        int wage = parseNumber(word, "Wage");
+        if (wage <= 0) {
+            throw new InvalidCommandException("Wage must be more than 0: " + word);
+        }
+        return wage;
+    }
+
+    // EFFECTS: returns word as a whole number; throws InvalidCommandException naming what if it is not one
+    private static int parseNumber(String word, String what) throws InvalidCommandException {
+        try {
+            return Integer.parseInt(word);
+        } catch (NumberFormatException e) {
+            throw new InvalidCommandException(what + " must be a whole number: " + word);
+        }
+    }
+
+    // EFFECTS: returns the words of line, which are separated by spaces unless inside double quotes;
+    //          throws InvalidCommandException if a quote is not closed
+    private static List<String> split(String line) throws InvalidCommandException {
+        List<String> words = new ArrayList<String>();
+        StringBuilder word = new StringBuilder();
+        boolean quoted = false;
+        boolean inWord = false;
+        for (char next : line.toCharArray()) {
+            if (next == '"') {
+                quoted = !quoted;
+                inWord = true;
+            } else if (Character.isWhitespace(next) && !quoted) {
+                addWord(words, word, inWord);
+                inWord = false;
+            } else {
+                word.append(next);
+                inWord = true;
+            }
+        }
+        if (quoted) {
+            throw new InvalidCommandException("Missing closing quote");
+        }
+        addWord(words, word, inWord);
+        return words;
+    }
+
+    // MODIFIES: words, word
+    // EFFECTS: moves word to the end of words if a word has been started
+    private static void addWord(List<String> words, StringBuilder word, boolean inWord) {
+        if (inWord) {
+            words.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    // EFFECTS: marks result as failed with message
+    private static void fail(JSONObject result, String message) {
+        result.put("ok", false);
+        result.put("error", message);
+    }
+}
@@ -2,12 +2,15 @@ package ui;
 
 import exceptions.DuplicateEmployeeException;
 import exceptions.EmployeeDoesNotExistException;
+import metrics.PayrollMetrics;
 import model.Employee;
 import model.EmployeeList;
+import model.EmployeeListener;
+import model.PayRun;
+import persistence.Journal;
 import persistence.JsonReader;
 import persistence.JsonWriter;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
@@ -16,15 +19,19 @@ import java.util.Scanner;
 // Payroll application
 public class PayrollAppConsole {
     private static final String JSON_STORE = "./data/employees.json";
+    private static final int SEARCH_LIMIT = 50;
     protected EmployeeList employeeList;
     private Scanner input;
     private JsonWriter jsonWriter;
     private JsonReader jsonReader;
+    private Journal journal;
 
     // EFFECTS: runs the payroll application
     public PayrollAppConsole() {
-        jsonWriter = new JsonWriter(JSON_STORE);
+        jsonWriter = new JsonWriter(JSON_STORE, JsonWriter.SaveMode.ATOMIC_WITH_BACKUP);
         jsonReader = new JsonReader(JSON_STORE);
+        journal = new Journal(JSON_STORE);
+        PayrollMetrics.getInstance().register();
         runPayrollApp();
     }
 
@@ -45,6 +52,7 @@ public class PayrollAppConsole {
                 keepGoing = false;
             } else {
                 processCommand(command);
+                checkJournal();
             }
         }
 
@@ -60,10 +68,16 @@ public class PayrollAppConsole {
             recordHours();
         } else if (command.equals("p")) {
             payEmployee();
+        } else if (command.equals("a")) {
+            payAllEmployees();
         } else if (command.equals("s")) {
             saveEmployeeList();
         } else if (command.equals("l")) {
             loadEmployeeList();
+        } else if (command.equals("search")) {
+            searchEmployees();
+        } else if (command.equals("summary")) {
+            printSummary();
         } else {
             System.out.println("Selection not valid");
         }
@@ -74,6 +88,7 @@ public class PayrollAppConsole {
     protected void loadEmployeeList() {
         try {
             employeeList = jsonReader.read();
+            attachJournal();
             System.out.println("Successfully loaded employee list from: " + JSON_STORE);
         } catch (IOException e) {
             System.out.println("Unable to read from file: " + JSON_STORE);
@@ -86,12 +101,36 @@ public class PayrollAppConsole {
             jsonWriter.open();
             jsonWriter.write(employeeList);
             jsonWriter.close();
+            journal.clear();
+            attachJournal();
             System.out.println("Successfully saved employee list to: " + JSON_STORE);
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             System.out.println("Unable to write to file: " + JSON_STORE);
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: appends every further change to the employee list to the journal next to JSON_STORE,
+    //          so that changes made since the last save are replayed when the file is next loaded
+    private void attachJournal() {
+        try {
+            journal.open();
+            employeeList.removeListener(journal);
+            employeeList.addListener(journal, EmployeeListener.Delivery.BATCHED);
+        } catch (IOException e) {
+            System.out.println("Unable to open journal for: " + JSON_STORE);
+        }
+    }
+
+    // EFFECTS: tells the user if a change could not be written to the journal since the list was last saved
+    private void checkJournal() {
+        try {
+            journal.checkAppended();
+        } catch (IOException e) {
+            System.out.println("Unable to write to journal for: " + JSON_STORE + "; save to keep your changes");
+        }
+    }
+
     // MODIFIES: this
     // EFFECTS: initializes employee list
     private void init() {
@@ -112,8 +151,11 @@ public class PayrollAppConsole {
         System.out.println("\tm -> modify or view employee list");
         System.out.println("\tr -> record hours worked for an employee");
         System.out.println("\tp -> pay an employee");
+        System.out.println("\ta -> pay all employees");
         System.out.println("\ts -> save employee data to file");
         System.out.println("\tl -> load employee data from file");
+        System.out.println("\tsearch -> find employees by the start of their name");
+        System.out.println("\tsummary -> show payroll totals");
         System.out.println("\tq -> quit");
     }
 
@@ -225,23 +267,55 @@ public class PayrollAppConsole {
             List<Employee> listOfEmployees = employeeList.getAllEmployees();
 
             for (Employee employee : listOfEmployees) {
-                String employeeName = employee.getName();
-                int employeeWage = employee.getWage();
-                int employeeMoneyOwned = employee.getCurrentOwned();
-                boolean employeeHourlyStatus = employee.getHourlyStatus();
-                String currentPay = "";
-
-                if (employeeHourlyStatus) {
-                    currentPay = employeeWage + " Hourly";
-                } else {
-                    currentPay = employeeWage + " Annually";
-                }
-
-                System.out.println(employeeName + " | $" + currentPay + " | Currently owned: $" + employeeMoneyOwned);
+                printEmployee(employee);
             }
         }
     }
 
+    // EFFECTS: Prompts user for the start of a name and prints the employees whose names start with it,
+    //          ignoring case, in alphabetical order
+    private void searchEmployees() {
+        System.out.println("Please enter the start of the employee name to search for:");
+        String prefix = input.next();
+        List<Employee> matches = employeeList.searchByName(prefix, SEARCH_LIMIT + 1);
+
+        if (matches.isEmpty()) {
+            System.out.println("No employee name starts with " + prefix);
+        }
+        for (Employee employee : matches.subList(0, Math.min(SEARCH_LIMIT, matches.size()))) {
+            printEmployee(employee);
+        }
+        if (matches.size() > SEARCH_LIMIT) {
+            System.out.println("Only the first " + SEARCH_LIMIT + " matches are shown");
+        }
+    }
+
+    // EFFECTS: prints the number of hourly and salaried employees, the total owed to them and the total paid
+    //          to them to date
+    private void printSummary() {
+        System.out.println("Employees: " + employeeList.getEmployeeCount() + " (" + employeeList.getHourlyCount()
+                + " hourly, " + employeeList.getSalariedCount() + " salaried)");
+        System.out.println("Currently owned: $" + employeeList.getTotalOwed());
+        System.out.println("Paid to date: $" + employeeList.getTotalPaid());
+    }
+
+    // EFFECTS: prints an employee's name, wage/salary, and money owned
+    private void printEmployee(Employee employee) {
+        String employeeName = employee.getName();
+        int employeeWage = employee.getWage();
+        int employeeMoneyOwned = employee.getCurrentOwned();
+        boolean employeeHourlyStatus = employee.getHourlyStatus();
+        String currentPay = "";
+
+        if (employeeHourlyStatus) {
+            currentPay = employeeWage + " Hourly";
+        } else {
+            currentPay = employeeWage + " Annually";
+        }
+
+        System.out.println(employeeName + " | $" + currentPay + " | Currently owned: $" + employeeMoneyOwned);
+    }
+
     // MODIFIES: this
     // EFFECTS: Prompts user for an employee name and deletes them from the employee list
     private void deleteEmployee() {
@@ -302,8 +376,12 @@ public class PayrollAppConsole {
         String oldName = employee.getName();
         System.out.println("What would you like the new employee name to be?");
         String newName = input.next();
-        employee.changeName(newName);
-        System.out.println("Employee has been successfully renamed from " + oldName + " to " + newName);
+        try {
+            employee.changeName(newName);
+            System.out.println("Employee has been successfully renamed from " + oldName + " to " + newName);
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            System.out.println("Can't rename employee. Another employee with the same name already exists");
+        }
     }
 
     // MODIFIES: this
@@ -377,4 +455,12 @@ public class PayrollAppConsole {
             System.out.println("Employee name not found in system");
         }
     }
-}
\ No newline at end of file
+
+    // MODIFIES: this
+    // EFFECTS: pays out the money owned to every employee in one pay run and prints the totals
+    private void payAllEmployees() {
+        PayRun payRun = employeeList.payAll();
+        System.out.println(payRun.getEmployeesPaidCount() + " employees have been paid a total of $"
+                + payRun.getTotalPaid());
+    }
+}
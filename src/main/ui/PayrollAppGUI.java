@@ -2,21 +2,29 @@ package ui;
 
 import exceptions.DuplicateEmployeeException;
 import exceptions.EmployeeDoesNotExistException;
+import metrics.PayrollMetrics;
 import model.Employee;
 import model.EmployeeList;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import model.EmployeeListener;
+import model.PayRun;
+import persistence.AutoSaver;
+import persistence.Journal;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.FileNotFoundException;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.IOException;
 import java.text.NumberFormat;
-import java.util.List;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.locks.ReentrantLock;
 
 import java.io.*;
 import javax.sound.sampled.*;
@@ -27,6 +35,12 @@ public class PayrollAppGUI implements ListSelectionListener {
     private static final int WIDTH = 1200;
     private static final int HEIGHT = 500;
 
+    // Time after the last keystroke in the search box before the list is filtered
+    private static final int SEARCH_DELAY_MILLIS = 150;
+
+    // Sizes every row of the employee list, so the list is laid out without measuring each name
+    private static final String LIST_PROTOTYPE_NAME = "Employee name of a typical length";
+
     // Fields for Swing components
     private JMenuBar menuBar;
     private JButton addButton;
@@ -35,18 +49,29 @@ public class PayrollAppGUI implements ListSelectionListener {
     private JButton modifyButton;
     private JButton recordButton;
     private JButton payButton;
+    private JButton payAllButton;
     private JList list;
     private OptionPanel optionPanel;
+    private JLabel saveStatusLabel;
+    private PayrollTotalsLabel totalsLabel;
+    private JMenuItem option1SubMenuLoad;
+    private JMenuItem option1SubMenuSave;
+    private JProgressBar loadProgressBar;
+    private JButton cancelLoadButton;
 
     // Fields required for loading and saving the file
     private static final String JSON_STORE = "./data/employees.json";
-    private JsonWriter jsonWriter;
-    private JsonReader jsonReader;
+    private static final long AUTOSAVE_DELAY_MILLIS = 2000;
+    private Journal journal;
+    private AutoSaver autoSaver;
+    // Held by every change to the employee list, so an autosave copies it between changes
+    private final ReentrantLock listLock = new ReentrantLock();
+    private EmployeeLoader employeeLoader;
 
     // Fields required to keep employee lists
     protected EmployeeList employeeList;
-    private DefaultListModel listModelEmployeeObjects;
-    private DefaultListModel listModelEmployeeNames;
+    private EmployeeListModel employeeListModel;
+    private boolean employeesLoaded;
 
     // Fields for sounds
     private SoundMaker soundMaker = new SoundMaker();
@@ -54,11 +79,17 @@ public class PayrollAppGUI implements ListSelectionListener {
     public PayrollAppGUI() {
 
         // Set disk location for read/write operations
-        jsonWriter = new JsonWriter(JSON_STORE);
-        jsonReader = new JsonReader(JSON_STORE);
+        journal = new Journal(JSON_STORE);
+        autoSaver = new AutoSaver(JSON_STORE, journal, listLock, AUTOSAVE_DELAY_MILLIS);
+        autoSaver.setSaveListener((succeeded, requested) ->
+                SwingUtilities.invokeLater(() -> showSaveStatus(succeeded, requested)));
+        PayrollMetrics.getInstance().register();
 
         initializeGraphics();
         initializeActionListeners();
+
+        // Loads employees in the background; the window is already usable
+        loadEmployees();
     }
 
     // MODIFIES: this
@@ -68,27 +99,38 @@ public class PayrollAppGUI implements ListSelectionListener {
         JFrame frame = new JFrame("Payzilla");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setSize(WIDTH, HEIGHT);
+        frame.addWindowListener(new WindowAdapter() {
+            // EFFECTS: lets a save in progress finish and releases the sounds before the application exits
+            @Override
+            public void windowClosing(WindowEvent e) {
+                autoSaver.close();
+                soundMaker.close();
+            }
+        });
 
         initializeMenuBar();
         initializeOptionPanel();
 
-        // Displays list of employees
-        listModelEmployeeObjects = new DefaultListModel();
-        listModelEmployeeNames = new DefaultListModel();
+        // Displays list of employees, starting with none until they are loaded
+        employeeList = new EmployeeList();
+        employeeListModel = new EmployeeListModel();
+        employeeListModel.setEmployeeList(employeeList);
 
-        loadEmployees();
-
-        list = new JList(listModelEmployeeNames);
+        list = new JList(employeeListModel);
         list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         list.setSelectedIndex(0);
         list.addListSelectionListener(this);
         list.setVisibleRowCount(5);
+        list.setPrototypeCellValue(LIST_PROTOTYPE_NAME);
         JScrollPane listScrollPane = new JScrollPane(list);
+        JPanel listPanel = new JPanel(new BorderLayout());
+        listPanel.add(initializeSearchBox(), BorderLayout.NORTH);
+        listPanel.add(listScrollPane, BorderLayout.CENTER);
 
         // Add components to the frame
         frame.getContentPane().add(menuBar, BorderLayout.NORTH);
-        frame.getContentPane().add(listScrollPane, BorderLayout.CENTER);
-        frame.getContentPane().add(optionPanel, BorderLayout.SOUTH);
+        frame.getContentPane().add(listPanel, BorderLayout.CENTER);
+        frame.getContentPane().add(initializeStatusBar(), BorderLayout.SOUTH);
         frame.setMinimumSize(new Dimension(WIDTH, HEIGHT));
 
         // Set location of frame
@@ -100,6 +142,59 @@ public class PayrollAppGUI implements ListSelectionListener {
         frame.setVisible(true);
     }
 
+    // MODIFIES: this
+    // EFFECTS: Create the option panel with a status bar below it showing the payroll totals of the employee list
+    private JPanel initializeStatusBar() {
+        totalsLabel = new PayrollTotalsLabel();
+        totalsLabel.setEmployeeList(employeeList);
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(optionPanel, BorderLayout.CENTER);
+        bottomPanel.add(totalsLabel, BorderLayout.SOUTH);
+        return bottomPanel;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Create the search box above the list; once the user stops typing for SEARCH_DELAY_MILLIS, only
+    //          the employees whose names start with the text typed are shown
+    private JPanel initializeSearchBox() {
+        JTextField searchField = new JTextField();
+        Timer searchTimer = new Timer(SEARCH_DELAY_MILLIS, new ActionListener() {
+            // MODIFIES: this
+            // EFFECTS: filters the list by the text in the search box
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                employeeListModel.setFilter(searchField.getText().trim());
+            }
+        });
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(searchListener(searchTimer));
+
+        JPanel searchPanel = new JPanel(new BorderLayout());
+        searchPanel.add(new JLabel(" Search: "), BorderLayout.WEST);
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        return searchPanel;
+    }
+
+    // EFFECTS: returns a listener that restarts searchTimer whenever the search text changes
+    private DocumentListener searchListener(Timer searchTimer) {
+        return new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        };
+    }
+
     // MODIFIES: this
     // EFFECTS: Create option panel at the bottom of the UI
     private void initializeOptionPanel() {
@@ -111,6 +206,7 @@ public class PayrollAppGUI implements ListSelectionListener {
         modifyButton = new JButton("Modify");
         recordButton = new JButton("Record Hours");
         payButton = new JButton("Pay");
+        payAllButton = new JButton("Pay All");
 
         optionPanel.add(addButton);
         optionPanel.add(deleteButton);
@@ -118,6 +214,7 @@ public class PayrollAppGUI implements ListSelectionListener {
         optionPanel.add(modifyButton);
         optionPanel.add(recordButton);
         optionPanel.add(payButton);
+        optionPanel.add(payAllButton);
     }
 
     // MODIFIES: this
@@ -126,10 +223,14 @@ public class PayrollAppGUI implements ListSelectionListener {
         menuBar = new JMenuBar();
         JMenu option1Menu = new JMenu("File");
         menuBar.add(option1Menu);
-        JMenuItem option1SubMenuLoad = new JMenuItem("Load employee data");
-        JMenuItem option1SubMenuSave = new JMenuItem("Save employee data");
+        option1SubMenuLoad = new JMenuItem("Load employee data");
+        option1SubMenuSave = new JMenuItem("Save employee data");
         option1Menu.add(option1SubMenuLoad);
         option1Menu.add(option1SubMenuSave);
+        menuBar.add(Box.createHorizontalGlue());
+        initializeLoadProgress();
+        saveStatusLabel = new JLabel(" ");
+        menuBar.add(saveStatusLabel);
 
         option1SubMenuLoad.addActionListener(new ActionListener() {
             // MODIFIES: this
@@ -149,6 +250,25 @@ public class PayrollAppGUI implements ListSelectionListener {
         });
     }
 
+    // MODIFIES: this
+    // EFFECTS: Create the progress bar and cancel button shown in the menu bar while employees are loading
+    private void initializeLoadProgress() {
+        loadProgressBar = new JProgressBar(0, 100);
+        loadProgressBar.setStringPainted(true);
+        loadProgressBar.setMaximumSize(new Dimension(200, loadProgressBar.getPreferredSize().height));
+        cancelLoadButton = new JButton("Cancel");
+        cancelLoadButton.addActionListener(new ActionListener() {
+            // EFFECTS: Adds action listener that stops loading employees
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                employeeLoader.cancel(false);
+            }
+        });
+        menuBar.add(loadProgressBar);
+        menuBar.add(cancelLoadButton);
+        showLoadProgress(false);
+    }
+
     // MODIFIES: this
     // EFFECTS: initializes the action listeners for the buttons
     private void initializeActionListeners() {
@@ -158,6 +278,7 @@ public class PayrollAppGUI implements ListSelectionListener {
         setListenerModifyButton();
         setListenersRecordButton();
         setListenersPayButton();
+        setListenersPayAllButton();
     }
 
     // MODIFIES: this
@@ -171,8 +292,7 @@ public class PayrollAppGUI implements ListSelectionListener {
             public void actionPerformed(ActionEvent e) {
                 try {
                     Employee selectedEmployee = getSelectedEmployee();
-                    new ModifyPanel(selectedEmployee, employeeList);
-                    refreshEmployees();
+                    new ModifyPanel(selectedEmployee, employeeList, listLock);
                 } catch (ArrayIndexOutOfBoundsException arrayIndexOutOfBoundsException) {
                     // Do nothing as no employee was selected
                 }
@@ -183,7 +303,7 @@ public class PayrollAppGUI implements ListSelectionListener {
     // EFFECTS: returns the user selected employee
     private Employee getSelectedEmployee() {
         int selectedIndex = list.getSelectedIndex();
-        return (Employee) listModelEmployeeObjects.getElementAt(selectedIndex);
+        return employeeListModel.getEmployeeAt(selectedIndex);
     }
 
     // MODIFIES: this
@@ -197,8 +317,12 @@ public class PayrollAppGUI implements ListSelectionListener {
             public void actionPerformed(ActionEvent e) {
                 try {
                     Employee selectedEmployee = getSelectedEmployee();
-                    employeeList.deleteEmployee(selectedEmployee);
-                    refreshEmployees();
+                    listLock.lock();
+                    try {
+                        employeeList.deleteEmployee(selectedEmployee);
+                    } finally {
+                        listLock.unlock();
+                    }
                     soundMaker.playDeleteSound();
                 } catch (ArrayIndexOutOfBoundsException arrayIndexOutOfBoundsException) {
                     // Do nothing since nothing is selected
@@ -251,8 +375,12 @@ public class PayrollAppGUI implements ListSelectionListener {
                     } else {
                         int wage = (int) optionPanel.getEmployeeWageField().getValue();
                         Employee employeeToAdd = new Employee(name, hourlyStatus, wage);
-                        employeeList.addEmployee(employeeToAdd);
-                        refreshEmployees();
+                        listLock.lock();
+                        try {
+                            employeeList.addEmployee(employeeToAdd);
+                        } finally {
+                            listLock.unlock();
+                        }
                         soundMaker.playAddSound();
                         optionPanel.resetFields();
                     }
@@ -288,7 +416,12 @@ public class PayrollAppGUI implements ListSelectionListener {
 
                     if (result == JOptionPane.OK_OPTION) {
                         int timeWorked = (int) timeWorkedField.getValue();
-                        selectedEmployee.recordWorkAmount(timeWorked);
+                        listLock.lock();
+                        try {
+                            selectedEmployee.recordWorkAmount(timeWorked);
+                        } finally {
+                            listLock.unlock();
+                        }
                     }
                 } catch (ArrayIndexOutOfBoundsException outOfBoundsException) {
                     // Do nothing since nothing is selected
@@ -312,7 +445,12 @@ public class PayrollAppGUI implements ListSelectionListener {
                     Employee selectedEmployee = getSelectedEmployee();
                     int amountToPay = selectedEmployee.getCurrentOwned();
                     if (amountToPay != 0) {
-                        selectedEmployee.payEmployee();
+                        listLock.lock();
+                        try {
+                            selectedEmployee.payEmployee();
+                        } finally {
+                            listLock.unlock();
+                        }
                         soundMaker.playPaidSound();
                         JOptionPane.showMessageDialog(new JFrame(), "Employee has been paid $" + amountToPay);
                     } else {
@@ -326,52 +464,159 @@ public class PayrollAppGUI implements ListSelectionListener {
     }
 
     // MODIFIES: this
-    // EFFECTS: Loads employees from disc and refreshes employee list on screen
+    // EFFECTS: adds a listener to the pay all button
+    private void setListenersPayAllButton() {
+        payAllButton.addActionListener(new ActionListener() {
+
+            // MODIFIES: every employee in the employee list
+            // EFFECTS: pays every employee the amount owing to them in one pay run
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                PayRun payRun;
+                listLock.lock();
+                try {
+                    payRun = employeeList.payAll();
+                } finally {
+                    listLock.unlock();
+                }
+                if (payRun.getEmployeesPaidCount() != 0) {
+                    soundMaker.playPaidSound();
+                    JOptionPane.showMessageDialog(new JFrame(), payRun.getEmployeesPaidCount()
+                            + " employees have been paid a total of $" + payRun.getTotalPaid());
+                } else {
+                    JOptionPane.showMessageDialog(new JFrame(), "No employees have amounts owing");
+                }
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Starts loading employees from disc in the background; the employees are shown as they are read,
+    //          and changes cannot be made until every employee has been loaded
     private void loadEmployees() {
-        // Reads employees from disc file
-        loadEmployeeList();
+        // The loader lets a save of the current list finish before its file is read back
+        autoSaver.stop();
+        setEditingEnabled(false);
+        showLoadProgress(true);
+
+        EmployeeList previousList = employeeList;
+        boolean previousLoaded = employeesLoaded;
+        employeeList = new EmployeeList();
+        employeesLoaded = false;
+        employeeListModel.setEmployeeList(employeeList);
+        totalsLabel.setEmployeeList(employeeList);
+
+        employeeLoader = new EmployeeLoader(JSON_STORE, employeeList, autoSaver,
+                loadListener(previousList, previousLoaded));
+        employeeLoader.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName())) {
+                loadProgressBar.setValue((Integer) event.getNewValue());
+            }
+        });
+        employeeLoader.execute();
+    }
+
+    // EFFECTS: returns a listener that finishes loading, going back to previousList if loading stops early
+    private EmployeeLoader.LoadListener loadListener(EmployeeList previousList, boolean previousLoaded) {
+        return new EmployeeLoader.LoadListener() {
+            // MODIFIES: this
+            // EFFECTS: starts journaling and autosaving the loaded list and allows changes to it
+            @Override
+            public void loadFinished(EmployeeList loadedList) {
+                employeesLoaded = true;
+                attachJournal();
+                autoSaver.watch(loadedList);
+                finishLoading();
+                System.out.println("Successfully loaded employee list from: " + JSON_STORE);
+            }
 
-        // Refreshes employees displayed on screen
-        refreshEmployees();
+            // MODIFIES: this
+            // EFFECTS: goes back to the list shown before loading started
+            @Override
+            public void loadStopped(String message) {
+                restoreEmployeeList(previousList, previousLoaded);
+                finishLoading();
+                saveStatusLabel.setText(message + "  ");
+                System.out.println(message);
+            }
+        };
     }
 
     // MODIFIES: this
-    // EFFECTS: Refreshes the employees on screen with the latest data
-    public void refreshEmployees() {
-        listModelEmployeeNames.clear();
-        listModelEmployeeObjects.clear();
-        List<Employee> listOfEmployees = employeeList.getAllEmployees();
-        for (Employee employee : listOfEmployees) {
-            String employeeName = employee.getName();
-            listModelEmployeeObjects.addElement(employee);
-            listModelEmployeeNames.addElement(employeeName);
+    // EFFECTS: shows previousList again, autosaving it if it had been loaded in full
+    private void restoreEmployeeList(EmployeeList previousList, boolean previousLoaded) {
+        employeeList = previousList;
+        employeesLoaded = previousLoaded;
+        employeeListModel.setEmployeeList(employeeList);
+        totalsLabel.setEmployeeList(employeeList);
+        if (previousLoaded) {
+            autoSaver.watch(previousList);
         }
     }
 
     // MODIFIES: this
-    // EFFECTS: loads the employee list from a file
-    protected void loadEmployeeList() {
-        try {
-            employeeList = jsonReader.read();
-            System.out.println("Successfully loaded employee list from: " + JSON_STORE);
-        } catch (IOException e) {
-            System.out.println("Unable to read from file: " + JSON_STORE);
-        }
+    // EFFECTS: hides the load progress and allows changes if a list has been loaded
+    private void finishLoading() {
+        showLoadProgress(false);
+        setEditingEnabled(employeesLoaded);
+        option1SubMenuLoad.setEnabled(true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows or hides the load progress bar and cancel button
+    private void showLoadProgress(boolean loading) {
+        loadProgressBar.setValue(0);
+        loadProgressBar.setVisible(loading);
+        cancelLoadButton.setVisible(loading);
     }
 
-    // EFFECTS: saves the employee list to file
+    // MODIFIES: this
+    // EFFECTS: enables or disables every action that changes or saves the employee list, and loading
+    private void setEditingEnabled(boolean enabled) {
+        addButton.setEnabled(enabled);
+        deleteButton.setEnabled(enabled);
+        modifyButton.setEnabled(enabled);
+        recordButton.setEnabled(enabled);
+        payButton.setEnabled(enabled);
+        payAllButton.setEnabled(enabled);
+        option1SubMenuLoad.setEnabled(enabled);
+        option1SubMenuSave.setEnabled(enabled);
+    }
+
+    // EFFECTS: saves the employee list to file in the background as soon as possible
     private void saveEmployeeList() {
-        try {
-            jsonWriter.open();
-            jsonWriter.write(employeeList);
-            jsonWriter.close();
-            soundMaker.playSaveSound();
+        autoSaver.saveNow();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the outcome of a save, playing the save sound if the user asked for the save
+    private void showSaveStatus(boolean succeeded, boolean requested) {
+        String time = new SimpleDateFormat("HH:mm:ss").format(new Date());
+        if (succeeded) {
+            saveStatusLabel.setText("All changes saved at " + time + "  ");
             System.out.println("Successfully saved employee list to: " + JSON_STORE);
-        } catch (FileNotFoundException e) {
+            if (requested) {
+                soundMaker.playSaveSound();
+            }
+        } else {
+            saveStatusLabel.setText("Unable to save at " + time + "; changes are kept in the journal  ");
             System.out.println("Unable to write to file: " + JSON_STORE);
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: appends every further change to the employee list to the journal next to JSON_STORE,
+    //          so that changes made since the last save are replayed when the file is next loaded
+    private void attachJournal() {
+        try {
+            journal.open();
+            employeeList.removeListener(journal);
+            employeeList.addListener(journal, EmployeeListener.Delivery.BATCHED);
+        } catch (IOException e) {
+            System.out.println("Unable to open journal for: " + JSON_STORE);
+        }
+    }
+
     // EFFECTS: No effects. Required by interface to be added but not used
     @Override
     public void valueChanged(ListSelectionEvent e) {
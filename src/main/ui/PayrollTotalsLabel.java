@@ -0,0 +1,89 @@
+package ui;
+
+import model.EmployeeEvent;
+import model.EmployeeList;
+import model.EmployeeListener;
+
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import java.text.NumberFormat;
+import java.util.List;
+
+// A status bar showing the payroll totals of an employee list: the number of hourly and salaried employees, the
+// total owed to them and the total paid to date. The list keeps these totals up to date itself, so the label
+// reads them again after each change, or once for a batch of changes, without going through the employees.
+// Changes made on other threads are shown by one update on the event dispatch thread.
+public class PayrollTotalsLabel extends JLabel implements EmployeeListener {
+    private static final long serialVersionUID = 1L;
+    private EmployeeList employeeList;
+    private NumberFormat format;
+    private boolean updatePending;
+
+    // EFFECTS: constructs a label showing the totals of no employees
+    public PayrollTotalsLabel() {
+        format = NumberFormat.getInstance();
+        update();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the totals of employeeList instead of those of the previous list, which is no longer
+    //          observed; employeeList may be null to show no employees
+    public void setEmployeeList(EmployeeList employeeList) {
+        if (this.employeeList != null) {
+            this.employeeList.removeListener(this);
+        }
+        this.employeeList = employeeList;
+        if (employeeList != null) {
+            employeeList.addListener(this, EmployeeListener.Delivery.BATCHED);
+        }
+        update();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the totals as they are after a change
+    @Override
+    public void employeeChanged(EmployeeEvent event) {
+        scheduleUpdate();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the totals once for a batch of changes
+    @Override
+    public void employeesChanged(List<EmployeeEvent> events) {
+        scheduleUpdate();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the totals now if called on the event dispatch thread, otherwise schedules one update on
+    //          the event dispatch thread unless one is already pending
+    private void scheduleUpdate() {
+        if (SwingUtilities.isEventDispatchThread()) {
+            update();
+            return;
+        }
+        synchronized (this) {
+            if (!updatePending) {
+                updatePending = true;
+                SwingUtilities.invokeLater(this::update);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the totals of the list as they are now
+    private void update() {
+        synchronized (this) {
+            updatePending = false;
+        }
+        EmployeeList shown = employeeList;
+        if (shown == null) {
+            setText(" No employees");
+            return;
+        }
+        setText(" Employees: " + format.format(shown.getEmployeeCount())
+                + " (" + format.format(shown.getHourlyCount()) + " hourly, "
+                + format.format(shown.getSalariedCount()) + " salaried)"
+                + "  |  Currently owned: $" + format.format(shown.getTotalOwed())
+                + "  |  Paid to date: $" + format.format(shown.getTotalPaid()));
+    }
+}
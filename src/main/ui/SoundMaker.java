@@ -1,53 +1,183 @@
 package ui;
 
+import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 // Code below is attributed to stackoverflow suggestion:
 // https://stackoverflow.com/questions/9470148/how-do-you-play-a-long-audioclip
 
+// Plays the application's sounds. Each sound is read and decoded from its file once, in the background, into a
+// small pool of clips that are reused for every play, so playing a sound needs no disk access or audio line
+// setup. Sounds are started on a background thread and never hold up the action that plays them.
 public class SoundMaker {
+    private static final int CLIPS_PER_SOUND = 2;
 
-    private static final String DELETE_SOUND = "./data/delete.wav";
-    private static final String ADD_SOUND = "./data/add.wav";
-    private static final String PAY_SOUND = "./data/pay.wav";
-    private static final String SAVE_SOUND = "./data/save.wav";
+    // The sounds that can be played, with the file each is read from
+    private enum Sound {
+        DELETE("./data/delete.wav"),
+        ADD("./data/add.wav"),
+        PAY("./data/pay.wav"),
+        SAVE("./data/save.wav");
 
-    // EFFECTS: Plays the sound from the file destination in the parameter
-    private void playSound(File file) {
-        try {
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(file);
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioStream);
-            clip.start();
-        } catch (Exception e) {
-            e.printStackTrace();
+        private final String file;
+
+        Sound(String file) {
+            this.file = file;
         }
     }
 
+    // Clips and the index of the clip to play next for each sound; used only on the player thread
+    private Map<Sound, Clip[]> clips;
+    private int[] nextClip;
+    private ExecutorService player;
+
+    // EFFECTS: constructs a sound maker and starts loading every sound in the background
+    public SoundMaker() {
+        clips = new EnumMap<Sound, Clip[]>(Sound.class);
+        nextClip = new int[Sound.values().length];
+        player = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "Payzilla sounds");
+            thread.setDaemon(true);
+            return thread;
+        });
+        player.execute(this::loadSounds);
+    }
+
     // EFFECTS: Plays a ding success sound
     public void playAddSound() {
-        File addSound = new File(ADD_SOUND);
-        playSound(addSound);
+        play(Sound.ADD);
     }
 
     // EFFECTS: Plays a trash delete sound
     public void playDeleteSound() {
-        File deleteSound = new File(DELETE_SOUND);
-        playSound(deleteSound);
+        play(Sound.DELETE);
     }
 
     // EFFECTS: Plays a money sound
     public void playPaidSound() {
-        File deleteSound = new File(PAY_SOUND);
-        playSound(deleteSound);
+        play(Sound.PAY);
     }
 
     // EFFECTS: Plays a saved sound
     public void playSaveSound() {
-        File deleteSound = new File(SAVE_SOUND);
-        playSound(deleteSound);
+        play(Sound.SAVE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops playing and releases every clip once the sounds already asked for have started
+    public void close() {
+        player.execute(() -> {
+            for (Clip[] pool : clips.values()) {
+                for (Clip clip : pool) {
+                    clip.close();
+                }
+            }
+            clips.clear();
+        });
+        player.shutdown();
+    }
+
+    // EFFECTS: asks the player thread to play sound; returns at once
+    private void play(Sound sound) {
+        try {
+            player.execute(() -> playOnPlayer(sound));
+        } catch (RejectedExecutionException closed) {
+            // No more sounds once closed
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: plays sound from the start on the next clip in its pool, cutting that clip short if it is
+    //          still playing; does nothing if the sound could not be loaded
+    private void playOnPlayer(Sound sound) {
+        Clip[] pool = clips.get(sound);
+        if (pool == null) {
+            return;
+        }
+        int index = nextClip[sound.ordinal()];
+        nextClip[sound.ordinal()] = (index + 1) % pool.length;
+        Clip clip = pool[index];
+        clip.stop();
+        clip.setFramePosition(0);
+        clip.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads, decodes and opens the clips for every sound; a sound that cannot be loaded is left silent
+    private void loadSounds() {
+        for (Sound sound : Sound.values()) {
+            try {
+                clips.put(sound, openClips(sound));
+            } catch (IOException | UnsupportedAudioFileException | LineUnavailableException
+                    | IllegalArgumentException e) {
+                System.out.println("Unable to load sound: " + sound.file);
+            }
+        }
+    }
+
+    // EFFECTS: returns CLIPS_PER_SOUND clips opened on the decoded audio of sound's file
+    private Clip[] openClips(Sound sound) throws IOException, UnsupportedAudioFileException,
+            LineUnavailableException {
+        AudioFormat format;
+        byte[] audio;
+        try (AudioInputStream stream = decodedStream(new File(sound.file))) {
+            format = stream.getFormat();
+            audio = readFrames(stream);
+        }
+        Clip[] pool = new Clip[CLIPS_PER_SOUND];
+        try {
+            for (int i = 0; i < pool.length; i++) {
+                pool[i] = AudioSystem.getClip();
+                pool[i].open(format, audio, 0, audio.length);
+            }
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            closeClips(pool);
+            throw e;
+        }
+        return pool;
+    }
+
+    // EFFECTS: returns a stream of the audio in file as PCM samples
+    private AudioInputStream decodedStream(File file) throws IOException, UnsupportedAudioFileException {
+        AudioInputStream stream = AudioSystem.getAudioInputStream(file);
+        AudioFormat format = stream.getFormat();
+        if (format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED
+                || format.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED) {
+            return stream;
+        }
+        AudioFormat pcm = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+        return AudioSystem.getAudioInputStream(pcm, stream);
+    }
+
+    // EFFECTS: returns every frame left in stream
+    private byte[] readFrames(AudioInputStream stream) throws IOException {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        byte[] buffer = new byte[16 * 1024];
+        int count;
+        while ((count = stream.read(buffer)) > 0) {
+            frames.write(buffer, 0, count);
+        }
+        return frames.toByteArray();
+    }
+
+    // EFFECTS: closes every clip that has been created in pool
+    private void closeClips(Clip[] pool) {
+        for (Clip clip : pool) {
+            if (clip != null) {
+                clip.close();
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+package metrics;
+
+import exceptions.DuplicateEmployeeException;
+import exceptions.EmployeeDoesNotExistException;
+import model.Employee;
+import model.EmployeeList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PayrollMetricsTest {
+    private PayrollMetrics metrics;
+
+    @BeforeEach
+    void runBefore() {
+        metrics = PayrollMetrics.getInstance();
+        metrics.reset();
+    }
+
+    @Test
+    void testListOperationsAndPayments() {
+        try {
+            EmployeeList employeeList = new EmployeeList();
+            Employee employee = new Employee("Bob", true, 30);
+            employeeList.addEmployee(employee);
+            employeeList.getEmployee("Bob").recordWorkAmount(10);
+            employeeList.payAll();
+            employeeList.deleteEmployee(employee);
+            employeeList.getEmployee("Bob");
+            fail("EmployeeDoesNotExistException was expected");
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            assertEquals(1, metrics.getEmployeesAdded());
+            assertEquals(1, metrics.getEmployeesDeleted());
+            assertEquals(2, metrics.getLookups());
+            assertEquals(1, metrics.getLookupMisses());
+            assertEquals(1, metrics.getEmployeesPaid());
+            assertEquals(300, metrics.getAmountPaid());
+            assertEquals(1, metrics.getPayRuns());
+        }
+    }
+
+    @Test
+    void testLoadAndSave() throws IOException {
+        Path file = Files.createTempFile("testPayrollMetrics", ".json");
+        try {
+            JsonWriter writer = new JsonWriter(file.toString());
+            writer.open();
+            writer.write(new EmployeeList());
+            writer.close();
+            new JsonReader(file.toString()).read();
+            assertEquals(1, metrics.getSaves());
+            assertEquals(1, metrics.getLoads());
+            assertEquals(metrics.getBytesWritten(), metrics.getBytesRead());
+            assertTrue(metrics.getBytesRead() > 0);
+            assertEquals(1, metrics.getSaveLatency().getCount());
+            new JsonReader("./data/noSuchFile.json").read();
+            fail("IOException was expected");
+        } catch (IOException e) {
+            assertEquals(2, metrics.getLoads());
+            assertEquals(1, metrics.getLoadFailures());
+            assertEquals(0, metrics.getSaveFailures());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getCount());
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+        LatencyStats stats = histogram.snapshot();
+        assertEquals(100, stats.getCount());
+        assertEquals(149, stats.getMeanNanos());
+        assertEquals(127, stats.getMedianNanos());
+        assertEquals(127, stats.getP99Nanos());
+        assertEquals(5000, stats.getMaxNanos());
+    }
+
+    @Test
+    void testPublishedOverJmx() throws Exception {
+        metrics.register();
+        metrics.register();
+        metrics.recordEmployeeAdded();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(PayrollMetrics.OBJECT_NAME);
+        assertEquals(1L, server.getAttribute(name, "EmployeesAdded"));
+        CompositeData latency = (CompositeData) server.getAttribute(name, "LoadLatency");
+        assertEquals(0L, latency.get("count"));
+    }
+}
@@ -0,0 +1,255 @@
+package model;
+
+import exceptions.DuplicateEmployeeException;
+import exceptions.EmployeeDoesNotExistException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentEmployeeListTest {
+    private static final int THREADS = 8;
+    private ConcurrentEmployeeList employeeList;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void runBefore() {
+        employeeList = new ConcurrentEmployeeList();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @Test
+    void testSameBehaviourAsEmployeeList() {
+        try {
+            Employee employeeBob = new Employee("Bob", true, 30);
+            employeeList.addEmployee(employeeBob);
+            employeeList.addEmployee(new Employee("Brian", false, 50000));
+            assertEquals(2, employeeList.getEmployeeCount());
+            assertEquals(employeeBob, employeeList.getEmployee("Bob"));
+            employeeBob.changeName("Bobby");
+            assertTrue(employeeList.contains(new Employee("Bobby", true, 1)));
+            assertFalse(employeeList.contains(new Employee("Bob", true, 1)));
+            assertEquals(employeeBob, employeeList.searchByName("bobb", 10).get(0));
+            employeeList.deleteEmployee(employeeBob);
+            assertEquals(1, employeeList.getEmployeeCount());
+            employeeList.addEmployee(new Employee("Brian", true, 1));
+            fail("DuplicateEmployeeException was expected");
+        } catch (DuplicateEmployeeException e) {
+            // pass
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testGetAllEmployeesIsReadOnly() {
+        try {
+            employeeList.getAllEmployees().add(new Employee("Bob", true, 30));
+            fail("UnsupportedOperationException was expected");
+        } catch (UnsupportedOperationException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testIterationSeesSnapshotOfMembership() {
+        try {
+            Employee employeeBob = new Employee("Bob", true, 30);
+            employeeList.addEmployee(employeeBob);
+            employeeList.addEmployee(new Employee("Brian", true, 50));
+            Iterator<Employee> iterator = employeeList.getAllEmployees().iterator();
+            employeeList.deleteEmployee(employeeBob);
+            employeeList.addEmployee(new Employee("John", true, 20));
+            employeeBob.changeWage(35);
+
+            assertEquals(employeeBob, iterator.next());
+            assertEquals(35, employeeBob.getWage());
+            assertEquals("Brian", iterator.next().getName());
+            assertFalse(iterator.hasNext());
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testManyAddsAndDeletesKeepOrder() {
+        try {
+            List<Employee> added = new ArrayList<Employee>();
+            for (int i = 0; i < 100000; i++) {
+                Employee employee = new Employee("Employee " + i, true, 10);
+                employeeList.addEmployee(employee);
+                added.add(employee);
+            }
+            List<Employee> beforeDeletes = employeeList.getAllEmployees();
+            for (int i = 0; i < 100000; i += 1000) {
+                employeeList.deleteEmployee(added.get(i));
+            }
+            assertEquals(100000, beforeDeletes.size());
+            assertEquals(99900, employeeList.getEmployeeCount());
+            assertEquals(99900, employeeList.getAllEmployees().size());
+            assertEquals("Employee 1", employeeList.getAllEmployees().get(0).getName());
+            assertEquals("Employee 1001", employeeList.getAllEmployees().get(999).getName());
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testAddAllEmployeesSkipsDuplicates() {
+        List<Employee> employees = new ArrayList<Employee>();
+        employees.add(new Employee("Bob", true, 30));
+        employees.add(new Employee("Brian", false, 50000));
+        employees.add(new Employee("Bob", true, 40));
+        assertEquals(2, employeeList.addAllEmployees(employees));
+        assertEquals(2, employeeList.getEmployeeCount());
+        assertEquals("Brian", employeeList.getAllEmployees().get(1).getName());
+        assertEquals(30, employeeList.getAllEmployees().get(0).getWage());
+    }
+
+    @Test
+    void testConcurrentAddsOfSameNames() throws Exception {
+        AtomicInteger duplicates = new AtomicInteger();
+        List<Future<?>> tasks = new ArrayList<Future<?>>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            tasks.add(executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    try {
+                        employeeList.addEmployee(new Employee("Employee " + i, true, 10));
+                    } catch (DuplicateEmployeeException e) {
+                        duplicates.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        waitFor(tasks);
+        assertEquals(1000, employeeList.getEmployeeCount());
+        assertEquals(1000 * (THREADS - 1), duplicates.get());
+    }
+
+    @Test
+    void testConcurrentWorkOnDifferentEmployees() throws Exception {
+        for (int i = 0; i < THREADS; i++) {
+            employeeList.addEmployee(new Employee("Employee " + i, true, 1));
+        }
+        List<Future<?>> tasks = new ArrayList<Future<?>>();
+        for (Employee employee : employeeList.getAllEmployees()) {
+            tasks.add(executor.submit(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    employee.recordWorkAmount(1);
+                    employee.changeWage(i % 2 + 1);
+                    employee.changeWage(1);
+                }
+            }));
+        }
+        waitFor(tasks);
+        for (Employee employee : employeeList.getAllEmployees()) {
+            assertEquals(10000, employee.getCurrentOwned());
+        }
+    }
+
+    @Test
+    void testReadsWhileWriting() throws Exception {
+        List<Future<?>> tasks = new ArrayList<Future<?>>();
+        tasks.add(executor.submit(() -> {
+            for (int i = 0; i < 2000; i++) {
+                try {
+                    Employee employee = new Employee("Employee " + i, true, 10);
+                    employeeList.addEmployee(employee);
+                    employee.changeName("Renamed " + i);
+                    if (i % 2 == 0) {
+                        employeeList.deleteEmployee(employee);
+                    }
+                } catch (DuplicateEmployeeException | EmployeeDoesNotExistException e) {
+                    fail("Exception was thrown where no exception was expected");
+                }
+            }
+        }));
+        tasks.add(executor.submit(() -> {
+            for (int i = 0; i < 200; i++) {
+                for (Employee employee : employeeList.getAllEmployees()) {
+                    employee.recordWorkAmount(1);
+                }
+            }
+        }));
+        waitFor(tasks);
+        assertEquals(1000, employeeList.getEmployeeCount());
+        for (Employee employee : employeeList.getAllEmployees()) {
+            assertEquals(employee, employeeList.getEmployee(employee.getName()));
+            assertTrue(employee.getName().startsWith("Renamed "));
+        }
+    }
+
+    @Test
+    void testSortedIndexesStayExactUnderConcurrentWork() throws Exception {
+        for (int i = 0; i < THREADS * 10; i++) {
+            employeeList.addEmployee(new Employee("Employee " + i, true, i + 1));
+        }
+        assertEquals(THREADS * 10, employeeList.getTop(EmployeeList.Order.WAGE, Integer.MAX_VALUE).size());
+        List<Future<?>> tasks = new ArrayList<Future<?>>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int firstEmployee = thread * 10;
+            tasks.add(executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    Employee employee = employeeList.getAllEmployees().get(firstEmployee + i % 10);
+                    employee.recordWorkAmount(1);
+                    if (i % 7 == 0) {
+                        employee.payEmployee();
+                    }
+                }
+            }));
+        }
+        waitFor(tasks);
+        List<Employee> top = employeeList.getTop(EmployeeList.Order.CURRENT_OWNED, 5);
+        List<Employee> expected = new ArrayList<Employee>(employeeList.getAllEmployees());
+        expected.sort((first, second) -> Integer.compare(second.getCurrentOwned(), first.getCurrentOwned()));
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(expected.get(i).getCurrentOwned(), top.get(i).getCurrentOwned());
+        }
+        int paid = employeeList.getInRange(EmployeeList.Order.TOTAL_PAID, 1, Integer.MAX_VALUE).size();
+        assertEquals(THREADS * 10, paid);
+    }
+
+    @Test
+    void testPayrollTotalsStayExactUnderConcurrentWork() throws Exception {
+        for (int i = 0; i < THREADS * 10; i++) {
+            employeeList.addEmployee(new Employee("Employee " + i, i % 2 == 0, 20));
+        }
+        List<Future<?>> tasks = new ArrayList<Future<?>>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            tasks.add(executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    Employee employee = employeeList.getAllEmployees().get(i % (THREADS * 10));
+                    employee.recordWorkAmount(1);
+                    if (i % 7 == 0) {
+                        employee.payEmployee();
+                    }
+                    if (i % 101 == 0) {
+                        employee.changeHourlyStatus();
+                    }
+                }
+            }));
+        }
+        tasks.add(executor.submit(() -> employeeList.payAll()));
+        waitFor(tasks);
+        EmployeeListTest.checkTotals(employeeList);
+    }
+
+    private void waitFor(List<Future<?>> tasks) throws Exception {
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        executor.shutdown();
+    }
+}
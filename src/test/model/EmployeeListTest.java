@@ -8,6 +8,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -188,6 +189,159 @@ public class EmployeeListTest {
         }
     }
 
+    @Test
+    void testGetEmployeeAfterChangeName() {
+        try {
+            employee1.changeName("Robert");
+            assertEquals(employee1, notEmptyEmployeeList.getEmployee("Robert"));
+            assertTrue(notEmptyEmployeeList.contains(new Employee("Robert", true, 1)));
+            assertFalse(notEmptyEmployeeList.contains(new Employee("Bob", true, 1)));
+            notEmptyEmployeeList.getEmployee("Bob");
+            fail("Should have thrown an EmployeeDoesNotExistException");
+        } catch (EmployeeDoesNotExistException employeeDoesNotExistException) {
+            // Successfully caught exception
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            fail("Should not have got a DuplicateEmployeeException");
+        }
+    }
+
+    @Test
+    void testChangeNameOntoExistingName() {
+        List<EmployeeEvent> events = new ArrayList<EmployeeEvent>();
+        notEmptyEmployeeList.addListener(events::add);
+        try {
+            employee1.changeName("Brian");
+            fail("Should have thrown a DuplicateEmployeeException");
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            // Successfully caught exception
+        }
+        try {
+            employee3.reset("Bob", false, 1);
+            fail("Should have thrown a DuplicateEmployeeException");
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            // Successfully caught exception
+        }
+        assertEquals("Bob", employee1.getName());
+        assertEquals("John", employee3.getName());
+        assertEquals(100000, employee3.getWage());
+        assertEquals(0, events.size());
+        assertEquals(employee1, assertDoesNotThrow(() -> notEmptyEmployeeList.getEmployee("Bob")));
+        assertEquals(employee2, assertDoesNotThrow(() -> notEmptyEmployeeList.getEmployee("Brian")));
+        assertEquals(employee3, assertDoesNotThrow(() -> notEmptyEmployeeList.getEmployee("John")));
+        assertEquals(Arrays.asList(employee1, employee2), notEmptyEmployeeList.searchByName("b", 10));
+    }
+
+    @Test
+    void testChangeNameOntoNameTakenInAnotherList() {
+        EmployeeList otherList = new EmployeeList();
+        Employee zed = new Employee("Zed", true, 10);
+        assertDoesNotThrow(() -> otherList.addEmployee(employee1));
+        assertDoesNotThrow(() -> otherList.addEmployee(zed));
+        try {
+            employee1.changeName("Zed");
+            fail("Should have thrown a DuplicateEmployeeException");
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            // Successfully caught exception
+        }
+        assertEquals(employee1, assertDoesNotThrow(() -> notEmptyEmployeeList.getEmployee("Bob")));
+        assertFalse(notEmptyEmployeeList.contains(zed));
+        assertEquals(zed, assertDoesNotThrow(() -> otherList.getEmployee("Zed")));
+        assertEquals(employee1, notEmptyEmployeeList.searchByName("bo", 10).get(0));
+        assertEquals(0, notEmptyEmployeeList.searchByName("z", 10).size());
+    }
+
+    @Test
+    void testGetEmployeeAfterReset() {
+        try {
+            employee2.reset("Bryan", false, 90000);
+            assertEquals(employee2, notEmptyEmployeeList.getEmployee("Bryan"));
+            assertEquals(employee2, notEmptyEmployeeList.getAllEmployees().get(1));
+            notEmptyEmployeeList.addEmployee(new Employee("Brian", true, 20));
+            assertEquals(4, notEmptyEmployeeList.getEmployeeCount());
+        } catch (EmployeeDoesNotExistException employeeDoesNotExistException) {
+            fail("Should not have caught an EmployeeDoesNotExistException");
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            fail("Should not have got a DuplicateEmployeeException");
+        }
+    }
+
+    @Test
+    void testDeleteEmployeeByEqualEmployee() {
+        try {
+            // Delete using a different object with the same name
+            notEmptyEmployeeList.deleteEmployee(new Employee("Brian", false, 1));
+            assertEquals(2, notEmptyEmployeeList.getEmployeeCount());
+            assertFalse(notEmptyEmployeeList.contains(employee2));
+            assertEquals(employee3, notEmptyEmployeeList.getAllEmployees().get(1));
+
+            // A deleted employee is no longer tracked when renamed
+            employee2.changeName("John");
+            assertEquals(employee3, notEmptyEmployeeList.getEmployee("John"));
+            assertEquals(100000, notEmptyEmployeeList.getEmployee("John").getWage());
+        } catch (EmployeeDoesNotExistException employeeDoesNotExistException) {
+            fail("Should not have caught an EmployeeDoesNotExistException");
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            fail("Should not have got a DuplicateEmployeeException");
+        }
+    }
+
+    @Test
+    void testPayAll() {
+        PayRun payRun = notEmptyEmployeeList.payAll();
+        assertEquals(3, payRun.getEmployeeCount());
+        assertEquals(3, payRun.getEmployeesPaidCount());
+        assertEquals(employee1, payRun.getEmployee(0));
+        assertEquals(300, payRun.getAmountPaid(0));
+        assertEquals(2000, payRun.getAmountPaid(1));
+        assertEquals(100000 / 365, payRun.getAmountPaid(2));
+        assertEquals(300 + 2000 + 100000 / 365, payRun.getTotalPaid());
+        assertEquals(0, employee2.getCurrentOwned());
+        assertEquals(2000, employee2.getTotalPaid());
+
+        // Nobody is owed anything the second time
+        payRun = notEmptyEmployeeList.payAll();
+        assertEquals(3, payRun.getEmployeeCount());
+        assertEquals(0, payRun.getEmployeesPaidCount());
+        assertEquals(0, payRun.getTotalPaid());
+    }
+
+    @Test
+    void testPayEmployeesFiltered() {
+        PayRun payRun = notEmptyEmployeeList.payEmployees(employee -> employee.getHourlyStatus());
+        assertEquals(2, payRun.getEmployeeCount());
+        assertEquals(employee2, payRun.getEmployee(1));
+        assertEquals(2300, payRun.getTotalPaid());
+        assertEquals(100000 / 365, employee3.getCurrentOwned());
+        assertEquals(0, emptyEmployeeList.payAll().getEmployeeCount());
+    }
+
+    @Test
+    void testPayAllLargeList() {
+        long expectedTotal = 0;
+        try {
+            for (int i = 0; i < 100000; i++) {
+                Employee employee = new Employee("Employee " + i, i % 2 == 0, 20 + i % 7);
+                employee.recordWorkAmount(i % 40);
+                expectedTotal += employee.getCurrentOwned();
+                emptyEmployeeList.addEmployee(employee);
+            }
+        } catch (DuplicateEmployeeException e) {
+            fail("Should not have got a DuplicateEmployeeException");
+        }
+        PayRun payRun = emptyEmployeeList.payEmployees(employee -> !employee.getName().endsWith("7"));
+        assertEquals(90000, payRun.getEmployeeCount());
+        assertEquals("Employee 99999", payRun.getEmployee(89999).getName());
+
+        payRun = emptyEmployeeList.payAll();
+        assertEquals(100000, payRun.getEmployeeCount());
+        long totalPaid = 0;
+        for (Employee employee : emptyEmployeeList.getAllEmployees()) {
+            assertEquals(0, employee.getCurrentOwned());
+            totalPaid += employee.getTotalPaid();
+        }
+        assertEquals(expectedTotal, totalPaid);
+    }
+
     @Test
     void testEmptyListToJson() {
         JSONObject jsonObject = new JSONObject();
@@ -206,4 +360,271 @@ public class EmployeeListTest {
         jsonObject.put("employees", jsonArray);
         assertEquals(jsonObject.toString(), notEmptyEmployeeList.toJson().toString());
     }
+
+    @Test
+    void testSynchronousEvents() {
+        List<String> events = new ArrayList<String>();
+        notEmptyEmployeeList.addListener(event -> events.add(event.toString()));
+        try {
+            Employee employee = new Employee("Kyle", true, 40);
+            notEmptyEmployeeList.addEmployee(employee);
+            employee.changeName("Kylie");
+            employee.changeWage(45);
+            employee.changeHourlyStatus();
+            employee.recordWorkAmount(2);
+            employee.payEmployee();
+            employee.setCurrentOwnedToEmployee(7);
+            employee.setTotalPaidToEmployee(9);
+            notEmptyEmployeeList.deleteEmployee(employee2);
+        } catch (DuplicateEmployeeException e) {
+            fail("Should not have got a DuplicateEmployeeException");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("Should not have got a EmployeeDoesNotExistException");
+        }
+        assertEquals("[ADDED Kyle at 3, RENAMED Kylie, WAGE_CHANGED Kylie: 45, HOURLY_STATUS_CHANGED Kylie: 93600, "
+                + "WORK_RECORDED Kylie: 512, PAID Kylie: 512, CURRENT_OWNED_SET Kylie: 7, TOTAL_PAID_SET Kylie: 9, "
+                + "DELETED Brian at 1]", events.toString());
+    }
+
+    @Test
+    void testBatchedEvents() {
+        List<List<EmployeeEvent>> batches = new ArrayList<List<EmployeeEvent>>();
+        List<EmployeeEvent> synchronous = new ArrayList<EmployeeEvent>();
+        notEmptyEmployeeList.addListener(new EmployeeListener() {
+            @Override
+            public void employeeChanged(EmployeeEvent event) {
+                fail("Batched listener should be given whole batches");
+            }
+
+            @Override
+            public void employeesChanged(List<EmployeeEvent> events) {
+                batches.add(events);
+            }
+        }, EmployeeListener.Delivery.BATCHED);
+        notEmptyEmployeeList.addListener(synchronous::add);
+
+        employee1.changeWage(31);
+        notEmptyEmployeeList.beginBatch();
+        employee1.recordWorkAmount(1);
+        notEmptyEmployeeList.payAll();
+        assertEquals(1, batches.size());
+        assertEquals(5, synchronous.size());
+        notEmptyEmployeeList.endBatch();
+        notEmptyEmployeeList.endBatch();
+
+        assertEquals(2, batches.size());
+        assertEquals(EmployeeEvent.Type.WAGE_CHANGED, batches.get(0).get(0).getType());
+        assertEquals(4, batches.get(1).size());
+        assertEquals(EmployeeEvent.Type.WORK_RECORDED, batches.get(1).get(0).getType());
+        assertEquals(31, batches.get(1).get(0).getAmount());
+        assertEquals(EmployeeEvent.Type.PAID, batches.get(1).get(3).getType());
+    }
+
+    @Test
+    void testEmployeeListenerAndRemovingListeners() {
+        List<EmployeeEvent> employeeEvents = new ArrayList<EmployeeEvent>();
+        List<EmployeeEvent> listEvents = new ArrayList<EmployeeEvent>();
+        EmployeeListener employeeListener = employeeEvents::add;
+        EmployeeListener listListener = listEvents::add;
+        Employee standalone = new Employee("Kyle", true, 40);
+        standalone.addListener(employeeListener);
+        employee1.addListener(employeeListener);
+        notEmptyEmployeeList.addListener(listListener);
+
+        assertDoesNotThrow(() -> standalone.changeName("Kylie"));
+        employee1.recordWorkAmount(1);
+        employee2.recordWorkAmount(1);
+        assertEquals("Kyle", employeeEvents.get(0).getOldName());
+        assertEquals(2, employeeEvents.size());
+        assertEquals(2, listEvents.size());
+
+        employee1.removeListener(employeeListener);
+        notEmptyEmployeeList.removeListener(listListener);
+        employee1.recordWorkAmount(1);
+        assertEquals(2, employeeEvents.size());
+        assertEquals(2, listEvents.size());
+    }
+
+    @Test
+    void testCopy() {
+        List<EmployeeEvent> events = new ArrayList<EmployeeEvent>();
+        notEmptyEmployeeList.addListener(events::add);
+        employee1.payEmployee();
+        EmployeeList copy = notEmptyEmployeeList.copy();
+        events.clear();
+
+        assertEquals(3, copy.getEmployeeCount());
+        Employee copyOfEmployee1 = copy.getAllEmployees().get(0);
+        assertNotSame(employee1, copyOfEmployee1);
+        assertEquals("Bob", copyOfEmployee1.getName());
+        assertTrue(copyOfEmployee1.getHourlyStatus());
+        assertEquals(30, copyOfEmployee1.getWage());
+        assertEquals(0, copyOfEmployee1.getCurrentOwned());
+        assertEquals(300, copyOfEmployee1.getTotalPaid());
+
+        assertDoesNotThrow(() -> copyOfEmployee1.changeName("Bobby"));
+        copy.getAllEmployees().get(1).recordWorkAmount(1);
+        employee3.recordWorkAmount(1);
+        assertEquals(1, events.size());
+        assertEquals("Bob", employee1.getName());
+        assertEquals(copyOfEmployee1, assertDoesNotThrow(() -> copy.getEmployee("Bobby")));
+        assertEquals(2000, employee2.getCurrentOwned());
+        assertEquals(2 * 273, employee3.getCurrentOwned());
+        assertEquals(273, copy.getAllEmployees().get(2).getCurrentOwned());
+    }
+
+    @Test
+    void testSearchByName() {
+        try {
+            Employee employeeBobby = new Employee("bobby", false, 60000);
+            notEmptyEmployeeList.addEmployee(employeeBobby);
+            List<Employee> matches = notEmptyEmployeeList.searchByName("BO", 10);
+            assertEquals(2, matches.size());
+            assertEquals(employee1, matches.get(0));
+            assertEquals(employeeBobby, matches.get(1));
+            assertEquals(1, notEmptyEmployeeList.searchByName("b", 1).size());
+            assertEquals(4, notEmptyEmployeeList.searchByName("", 10).size());
+            assertTrue(notEmptyEmployeeList.searchByName("x", 10).isEmpty());
+
+            employee2.changeName("Zed");
+            assertTrue(notEmptyEmployeeList.searchByName("bri", 10).isEmpty());
+            assertEquals(employee2, notEmptyEmployeeList.searchByName("z", 10).get(0));
+
+            notEmptyEmployeeList.deleteEmployee(employee1);
+            assertEquals(1, notEmptyEmployeeList.searchByName("bo", 10).size());
+            assertEquals(1, notEmptyEmployeeList.copy().searchByName("bo", 10).size());
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testSortedIndexes() {
+        try {
+            // Bob is owed 300, Brian 2000 and John 273
+            assertEquals(employee2, notEmptyEmployeeList.getTop(EmployeeList.Order.CURRENT_OWNED, 1).get(0));
+            assertEquals(3, notEmptyEmployeeList.getTop(EmployeeList.Order.WAGE, 5).size());
+            List<Employee> hourlyWages = notEmptyEmployeeList.getInRange(EmployeeList.Order.WAGE, 1, 100);
+            assertEquals(employee1, hourlyWages.get(0));
+            assertEquals(employee2, hourlyWages.get(1));
+            assertEquals(2, notEmptyEmployeeList.getEmployeesByHourlyStatus(true).size());
+            assertEquals(employee3, notEmptyEmployeeList.getEmployeesByHourlyStatus(false).get(0));
+
+            employee2.payEmployee();
+            employee1.recordWorkAmount(100);
+            employee3.changeHourlyStatus();
+            List<Employee> topOwed = notEmptyEmployeeList.getTop(EmployeeList.Order.CURRENT_OWNED, 2);
+            assertEquals(employee1, topOwed.get(0));
+            assertEquals(employee3, topOwed.get(1));
+            assertEquals(employee2, notEmptyEmployeeList.getTop(EmployeeList.Order.TOTAL_PAID, 1).get(0));
+            assertEquals(3, notEmptyEmployeeList.getEmployeesByHourlyStatus(true).size());
+            assertEquals(3, notEmptyEmployeeList.getInRange(EmployeeList.Order.WAGE, 1, 100).size());
+
+            Employee employeeKyle = new Employee("Kyle", false, 90000);
+            notEmptyEmployeeList.addEmployee(employeeKyle);
+            notEmptyEmployeeList.deleteEmployee(employee2);
+            employeeKyle.changeWage(95000);
+            assertEquals(employeeKyle, notEmptyEmployeeList.getTop(EmployeeList.Order.WAGE, 1).get(0));
+            assertTrue(notEmptyEmployeeList.getInRange(EmployeeList.Order.TOTAL_PAID, 1, 5000).isEmpty());
+            assertTrue(notEmptyEmployeeList.getInRange(EmployeeList.Order.WAGE, 100, 1).isEmpty());
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testSortedIndexLeavesOutEmployeesDeletedWhileFilling() {
+        SortedIndex[] index = new SortedIndex[1];
+        boolean[] changed = new boolean[1];
+        index[0] = new SortedIndex(employee -> {
+            if (!changed[0]) {
+                changed[0] = true;
+                index[0].employeeChanged(membershipEvent(EmployeeEvent.Type.DELETED, employee3));
+                index[0].employeeChanged(membershipEvent(EmployeeEvent.Type.DELETED, employee2));
+                index[0].employeeChanged(membershipEvent(EmployeeEvent.Type.ADDED, employee2));
+            }
+            return employee.getWage();
+        }, EmployeeEvent.Type.WAGE_CHANGED);
+        index[0].fill(new Employee[] {employee1, employee2, employee3});
+        assertEquals(Arrays.asList(employee1, employee2), index[0].range(0, Integer.MAX_VALUE));
+        index[0].employeeChanged(membershipEvent(EmployeeEvent.Type.DELETED, employee1));
+        assertEquals(Arrays.asList(employee2), index[0].top(3));
+    }
+
+    @Test
+    void testSortedIndexesAfterBatches() {
+        assertEquals(employee2, notEmptyEmployeeList.getTop(EmployeeList.Order.CURRENT_OWNED, 1).get(0));
+        notEmptyEmployeeList.payAll();
+        assertEquals(3, notEmptyEmployeeList.getInRange(EmployeeList.Order.CURRENT_OWNED, 0, 0).size());
+        assertEquals(employee2, notEmptyEmployeeList.getTop(EmployeeList.Order.TOTAL_PAID, 1).get(0));
+
+        notEmptyEmployeeList.beginBatch();
+        employee1.recordWorkAmount(100);
+        assertEquals(employee1, notEmptyEmployeeList.getTop(EmployeeList.Order.CURRENT_OWNED, 1).get(0));
+        employee3.recordWorkAmount(1);
+        assertDoesNotThrow(() -> employee1.changeName("Bobby"));
+        notEmptyEmployeeList.endBatch();
+        List<Employee> topOwed = notEmptyEmployeeList.getTop(EmployeeList.Order.CURRENT_OWNED, 2);
+        assertEquals(employee1, topOwed.get(0));
+        assertEquals(employee3, topOwed.get(1));
+        assertEquals(employee1, notEmptyEmployeeList.getInRange(EmployeeList.Order.WAGE, 1, 30).get(0));
+    }
+
+    @Test
+    void testPayrollTotals() {
+        try {
+            checkTotals(notEmptyEmployeeList);
+            assertEquals(2573, notEmptyEmployeeList.getTotalOwed());
+            assertEquals(0, notEmptyEmployeeList.getTotalPaid());
+            assertEquals(2, notEmptyEmployeeList.getHourlyCount());
+            assertEquals(1, notEmptyEmployeeList.getSalariedCount());
+
+            employee2.payEmployee();
+            employee1.recordWorkAmount(100);
+            employee3.changeHourlyStatus();
+            employee3.changeHourlyStatus();
+            employee1.changeHourlyStatus();
+            checkTotals(notEmptyEmployeeList);
+            assertEquals(1, notEmptyEmployeeList.getHourlyCount());
+
+            employee3.setCurrentOwnedToEmployee(10);
+            employee3.setTotalPaidToEmployee(500);
+            notEmptyEmployeeList.payAll();
+            notEmptyEmployeeList.deleteEmployee(employee2);
+            notEmptyEmployeeList.addEmployee(new Employee("Kyle", true, 20));
+            employee1.reset("Bobby", true, 10);
+            checkTotals(notEmptyEmployeeList);
+            checkTotals(notEmptyEmployeeList.copy());
+            assertEquals(0, notEmptyEmployeeList.getTotalOwed());
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    // EFFECTS: checks that the totals kept by employeeList match those found by going through its employees
+    static void checkTotals(EmployeeList employeeList) {
+        long owed = 0;
+        long paid = 0;
+        int hourly = 0;
+        for (Employee employee : employeeList.getAllEmployees()) {
+            owed += employee.getCurrentOwned();
+            paid += employee.getTotalPaid();
+            hourly += employee.getHourlyStatus() ? 1 : 0;
+        }
+        assertEquals(owed, employeeList.getTotalOwed());
+        assertEquals(paid, employeeList.getTotalPaid());
+        assertEquals(hourly, employeeList.getHourlyCount());
+        assertEquals(employeeList.getEmployeeCount() - hourly, employeeList.getSalariedCount());
+    }
+
+    // EFFECTS: returns an ADDED or DELETED event about employee
+    private EmployeeEvent membershipEvent(EmployeeEvent.Type type, Employee employee) {
+        return new EmployeeEvent(type, employee, employee.getName(), employee.getName(), 0, 0, 0);
+    }
 }
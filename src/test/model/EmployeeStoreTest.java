@@ -0,0 +1,161 @@
+package model;
+
+import exceptions.DuplicateEmployeeException;
+import exceptions.EmployeeDoesNotExistException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeStoreTest {
+    private EmployeeStore store;
+    private EmployeeView employeeBob;
+    private EmployeeView employeeJohn;
+
+    @BeforeEach
+    void runBefore() {
+        store = new EmployeeStore();
+        try {
+            employeeBob = store.addEmployee("Bob", true, 30);
+            employeeJohn = store.addEmployee("John", false, 100000);
+        } catch (DuplicateEmployeeException e) {
+            fail("Should not have got a DuplicateEmployeeException");
+        }
+    }
+
+    @Test
+    void testAddAndGetEmployee() {
+        try {
+            assertEquals(2, store.getEmployeeCount());
+            assertEquals(employeeBob, store.getEmployee("Bob"));
+            assertTrue(store.contains("John"));
+            assertFalse(store.contains("Brian"));
+            assertEquals("John", employeeJohn.getName());
+            assertFalse(employeeJohn.getHourlyStatus());
+            assertEquals(100000, employeeJohn.getWage());
+            store.getEmployee("Brian");
+            fail("EmployeeDoesNotExistException was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testAddDuplicateEmployee() {
+        try {
+            store.addEmployee("Bob", false, 1);
+            fail("DuplicateEmployeeException was expected");
+        } catch (DuplicateEmployeeException e) {
+            assertEquals(2, store.getEmployeeCount());
+        }
+    }
+
+    @Test
+    void testDeleteEmployeeReusesRow() {
+        try {
+            int row = employeeBob.getRow();
+            employeeBob.recordWorkAmount(10);
+            store.deleteEmployee("Bob");
+            assertFalse(store.contains("Bob"));
+            assertFalse(store.isOccupied(row));
+            assertEquals(0, store.getTotalOwed());
+            EmployeeView employeeBrian = store.addEmployee("Brian", true, 50);
+            assertEquals(row, employeeBrian.getRow());
+            assertEquals(0, employeeBrian.getCurrentOwned());
+            store.deleteEmployee("Bob");
+            fail("EmployeeDoesNotExistException was expected");
+        } catch (DuplicateEmployeeException e) {
+            fail("Should not have got a DuplicateEmployeeException");
+        } catch (EmployeeDoesNotExistException e) {
+            assertEquals(2, store.getEmployeeCount());
+        }
+    }
+
+    @Test
+    void testViewOperationsMatchEmployee() {
+        Employee employee = new Employee("Bob", true, 30);
+        employee.recordWorkAmount(10);
+        employeeBob.recordWorkAmount(10);
+        assertEquals(employee.changeHourlyStatus(), employeeBob.changeHourlyStatus());
+        employee.recordWorkAmount(3);
+        employeeBob.recordWorkAmount(3);
+        assertEquals(employee.payEmployee(), employeeBob.payEmployee());
+        try {
+            employee.reset("Bobby", true, 40);
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        }
+        employeeBob.reset("Bobby", true, 40);
+        employee.changeWage(45);
+        employeeBob.changeWage(45);
+        assertEquals(employee.toJson().toString(), employeeBob.toJson().toString());
+        assertTrue(store.contains("Bobby"));
+        assertFalse(store.contains("Bob"));
+    }
+
+    @Test
+    void testTotalsAndPayAll() {
+        employeeBob.recordWorkAmount(10);
+        employeeJohn.recordWorkAmount(1);
+        assertEquals(300 + 273, store.getTotalOwed());
+        assertEquals(573, store.payAll());
+        assertEquals(0, store.getTotalOwed());
+        assertEquals(573, store.getTotalPaid());
+        assertEquals(300, employeeBob.getTotalPaid());
+    }
+
+    @Test
+    void testConvertToAndFromEmployeeList() {
+        employeeBob.recordWorkAmount(10);
+        employeeJohn.setTotalPaidToEmployee(500);
+        EmployeeList employeeList = store.toEmployeeList();
+        assertEquals(store.toJson().toString(), employeeList.toJson().toString());
+        assertEquals(employeeList.toJson().toString(), EmployeeStore.of(employeeList).toJson().toString());
+    }
+
+    @Test
+    void testManyEmployeesWithRenamesAndDeletes() {
+        try {
+            for (int i = 0; i < 100000; i++) {
+                store.addEmployee("Employee " + i, i % 2 == 0, i + 1);
+            }
+            for (int i = 0; i < 100000; i += 3) {
+                store.deleteEmployee("Employee " + i);
+            }
+            for (int i = 1; i < 100000; i += 3) {
+                store.getEmployee("Employee " + i).changeName("Renamed " + i);
+            }
+            assertEquals(2 + 100000 - 33334, store.getEmployeeCount());
+            for (int i = 0; i < 100000; i++) {
+                assertEquals(i % 3 == 2, store.contains("Employee " + i));
+                assertEquals(i % 3 == 1, store.contains("Renamed " + i));
+            }
+            assertEquals(1 + 1, store.getEmployee("Renamed 1").getWage());
+        } catch (DuplicateEmployeeException e) {
+            fail("Should not have got a DuplicateEmployeeException");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("Should not have got a EmployeeDoesNotExistException");
+        }
+    }
+
+    @Test
+    void testDeleteEmployeesAddedWhenIndexGrew() {
+        try {
+            EmployeeStore emptyStore = new EmployeeStore();
+            for (int i = 0; i < 1025; i++) {
+                emptyStore.addEmployee("e" + i, true, 10);
+            }
+            for (int i = 0; i < 1025; i++) {
+                emptyStore.deleteEmployee("e" + i);
+                assertFalse(emptyStore.contains("e" + i));
+            }
+            assertEquals(0, emptyStore.getEmployeeCount());
+            emptyStore.addEmployee("e16", true, 20);
+            assertEquals(20, emptyStore.getEmployee("e16").getWage());
+        } catch (DuplicateEmployeeException e) {
+            fail("Should not have got a DuplicateEmployeeException");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("Should not have got a EmployeeDoesNotExistException");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package model;
 
+import exceptions.DuplicateEmployeeException;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,7 +27,11 @@ class EmployeeTest {
     @Test
     void testChangeName() {
         assertEquals("John", testEmployee.getName());
-        testEmployee.changeName("Brian");
+        try {
+            testEmployee.changeName("Brian");
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        }
         assertEquals("Brian", testEmployee.getName());
     }
 
@@ -94,7 +99,11 @@ class EmployeeTest {
 
     @Test
     void testReset() {
-        testEmployee.reset("Brian", false, 80000);
+        try {
+            testEmployee.reset("Brian", false, 80000);
+        } catch (DuplicateEmployeeException duplicateEmployeeException) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        }
         assertEquals(testEmployee.getName(), "Brian");
         assertEquals(testEmployee.getHourlyStatus(), false);
         assertEquals(testEmployee.getWage(), 80000);
@@ -137,4 +146,54 @@ class EmployeeTest {
         json.put("totalPaidToEmployee", 0);
         assertEquals(json.toString(), testEmployee.toJson().toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSettersKeepOtherBalance() {
+        testEmployee.setCurrentOwnedToEmployee(100);
+        testEmployee.setTotalPaidToEmployee(Integer.MAX_VALUE);
+        assertEquals(100, testEmployee.getCurrentOwned());
+        assertEquals(Integer.MAX_VALUE, testEmployee.getTotalPaid());
+        testEmployee.setCurrentOwnedToEmployee(0);
+        assertEquals(0, testEmployee.getCurrentOwned());
+        assertEquals(Integer.MAX_VALUE, testEmployee.getTotalPaid());
+    }
+
+    @Test
+    void testRecordWorkDoesNotCarryIntoTotalPaid() {
+        testEmployee.setTotalPaidToEmployee(7);
+        testEmployee.setCurrentOwnedToEmployee(-35);
+        testEmployee.recordWorkAmount(2);
+        assertEquals(35, testEmployee.getCurrentOwned());
+        assertEquals(7, testEmployee.getTotalPaid());
+        testEmployee.recordWorkAmount(-2);
+        assertEquals(-35, testEmployee.getCurrentOwned());
+        assertEquals(7, testEmployee.getTotalPaid());
+    }
+
+    @Test
+    void testConcurrentRecordWorkAndPay() throws InterruptedException {
+        Thread[] threads = new Thread[8];
+        int[] paidByPayer = new int[1];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    testEmployee.recordWorkAmount(1);
+                }
+            });
+            threads[i].start();
+        }
+        Thread payer = new Thread(() -> {
+            for (int j = 0; j < 1000; j++) {
+                paidByPayer[0] += testEmployee.payEmployee();
+            }
+        });
+        payer.start();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        payer.join();
+        int total = threads.length * 10000 * 35;
+        assertEquals(total, testEmployee.getCurrentOwned() + testEmployee.getTotalPaid());
+        assertEquals(paidByPayer[0], testEmployee.getTotalPaid());
+    }
+}
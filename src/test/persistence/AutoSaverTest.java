@@ -0,0 +1,163 @@
+package persistence;
+
+import exceptions.DuplicateEmployeeException;
+import exceptions.EmployeeDoesNotExistException;
+import model.Employee;
+import model.EmployeeList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutoSaverTest extends JsonTest {
+    private Path directory;
+    private String source;
+    private EmployeeList employeeList;
+    private Journal journal;
+    private ReentrantLock listLock;
+    private AutoSaver autoSaver;
+    private BlockingQueue<Boolean> saves;
+
+    @BeforeEach
+    void runBefore() {
+        try {
+            directory = Files.createTempDirectory("testAutoSaver");
+            source = directory.resolve("employees.json").toString();
+            employeeList = new EmployeeList();
+            employeeList.addEmployee(new Employee("Brian", true, 30));
+            employeeList.addEmployee(new Employee("Bob", false, 55000));
+            journal = new Journal(source);
+            journal.open();
+            employeeList.addListener(journal);
+            saves = new LinkedBlockingQueue<Boolean>();
+            listLock = new ReentrantLock();
+            autoSaver = new AutoSaver(source, journal, listLock, 50);
+            autoSaver.setSaveListener((succeeded, requested) -> saves.add(succeeded));
+            autoSaver.watch(employeeList);
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        }
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        autoSaver.close();
+        journal.close();
+        for (File file : directory.toFile().listFiles()) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testBurstOfChangesIsSavedOnce() {
+        try {
+            for (int i = 0; i < 100; i++) {
+                employeeList.getEmployee("Brian").recordWorkAmount(1);
+            }
+            employeeList.payAll();
+            assertEquals(Boolean.TRUE, saves.poll(5, TimeUnit.SECONDS));
+            assertNull(saves.poll(200, TimeUnit.MILLISECONDS));
+            assertTrue(autoSaver.getLastSaved() > 0);
+
+            assertEquals(16, Files.size(directory.resolve("employees.json.journal")));
+            EmployeeList saved = new JsonReader(source).read();
+            checkEmployee(true, 3000, "Brian", 0, 30, saved.getEmployee("Brian"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        } catch (InterruptedException e) {
+            fail("InterruptedException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testSaveNowAndChangesAfterSave() {
+        try {
+            autoSaver.saveNow();
+            assertEquals(Boolean.TRUE, saves.poll(5, TimeUnit.SECONDS));
+            employeeList.getEmployee("Bob").changeWage(60000);
+            assertEquals(Boolean.TRUE, saves.poll(5, TimeUnit.SECONDS));
+            employeeList.getEmployee("Brian").recordWorkAmount(2);
+            autoSaver.stop();
+            autoSaver.awaitSaves();
+            journal.close();
+
+            EmployeeList loaded = new JsonReader(source).read();
+            checkEmployee(false, 0, "Bob", 0, 60000, loaded.getEmployee("Bob"));
+            checkEmployee(true, 0, "Brian", 60, 30, loaded.getEmployee("Brian"));
+            assertNull(saves.poll(200, TimeUnit.MILLISECONDS));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        } catch (InterruptedException e) {
+            fail("InterruptedException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testStopDoesNotWaitForSaveWaitingOnListLock() {
+        try {
+            listLock.lock();
+            try {
+                autoSaver.saveNow();
+                employeeList.getEmployee("Brian").recordWorkAmount(4);
+                Thread.sleep(100);
+                autoSaver.stop();
+            } finally {
+                listLock.unlock();
+            }
+            autoSaver.awaitSaves();
+            assertNull(saves.poll());
+            assertFalse(new File(source).exists());
+
+            EmployeeList replayed = new EmployeeList();
+            replayed.addEmployee(new Employee("Brian", true, 30));
+            assertEquals(1, new Journal(source).replay(replayed));
+            assertEquals(120, replayed.getEmployee("Brian").getCurrentOwned());
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        } catch (InterruptedException e) {
+            fail("InterruptedException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testFailedSaveKeepsChangesInJournal() {
+        try {
+            // A directory that is not empty cannot be replaced by the saved file
+            Path blocked = Files.createDirectory(directory.resolve("employees.json"));
+            Files.createFile(blocked.resolve("blocker"));
+            employeeList.getEmployee("Brian").recordWorkAmount(2);
+            autoSaver.saveNow();
+            assertEquals(Boolean.FALSE, saves.poll(5, TimeUnit.SECONDS));
+            assertEquals(0, autoSaver.getLastSaved());
+            assertFalse(Files.exists(directory.resolve("employees.json.journal.pending")));
+            Files.delete(blocked.resolve("blocker"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        } catch (InterruptedException e) {
+            fail("InterruptedException was thrown where no exception was expected");
+        }
+    }
+}
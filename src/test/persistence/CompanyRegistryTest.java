@@ -0,0 +1,133 @@
+package persistence;
+
+import model.Employee;
+import model.EmployeeList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompanyRegistryTest extends JsonTest {
+    private static final long IDLE_MILLIS = 200;
+
+    private Path directory;
+    private CompanyRegistry registry;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("testCompanyRegistry");
+        registry = new CompanyRegistry(directory.resolve("companies").toString(), IDLE_MILLIS);
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        registry.close();
+        File companies = directory.resolve("companies").toFile();
+        if (companies.exists()) {
+            for (File file : companies.listFiles()) {
+                Files.delete(file.toPath());
+            }
+            Files.delete(companies.toPath());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testLoadsLazilyAndSaves() throws Exception {
+        assertTrue(registry.getLoadedCompanies().isEmpty());
+        EmployeeList acme = registry.lock("acme");
+        try {
+            assertEquals(0, acme.getEmployeeCount());
+            acme.addEmployee(new Employee("Brian", true, 30));
+            acme.getEmployee("Brian").recordWorkAmount(10);
+        } finally {
+            registry.unlock("acme");
+        }
+        assertEquals(new HashSet<String>(Arrays.asList("acme")), registry.getLoadedCompanies());
+
+        registry.save("acme");
+        EmployeeList saved = new JsonReader(registry.getSource("acme")).read();
+        checkEmployee(true, 0, "Brian", 300, 30, saved.getEmployee("Brian"));
+        assertFalse(CompanyRegistry.isCompanyName("../acme"));
+        assertThrows(IllegalArgumentException.class, () -> registry.lock("../acme"));
+    }
+
+    @Test
+    void testEvictsIdleCompaniesButNotLockedOnes() throws Exception {
+        EmployeeList acme = registry.lock("acme");
+        acme.addEmployee(new Employee("Bob", false, 55000));
+        registry.unlock("acme");
+        EmployeeList globex = registry.lock("globex");
+        try {
+            Thread.sleep(IDLE_MILLIS * 3);
+            registry.evictIdle();
+            assertEquals(new HashSet<String>(Arrays.asList("globex")), registry.getLoadedCompanies());
+            assertSame(globex, registry.lock("globex"));
+            registry.unlock("globex");
+        } finally {
+            registry.unlock("globex");
+        }
+
+        // The evicted company was saved and is loaded again from its file
+        assertTrue(Files.exists(Paths.get(registry.getSource("acme"))));
+        EmployeeList reloaded = registry.lock("acme");
+        try {
+            assertNotSame(acme, reloaded);
+            checkEmployee(false, 0, "Bob", 0, 55000, reloaded.getEmployee("Bob"));
+        } finally {
+            registry.unlock("acme");
+        }
+    }
+
+    @Test
+    void testCompaniesDoNotBlockEachOther() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> {
+            registry.lock("acme");
+            try {
+                locked.countDown();
+                release.await();
+            } finally {
+                registry.unlock("acme");
+            }
+            return null;
+        });
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        EmployeeList globex = registry.lock("globex");
+        try {
+            globex.addEmployee(new Employee("Kylie", true, 25));
+            assertEquals(1, globex.getEmployeeCount());
+        } finally {
+            registry.unlock("globex");
+        }
+        release.countDown();
+        holder.get();
+        executor.shutdown();
+    }
+
+    @Test
+    void testCloseSavesChangedCompanies() throws Exception {
+        EmployeeList acme = registry.lock("acme");
+        acme.addEmployee(new Employee("Bob", true, 20));
+        registry.unlock("acme");
+        registry.close();
+        assertTrue(registry.getLoadedCompanies().isEmpty());
+        assertEquals(1, new JsonReader(registry.getSource("acme")).read().getEmployeeCount());
+    }
+}
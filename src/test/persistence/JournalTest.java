@@ -0,0 +1,287 @@
+package persistence;
+
+import exceptions.DuplicateEmployeeException;
+import exceptions.EmployeeDoesNotExistException;
+import model.Employee;
+import model.EmployeeList;
+import model.EmployeeListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalTest extends JsonTest {
+    private Path directory;
+    private String source;
+    private EmployeeList employeeList;
+    private Journal journal;
+
+    @BeforeEach
+    void runBefore() {
+        try {
+            directory = Files.createTempDirectory("testJournal");
+            source = directory.resolve("employees.json").toString();
+            employeeList = new EmployeeList();
+            employeeList.addEmployee(new Employee("Brian", true, 30));
+            employeeList.addEmployee(new Employee("Bob", false, 55000));
+            employeeList.addEmployee(new Employee("Ashley", false, 110000));
+            save();
+            journal = new Journal(source);
+            journal.open();
+            employeeList.addListener(journal, EmployeeListener.Delivery.BATCHED);
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        }
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        journal.close();
+        for (File file : directory.toFile().listFiles()) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testReplayEveryKindOfChange() {
+        try {
+            Employee employeeKyle = new Employee("Kyle", true, 40);
+            employeeKyle.setCurrentOwnedToEmployee(100);
+            employeeList.addEmployee(employeeKyle);
+            employeeList.deleteEmployee(employeeList.getEmployee("Bob"));
+            employeeList.getEmployee("Brian").changeName("Bryan");
+            employeeList.getEmployee("Bryan").changeWage(35);
+            employeeList.getEmployee("Bryan").recordWorkAmount(10);
+            employeeList.getEmployee("Ashley").changeHourlyStatus();
+            employeeList.getEmployee("Ashley").recordWorkAmount(2);
+            employeeList.getEmployee("Kyle").recordWorkAmount(5);
+            employeeList.getEmployee("Kyle").payEmployee();
+            employeeList.getEmployee("Kyle").reset("Kylie", false, 90000);
+            journal.close();
+
+            EmployeeList replayed = new JsonReader(source).read();
+            assertEquals(3, replayed.getEmployeeCount());
+            assertFalse(replayed.contains(new Employee("Bob", false, 1)));
+            checkEmployee(true, 0, "Bryan", 350, 35, replayed.getAllEmployees().get(0));
+            checkEmployee(true, 0, "Ashley", 2 * 52, 52, replayed.getEmployee("Ashley"));
+            checkEmployee(false, 300, "Kylie", 0, 90000, replayed.getEmployee("Kylie"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testReplaySetters() {
+        try {
+            employeeList.getEmployee("Bob").setCurrentOwnedToEmployee(1234);
+            employeeList.getEmployee("Bob").setTotalPaidToEmployee(5678);
+            journal.close();
+
+            EmployeeList replayed = new JsonReader(source).read();
+            checkEmployee(false, 5678, "Bob", 1234, 55000, replayed.getEmployee("Bob"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testPayRunJournalsOnlyEmployeesPaid() {
+        try {
+            employeeList.getEmployee("Brian").recordWorkAmount(10);
+            employeeList.getEmployee("Ashley").recordWorkAmount(2);
+            employeeList.getEmployee("Ashley").payEmployee();
+            employeeList.payAll();
+            journal.checkAppended();
+            journal.close();
+
+            // Two records of work, one of Ashley's pay and one of Brian's; Bob and Ashley are paid nothing by the pay
+            // run, which takes no records
+            assertEquals(4, new Journal(source).replay(new EmployeeList()));
+            EmployeeList replayed = new JsonReader(source).read();
+            checkEmployee(true, 300, "Brian", 0, 30, replayed.getEmployee("Brian"));
+            checkEmployee(false, 0, "Bob", 0, 55000, replayed.getEmployee("Bob"));
+            int ashleyPaid = employeeList.getEmployee("Ashley").getTotalPaid();
+            assertTrue(ashleyPaid > 0);
+            checkEmployee(false, ashleyPaid, "Ashley", 0, 110000, replayed.getEmployee("Ashley"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testReplayStopsAtTornRecord() {
+        try {
+            employeeList.getEmployee("Brian").recordWorkAmount(10);
+            journal.close();
+            Files.write(Paths.get(source + Journal.SUFFIX), new byte[] {6, 0, 9, 'B'}, StandardOpenOption.APPEND);
+
+            assertEquals(1, new Journal(source).replay(new EmployeeList()));
+            EmployeeList replayed = new JsonReader(source).read();
+            checkEmployee(true, 0, "Brian", 300, 30, replayed.getEmployee("Brian"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testClearAfterSave() {
+        try {
+            employeeList.getEmployee("Brian").recordWorkAmount(10);
+            save();
+            journal.clear();
+            employeeList.getEmployee("Brian").recordWorkAmount(1);
+            journal.close();
+
+            EmployeeList replayed = new JsonReader(source).read();
+            checkEmployee(true, 0, "Brian", 330, 30, replayed.getEmployee("Brian"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testStaleJournalIsNotReplayed() {
+        try {
+            employeeList.getEmployee("Brian").recordWorkAmount(10);
+            journal.close();
+
+            // Saved in full, but the application stopped before the journal was cleared
+            save();
+            EmployeeList replayed = new JsonReader(source).read();
+            checkEmployee(true, 0, "Brian", 300, 30, replayed.getEmployee("Brian"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testStaleJournalIsNotReplayedOnSaveOfSameSizeAndTime() {
+        try {
+            employeeList.getEmployee("Brian").setCurrentOwnedToEmployee(100);
+            save();
+            journal.clear();
+            FileTime modified = Files.getLastModifiedTime(Paths.get(source));
+            long size = Files.size(Paths.get(source));
+            employeeList.getEmployee("Brian").recordWorkAmount(10);
+            journal.close();
+
+            // Saved in full, with the same size and modification time, but the journal was never cleared
+            save();
+            Files.setLastModifiedTime(Paths.get(source), modified);
+            assertEquals(size, Files.size(Paths.get(source)));
+            EmployeeList replayed = new JsonReader(source).read();
+            checkEmployee(true, 0, "Brian", 400, 30, replayed.getEmployee("Brian"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testCommitKeepsChangesMadeDuringSave() {
+        try {
+            employeeList.getEmployee("Brian").recordWorkAmount(10);
+            EmployeeList copy = employeeList.copy();
+            journal.checkpoint();
+            employeeList.getEmployee("Brian").recordWorkAmount(1);
+            save(copy);
+            journal.commit();
+            employeeList.getEmployee("Brian").recordWorkAmount(2);
+            journal.close();
+
+            assertFalse(Files.exists(Paths.get(source + Journal.SUFFIX + Journal.PENDING_SUFFIX)));
+            EmployeeList replayed = new JsonReader(source).read();
+            checkEmployee(true, 0, "Brian", 390, 30, replayed.getEmployee("Brian"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testAbortKeepsEveryChange() {
+        try {
+            employeeList.getEmployee("Brian").recordWorkAmount(10);
+            journal.checkpoint();
+            employeeList.getEmployee("Brian").recordWorkAmount(1);
+            journal.abort();
+            employeeList.getEmployee("Brian").recordWorkAmount(2);
+            journal.close();
+
+            assertFalse(Files.exists(Paths.get(source + Journal.SUFFIX + Journal.PENDING_SUFFIX)));
+            EmployeeList replayed = new JsonReader(source).read();
+            checkEmployee(true, 0, "Brian", 390, 30, replayed.getEmployee("Brian"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testReplayAfterCrashDuringSave() {
+        try {
+            employeeList.getEmployee("Brian").recordWorkAmount(10);
+            EmployeeList copy = employeeList.copy();
+            journal.checkpoint();
+            employeeList.getEmployee("Brian").recordWorkAmount(1);
+            journal.close();
+
+            // Stopped before the data file was replaced
+            checkEmployee(true, 0, "Brian", 330, 30, new JsonReader(source).read().getEmployee("Brian"));
+
+            // Stopped after the data file was replaced but before the journal was committed
+            save(copy);
+            checkEmployee(true, 0, "Brian", 330, 30, new JsonReader(source).read().getEmployee("Brian"));
+
+            Journal reopened = new Journal(source);
+            reopened.open();
+            reopened.close();
+            assertFalse(Files.exists(Paths.get(source + Journal.SUFFIX + Journal.PENDING_SUFFIX)));
+            checkEmployee(true, 0, "Brian", 330, 30, new JsonReader(source).read().getEmployee("Brian"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    private void save() throws IOException {
+        save(employeeList);
+    }
+
+    private void save(EmployeeList employeesToSave) throws IOException {
+        JsonWriter writer = new JsonWriter(source, JsonWriter.SaveMode.ATOMIC);
+        writer.open();
+        writer.write(employeesToSave);
+        writer.close();
+    }
+}
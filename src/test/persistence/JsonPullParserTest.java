@@ -0,0 +1,121 @@
+package persistence;
+
+import exceptions.MalformedFileException;
+import org.junit.jupiter.api.Test;
+import persistence.JsonPullParser.Token;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonPullParserTest {
+
+    private JsonPullParser parserFor(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new JsonPullParser(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    void testTokens() {
+        JsonPullParser parser = parserFor("{\"a\": [1, -2.5, true, false, null, \"x\"], \"b\": {}}");
+        try {
+            assertEquals(Token.START_OBJECT, parser.next());
+            assertEquals(Token.NAME, parser.next());
+            assertEquals("a", parser.getText());
+            assertEquals(Token.START_ARRAY, parser.next());
+            assertEquals(Token.NUMBER, parser.next());
+            assertEquals(1, parser.getInt());
+            assertEquals(Token.NUMBER, parser.next());
+            assertEquals(-2, parser.getInt());
+            assertEquals(Token.TRUE, parser.next());
+            assertTrue(parser.getBoolean());
+            assertEquals(Token.FALSE, parser.next());
+            assertFalse(parser.getBoolean());
+            assertEquals(Token.NULL, parser.next());
+            assertEquals(Token.STRING, parser.next());
+            assertEquals("x", parser.getText());
+            assertEquals(Token.END_ARRAY, parser.next());
+            assertEquals(Token.NAME, parser.next());
+            assertTrue(parser.textEquals("b"));
+            assertEquals(Token.START_OBJECT, parser.next());
+            assertEquals(Token.END_OBJECT, parser.next());
+            assertEquals(Token.END_OBJECT, parser.next());
+            assertEquals(Token.END_DOCUMENT, parser.next());
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testEscapesAndOffsets() {
+        JsonPullParser parser = parserFor("[\"tab\\there\", \"\\ud83d\\ude00 \\u00e9\\\\\"]");
+        try {
+            assertEquals(Token.START_ARRAY, parser.next());
+            assertEquals(0, parser.getTokenOffset());
+            assertEquals(Token.STRING, parser.next());
+            assertEquals(1, parser.getTokenOffset());
+            assertEquals("tab\there", parser.getText());
+            assertEquals(Token.STRING, parser.next());
+            assertEquals("\ud83d\ude00 \u00e9\\", parser.getText());
+            assertTrue(parser.textEquals("\ud83d\ude00 \u00e9\\"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testSkipValue() {
+        JsonPullParser parser = parserFor("{\"skip\": {\"x\": [1, {\"y\": 2}]}, \"keep\": 7}");
+        try {
+            parser.next();
+            parser.next();
+            parser.skipValue();
+            assertEquals(Token.NAME, parser.next());
+            assertEquals("keep", parser.getText());
+            parser.next();
+            assertEquals(7, parser.getInt());
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testLongInputCrossesBufferBoundaries() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 50000; i++) {
+            json.append(i == 0 ? "" : ",").append(i);
+        }
+        JsonPullParser parser = parserFor(json.append("]").toString());
+        try {
+            parser.next();
+            for (int i = 0; i < 50000; i++) {
+                assertEquals(Token.NUMBER, parser.next());
+                assertEquals(i, parser.getInt());
+            }
+            assertEquals(Token.END_ARRAY, parser.next());
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testMalformedInput() {
+        String[] malformed = {"{\"a\": 1", "{1: 2}", "[1}", "\"unterminated", "[tru]", "[\"\\q\"]"};
+        for (String json : malformed) {
+            try {
+                JsonPullParser parser = parserFor(json);
+                while (parser.next() != Token.END_DOCUMENT) {
+                    // Keep reading until the error is found
+                }
+                fail("MalformedFileException expected for " + json);
+            } catch (MalformedFileException e) {
+                // pass
+            } catch (IOException e) {
+                fail("Only MalformedFileException was expected");
+            }
+        }
+    }
+}
@@ -6,6 +6,8 @@ import model.EmployeeList;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -74,4 +76,48 @@ class JsonReaderTest extends JsonTest {
             fail("Caught EmployeeDoesNotExistException where not expected");
         }
     }
+
+    @Test
+    void testReaderReorderedFieldsAndUnknownFields() {
+        JsonReader reader = new JsonReader("./data/testReaderReorderedEmployeeList.json");
+        try {
+            EmployeeList employeeList = reader.read();
+            assertEquals(2, employeeList.getEmployeeCount());
+            checkEmployee(true, 12, "Zo\u00eb \"Z\" M\u00fcller", 1000, 25, employeeList.getAllEmployees().get(0));
+            checkEmployee(false, 0, "Jos\u00e9", 0, 120000, employeeList.getEmployee("Jos\u00e9"));
+        } catch (IOException e) {
+            fail("Unable to read from file");
+        } catch (EmployeeDoesNotExistException employeeDoesNotExistException) {
+            fail("Caught EmployeeDoesNotExistException where not expected");
+        }
+    }
+
+    @Test
+    void testReaderMalformedEmployeeList() {
+        JsonReader reader = new JsonReader("./data/testReaderMalformedEmployeeList.json");
+        List<Employee> employeesRead = new ArrayList<>();
+        try {
+            reader.readEmployees(employee -> employeesRead.add(employee));
+            fail("IOException expected");
+        } catch (IOException e) {
+            // Employees before the malformed one were still streamed to the consumer
+            assertEquals(1, employeesRead.size());
+            checkEmployee(true, 0, "Kyle", 16000, 40, employeesRead.get(0));
+        }
+    }
+
+    @Test
+    void testReadEmployeesKeepsDuplicatesAndFileOrder() {
+        JsonReader reader = new JsonReader("./data/testReaderDuplicatesEmployeeList.json");
+        List<Employee> employeesRead = new ArrayList<>();
+        try {
+            reader.readEmployees(employee -> employeesRead.add(employee));
+            assertEquals(5, employeesRead.size());
+            assertEquals("Ben", employeesRead.get(0).getName());
+            assertEquals("Alex", employeesRead.get(3).getName());
+            assertEquals("Alex", employeesRead.get(4).getName());
+        } catch (IOException e) {
+            fail("Unable to read from file");
+        }
+    }
 }
@@ -3,13 +3,35 @@ package persistence;
 import exceptions.DuplicateEmployeeException;
 import model.Employee;
 import model.EmployeeList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class JsonWriterTest extends JsonTest {
+    private Path directory;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("testJsonWriter");
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        for (File file : directory.toFile().listFiles()) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(directory);
+    }
 
     @Test
     void testWriterInvalidFile() {
@@ -27,12 +49,12 @@ public class JsonWriterTest extends JsonTest {
     void testWriterEmptyEmployeeList() {
         try {
             EmployeeList employeeList = new EmployeeList();
-            JsonWriter writer = new JsonWriter("./data/testWriterEmptyEmployeeList");
+            JsonWriter writer = new JsonWriter(file("testWriterEmptyEmployeeList"));
             writer.open();
             writer.write(employeeList);
             writer.close();
 
-            JsonReader reader = new JsonReader("./data/testWriterEmptyEmployeeList");
+            JsonReader reader = new JsonReader(file("testWriterEmptyEmployeeList"));
             employeeList = reader.read();
             assertEquals(0, employeeList.getEmployeeCount());
         } catch (IOException e) {
@@ -55,12 +77,12 @@ public class JsonWriterTest extends JsonTest {
             employeeList.addEmployee(employeeBob);
             employeeList.addEmployee(employeeAshley);
 
-            JsonWriter writer = new JsonWriter("./data/testWriterGeneralEmployeeList.json");
+            JsonWriter writer = new JsonWriter(file("testWriterGeneralEmployeeList.json"));
             writer.open();
             writer.write(employeeList);
             writer.close();
 
-            JsonReader reader = new JsonReader("./data/testWriterGeneralEmployeeList.json");
+            JsonReader reader = new JsonReader(file("testWriterGeneralEmployeeList.json"));
             employeeList = reader.read();
             assertEquals(3, employeeList.getEmployeeCount());
             checkEmployee(true, 123456, "Brian", 445, 30, employeeBrian);
@@ -73,4 +95,109 @@ public class JsonWriterTest extends JsonTest {
             fail("DuplicateEmployeeException was thrown where no exception was expected");
         }
     }
+
+    @Test
+    void testWriterMatchesJsonObjectOutput() {
+        try {
+            EmployeeList employeeList = new EmployeeList();
+            Employee employeeZoe = new Employee("Zo\u00eb \"Z\" </script>", true, 30);
+            employeeZoe.setTotalPaidToEmployee(99);
+            employeeZoe.setCurrentOwnedToEmployee(445);
+            employeeList.addEmployee(employeeZoe);
+            employeeList.addEmployee(new Employee("Bob", false, 55000));
+
+            JsonWriter writer = new JsonWriter(file("testWriterFormattedEmployeeList.json"));
+            writer.open();
+            writer.write(employeeList);
+            writer.close();
+            assertEquals(employeeList.toJson().toString(4), readFile(file("testWriterFormattedEmployeeList.json")));
+
+            writer = new JsonWriter(file("testWriterCompactEmployeeList.json"), false);
+            writer.open();
+            writer.write(employeeList);
+            writer.close();
+            assertEquals(employeeList.toJson().toString(), readFile(file("testWriterCompactEmployeeList.json")));
+
+            JsonReader reader = new JsonReader(file("testWriterCompactEmployeeList.json"));
+            employeeList = reader.read();
+            checkEmployee(true, 99, "Zo\u00eb \"Z\" </script>", 445, 30, employeeList.getAllEmployees().get(0));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testWriterEmptyListMatchesJsonObjectOutput() {
+        try {
+            EmployeeList employeeList = new EmployeeList();
+            JsonWriter writer = new JsonWriter(file("testWriterEmptyEmployeeList"));
+            writer.open();
+            writer.write(employeeList);
+            writer.close();
+            assertEquals(employeeList.toJson().toString(4), readFile(file("testWriterEmptyEmployeeList")));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testWriterAtomicInvalidFile() {
+        try {
+            JsonWriter writer = new JsonWriter("./data/this\0isIllegal:AVOID.json", JsonWriter.SaveMode.ATOMIC);
+            writer.open();
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testWriterAtomicWithBackup() {
+        String destination = file("testWriterAtomicEmployeeList.json");
+        try {
+            EmployeeList employeeList = new EmployeeList();
+            employeeList.addEmployee(new Employee("Brian", true, 30));
+
+            // The first save has nothing to back up
+            JsonWriter writer = new JsonWriter(destination, JsonWriter.SaveMode.ATOMIC_WITH_BACKUP);
+            writer.open();
+            writer.write(employeeList);
+            assertFalse(Files.exists(Paths.get(destination)));
+            writer.close();
+            assertFalse(Files.exists(Paths.get(destination + ".bak")));
+            String firstSave = readFile(destination);
+
+            // The second save keeps the first one as a backup
+            employeeList.addEmployee(new Employee("Bob", false, 55000));
+            writer.open();
+            writer.write(employeeList);
+            assertEquals(firstSave, readFile(destination));
+            writer.close();
+            assertEquals(firstSave, readFile(destination + ".bak"));
+            assertEquals(employeeList.toJson().toString(4), readFile(destination));
+            assertEquals(0, countTemporaryFiles());
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        }
+    }
+
+    private long countTemporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".tmp")).count();
+        }
+    }
+
+    private String file(String name) {
+        return directory.resolve(name).toString();
+    }
+
+    private String readFile(String source) throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get(source)), StandardCharsets.UTF_8);
+        assertTrue(json.matches("(?s)\\{\"generation\": ?\"[0-9a-f]{16}\", ?.*"));
+        return json.replaceFirst("\"generation\": ?\"[0-9a-f]{16}\", ?", "");
+    }
 }
@@ -0,0 +1,89 @@
+package persistence;
+
+import exceptions.EmployeeDoesNotExistException;
+import model.Employee;
+import model.EmployeeList;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyEmployeeFileTest extends JsonTest {
+
+    @Test
+    void testOpensWithoutReadingEmployees() throws Exception {
+        try (LazyEmployeeFile lazyEmployeeFile = new JsonReader("./data/testReaderGeneralEmployeeList.json")
+                .readLazily()) {
+            assertEquals(4, lazyEmployeeFile.getEmployeeCount());
+            assertEquals(Arrays.asList("Alex", "Ben", "Jordana", "Kyle"), lazyEmployeeFile.getEmployeeNames());
+            assertTrue(lazyEmployeeFile.contains("Jordana"));
+            assertFalse(lazyEmployeeFile.contains("Nobody"));
+            assertEquals(0, lazyEmployeeFile.getHydratedCount());
+
+            Employee jordana = lazyEmployeeFile.getEmployee("Jordana");
+            checkEmployee(false, 100, "Jordana", 846, 103000, jordana);
+            checkEmployee(true, 52000, "Alex", 0, 15, lazyEmployeeFile.getEmployee("Alex"));
+            assertEquals(2, lazyEmployeeFile.getHydratedCount());
+
+            jordana.setCurrentOwnedToEmployee(0);
+            assertSame(jordana, lazyEmployeeFile.getEmployee("Jordana"));
+            assertEquals(0, lazyEmployeeFile.getEmployee("Jordana").getCurrentOwned());
+            assertThrows(EmployeeDoesNotExistException.class, () -> lazyEmployeeFile.getEmployee("Nobody"));
+        }
+    }
+
+    @Test
+    void testKeepsFirstOfDuplicates() throws Exception {
+        try (LazyEmployeeFile lazyEmployeeFile = new JsonReader("./data/testReaderDuplicatesEmployeeList.json")
+                .readLazily()) {
+            assertEquals(4, lazyEmployeeFile.getEmployeeCount());
+            checkEmployee(true, 52000, "Alex", 0, 15, lazyEmployeeFile.getEmployee("Alex"));
+            checkEmployee(false, 0, "Ben", 8190, 100000, lazyEmployeeFile.getEmployee("Ben"));
+        }
+    }
+
+    @Test
+    void testMalformedAndMissingFiles() {
+        assertThrows(IOException.class, () -> new JsonReader("./data/thisFileDoesNotExist.json").readLazily());
+        assertThrows(IOException.class,
+                () -> new JsonReader("./data/testReaderMalformedEmployeeList.json").readLazily());
+    }
+
+    @Test
+    void testReplaysUnsavedJournalChanges() throws Exception {
+        Path directory = Files.createTempDirectory("testLazyEmployeeFile");
+        String source = directory.resolve("employees.json").toString();
+        try {
+            EmployeeList employeeList = new EmployeeList();
+            employeeList.addEmployee(new Employee("Bob", true, 20));
+            employeeList.addEmployee(new Employee("Mary", false, 73000));
+            JsonWriter jsonWriter = new JsonWriter(source);
+            jsonWriter.open();
+            jsonWriter.write(employeeList);
+            jsonWriter.close();
+
+            Journal journal = new Journal(source);
+            journal.open();
+            employeeList.addListener(journal);
+            employeeList.getEmployee("Bob").recordWorkAmount(10);
+            employeeList.addEmployee(new Employee("John", true, 30));
+            journal.close();
+
+            try (LazyEmployeeFile lazyEmployeeFile = new JsonReader(source).readLazily()) {
+                assertEquals(Arrays.asList("Bob", "John", "Mary"), lazyEmployeeFile.getEmployeeNames());
+                checkEmployee(true, 0, "Bob", 200, 20, lazyEmployeeFile.getEmployee("Bob"));
+                checkEmployee(true, 0, "John", 0, 30, lazyEmployeeFile.getEmployee("John"));
+            }
+        } finally {
+            for (File file : directory.toFile().listFiles()) {
+                Files.delete(file.toPath());
+            }
+            Files.delete(directory);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package persistence;
+
+import exceptions.DuplicateEmployeeException;
+import exceptions.MalformedFileException;
+import model.Employee;
+import model.EmployeeList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotTest extends JsonTest {
+    private static final String[] JSON_FIXTURES = {"./data/employees.json", "./data/testEmptyEmployeeList.json",
+            "./data/testReaderGeneralEmployeeList.json", "./data/testReaderDuplicatesEmployeeList.json",
+            "./data/testReaderReorderedEmployeeList.json", "./data/testWriterGeneralEmployeeList.json"};
+    private Path directory;
+    private String snapshot;
+    private String corruptSnapshot;
+    private String convertedJson;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("testSnapshot");
+        snapshot = directory.resolve("employees.snapshot").toString();
+        corruptSnapshot = directory.resolve("corrupt.snapshot").toString();
+        convertedJson = directory.resolve("converted.json").toString();
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        for (File file : directory.toFile().listFiles()) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testRoundTripJsonFixtures() {
+        SnapshotConverter converter = new SnapshotConverter();
+        try {
+            for (String fixture : JSON_FIXTURES) {
+                EmployeeList expected = new JsonReader(fixture).read();
+                converter.jsonToSnapshot(fixture, snapshot);
+                checkSameEmployees(expected, new SnapshotReader(snapshot).read());
+
+                converter.snapshotToJson(snapshot, convertedJson);
+                checkSameEmployees(expected, new JsonReader(convertedJson).read());
+            }
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testReaderNonExistentFile() {
+        try {
+            new SnapshotReader("./data/thisFileDoesNotExist.snapshot").read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testReaderNotASnapshot() {
+        try {
+            new SnapshotReader("./data/testReaderGeneralEmployeeList.json").read();
+            fail("MalformedFileException expected");
+        } catch (MalformedFileException e) {
+            // pass
+        } catch (IOException e) {
+            fail("Only MalformedFileException was expected");
+        }
+    }
+
+    @Test
+    void testReaderCorruptSnapshot() {
+        try {
+            EmployeeList employeeList = new EmployeeList();
+            employeeList.addEmployee(new Employee("Brian", true, 30));
+            SnapshotWriter writer = new SnapshotWriter(corruptSnapshot);
+            writer.open();
+            writer.write(employeeList);
+            writer.close();
+
+            byte[] bytes = Files.readAllBytes(Paths.get(corruptSnapshot));
+            bytes[14] ^= 0x20;
+            Files.write(Paths.get(corruptSnapshot), bytes);
+            new SnapshotReader(corruptSnapshot).read();
+            fail("MalformedFileException expected");
+        } catch (MalformedFileException e) {
+            // pass
+        } catch (IOException e) {
+            fail("Only MalformedFileException was expected");
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        }
+    }
+
+    private void checkSameEmployees(EmployeeList expected, EmployeeList actual) {
+        List<Employee> expectedEmployees = expected.getAllEmployees();
+        List<Employee> actualEmployees = actual.getAllEmployees();
+        assertEquals(expectedEmployees.size(), actualEmployees.size());
+        for (int i = 0; i < expectedEmployees.size(); i++) {
+            Employee employee = expectedEmployees.get(i);
+            checkEmployee(employee.getHourlyStatus(), employee.getTotalPaid(), employee.getName(),
+                    employee.getCurrentOwned(), employee.getWage(), actualEmployees.get(i));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package persistence;
+
+import exceptions.DuplicateEmployeeException;
+import exceptions.EmployeeDoesNotExistException;
+import model.Employee;
+import model.EmployeeList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimesheetIngesterTest extends JsonTest {
+    private EmployeeList employeeList;
+
+    @BeforeEach
+    void runBefore() {
+        employeeList = new EmployeeList();
+        try {
+            employeeList.addEmployee(new Employee("Brian", true, 30));
+            employeeList.addEmployee(new Employee("Bob", true, 20));
+            employeeList.addEmployee(new Employee("Ashley", false, 109500));
+            employeeList.addEmployee(new Employee("Smith, Jr.", true, 10));
+        } catch (DuplicateEmployeeException e) {
+            fail("DuplicateEmployeeException was thrown where no exception was expected");
+        }
+    }
+
+    @Test
+    void testIngestNonExistentFile() {
+        try {
+            new TimesheetIngester(employeeList).ingest("./data/my\0illegal:fileName.csv");
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testIngestCsv() {
+        checkIngested("./data/testTimesheet.csv", new TimesheetIngester(employeeList));
+    }
+
+    @Test
+    void testIngestNdjson() {
+        checkIngested("./data/testTimesheet.ndjson", new TimesheetIngester(employeeList));
+    }
+
+    @Test
+    void testIngestInSmallChunks() {
+        checkIngested("./data/testTimesheet.csv", new TimesheetIngester(employeeList, 4, 16));
+        checkIngested("./data/testTimesheet.ndjson", new TimesheetIngester(employeeList, 3, 1));
+    }
+
+    @Test
+    void testIngestLargeTimesheet() {
+        try {
+            Path path = Files.createTempFile("testTimesheetLarge", ".csv");
+            try (PrintWriter writer = new PrintWriter(path.toFile(), "UTF-8")) {
+                for (int i = 0; i < 100000; i++) {
+                    writer.println(i % 2 == 0 ? "Brian,1" : "{\"name\": \"Bob\", \"timeWorked\": 2}");
+                }
+            }
+            IngestionReport report = new TimesheetIngester(employeeList, 4, 64 * 1024).ingest(path.toString());
+            Files.delete(path);
+            assertEquals(100000, report.getRowsApplied());
+            assertEquals(0, report.getRowsRejected());
+            checkEmployee(true, 0, "Brian", 50000 * 30, 30, employeeList.getEmployee("Brian"));
+            checkEmployee(true, 0, "Bob", 100000 * 20, 20, employeeList.getEmployee("Bob"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    private void checkIngested(String source, TimesheetIngester ingester) {
+        try {
+            EmployeeList expected = copyOf(employeeList);
+            IngestionReport report = ingester.ingest(source);
+            assertEquals(4, report.getRowsApplied());
+            assertEquals(3, report.getEmployeesUpdated());
+            assertEquals(3, report.getRowsRejected());
+            assertEquals(3, report.getErrors().size());
+            checkEmployee(true, 0, "Brian", expected.getEmployee("Brian").getCurrentOwned() + 12 * 30, 30,
+                    employeeList.getEmployee("Brian"));
+            checkEmployee(true, 0, "Bob", expected.getEmployee("Bob").getCurrentOwned() + 2 * 20, 20,
+                    employeeList.getEmployee("Bob"));
+            checkEmployee(true, 0, "Smith, Jr.", expected.getEmployee("Smith, Jr.").getCurrentOwned() + 5 * 10, 10,
+                    employeeList.getEmployee("Smith, Jr."));
+            checkEmployee(false, 0, "Ashley", 0, 109500, employeeList.getEmployee("Ashley"));
+        } catch (IOException e) {
+            fail("IOException was thrown where no exception was expected");
+        } catch (EmployeeDoesNotExistException e) {
+            fail("EmployeeDoesNotExistException was thrown where no exception was expected");
+        }
+    }
+
+    private EmployeeList copyOf(EmployeeList original) {
+        EmployeeList copy = new EmployeeList();
+        for (Employee employee : original.getAllEmployees()) {
+            Employee employeeCopy = new Employee(employee.getName(), employee.getHourlyStatus(), employee.getWage());
+            employeeCopy.setCurrentOwnedToEmployee(employee.getCurrentOwned());
+            try {
+                copy.addEmployee(employeeCopy);
+            } catch (DuplicateEmployeeException e) {
+                fail("DuplicateEmployeeException was thrown where no exception was expected");
+            }
+        }
+        return copy;
+    }
+}
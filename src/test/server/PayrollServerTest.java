@@ -0,0 +1,133 @@
+package server;
+
+import model.ConcurrentEmployeeList;
+import model.Employee;
+import model.EmployeeList;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PayrollServerTest {
+    private static final int CLIENTS = 32;
+    private static final int REQUESTS = 2000;
+
+    private Path directory;
+    private String source;
+    private ConcurrentEmployeeList employeeList;
+    private PayrollServer server;
+
+    @BeforeEach
+    void runBefore() throws Exception {
+        directory = Files.createTempDirectory("testPayrollServer");
+        source = directory.resolve("employees.json").toString();
+        employeeList = PayrollServer.load(source);
+        employeeList.addEmployee(new Employee("Bob", true, 20));
+        employeeList.addEmployee(new Employee("Mary Ann", false, 73000));
+        employeeList.addEmployee(new Employee("John", true, 30));
+        server = new PayrollServer(employeeList, source);
+        server.start(0);
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        server.stop(0);
+        for (File file : directory.toFile().listFiles()) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testLookupAndList() throws IOException {
+        JSONObject page = request("GET", "/employees?offset=1&limit=1", null, 200);
+        assertEquals(3, page.getInt("total"));
+        assertEquals(1, page.getJSONArray("employees").length());
+        assertEquals("Mary Ann", page.getJSONArray("employees").getJSONObject(0).getString("name"));
+        assertEquals(3, request("GET", "/employees", null, 200).getJSONArray("employees").length());
+        JSONObject pastEnd = request("GET", "/employees?offset=5&limit=10", null, 200);
+        assertEquals(3, pastEnd.getInt("total"));
+        assertEquals(0, pastEnd.getJSONArray("employees").length());
+        assertEquals("John", request("GET", "/employees?offset=2&limit=1000", null, 200)
+                .getJSONArray("employees").getJSONObject(0).getString("name"));
+
+        assertEquals(73000, request("GET", "/employees/Mary%20Ann", null, 200).getInt("wage"));
+        request("GET", "/employees/Nobody", null, 404);
+        request("GET", "/employees?limit=-1", null, 400);
+        request("POST", "/employees/Bob", null, 400);
+        request("GET", "/employeesBob", null, 404);
+    }
+
+    @Test
+    void testRecordWorkPayAndSave() throws IOException {
+        assertEquals(800, request("POST", "/employees/Bob/work", "{\"time\": 40}", 200)
+                .getInt("currentOwnedToEmployee"));
+        request("POST", "/employees/Bob/work", "{\"hours\": 40}", 400);
+        JSONObject paid = request("POST", "/employees/Bob/pay", null, 200);
+        assertEquals(800, paid.getInt("paid"));
+        assertEquals(800, paid.getJSONObject("employee").getInt("totalPaidToEmployee"));
+        request("POST", "/employees/John/work", "{\"time\": 2}", 200);
+
+        assertEquals(3, request("POST", "/save", null, 200).getInt("employees"));
+        request("POST", "/employees/John/work", "{\"time\": 1}", 200);
+        server.stop(0);
+        EmployeeList saved = new JsonReader(source).read();
+        assertEquals(90, saved.getTotalOwed());
+        assertEquals(800, saved.getTotalPaid());
+        server.start(0);
+    }
+
+    @Test
+    void testManyConcurrentRequests() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<?>> tasks = new ArrayList<Future<?>>();
+        for (int i = 0; i < REQUESTS; i++) {
+            String path = i % 100 == 0 ? "/save" : (i % 2 == 0 ? "/employees/Bob/work" : "/employees/John/work");
+            tasks.add(clients.submit(() -> request("POST", path, "{\"time\": 1}", 200)));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        clients.shutdown();
+        assertEquals(980 * 20 + 1000 * 30, employeeList.getTotalOwed());
+        request("POST", "/save", null, 200);
+        assertEquals(980 * 20 + 1000 * 30, new JsonReader(source).read().getTotalOwed());
+    }
+
+    // EFFECTS: sends a request with method and body, which may be null, for path to the server, checks that it
+    //          is answered with status and returns the body of the answer
+    private JSONObject request(String method, String path, String body, int status) throws IOException {
+        URL url = new URL("http://localhost:" + server.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(status, connection.getResponseCode());
+        try (InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return new JSONObject(new JSONTokener(input));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package ui;
+
+import model.EmployeeList;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PayrollAppBatchTest {
+    private Path directory;
+    private String source;
+    private PayrollAppBatch batch;
+    private List<JSONObject> results;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("testPayrollAppBatch");
+        source = directory.resolve("employees.json").toString();
+        batch = new PayrollAppBatch(directory.resolve("companies").toString());
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        delete(directory.toFile());
+    }
+
+    @Test
+    void testEmployeeCommands() throws IOException {
+        assertEquals(0, run("add Bob hourly 20",
+                "add \"Mary Ann\" salaried 73000",
+                "# a comment, then a blank line",
+                "",
+                "record Bob 10",
+                "modify Bob wage 25",
+                "modify \"Mary Ann\" name Mary",
+                "modify Mary status",
+                "pay Bob",
+                "record Bob 2",
+                "summary",
+                "delete Mary"));
+        assertEquals(10, results.size());
+        assertEquals(5, results.get(2).getInt("line"));
+        assertEquals(200, results.get(2).getJSONObject("employee").getInt("currentOwnedToEmployee"));
+        assertEquals(25, results.get(3).getJSONObject("employee").getInt("wage"));
+        assertEquals("Mary", results.get(4).getJSONObject("employee").getString("name"));
+        assertTrue(results.get(5).getJSONObject("employee").getBoolean("hourlyStatus"));
+        assertEquals(200, results.get(6).getInt("paid"));
+
+        JSONObject summary = results.get(8);
+        assertEquals("summary", summary.getString("command"));
+        assertEquals(2, summary.getInt("employees"));
+        assertEquals(2, summary.getInt("hourly"));
+        assertEquals(50, summary.getLong("totalOwed"));
+        assertEquals(200, summary.getLong("totalPaid"));
+        assertEquals("Mary", results.get(9).getJSONObject("employee").getString("name"));
+    }
+
+    @Test
+    void testPayAll() throws IOException {
+        assertEquals(0, run("add Bob hourly 20", "add John h 30", "record Bob 1", "record John 2", "payall"));
+        JSONObject payAll = results.get(4);
+        assertEquals(2, payAll.getInt("employeesPaid"));
+        assertEquals(80, payAll.getLong("paid"));
+        assertEquals(1, run("payall now"));
+    }
+
+    @Test
+    void testInvalidCommandsFailWithoutStoppingTheRun() throws IOException {
+        assertEquals(9, run("frobnicate",
+                "add Bob hourly",
+                "add Bob weekly 20",
+                "add Bob hourly -5",
+                "add Bob hourly 20",
+                "add Bob hourly 30",
+                "record Nobody 5",
+                "record Bob lots",
+                "modify Bob colour red",
+                "add \"Bob hourly 20",
+                "summary"));
+        assertEquals(11, results.size());
+        assertEquals("Unknown command: frobnicate", results.get(0).getString("error"));
+        assertTrue(results.get(1).getString("error").startsWith("Usage: add"));
+        assertTrue(results.get(2).getString("error").contains("hourly or salaried"));
+        assertTrue(results.get(3).getString("error").contains("more than 0"));
+        assertTrue(results.get(4).getBoolean("ok"));
+        assertEquals("Another employee with the same name already exists", results.get(5).getString("error"));
+        assertEquals("No such employee exists in the system", results.get(6).getString("error"));
+        assertTrue(results.get(7).getString("error").contains("whole number"));
+        assertTrue(results.get(8).getString("error").startsWith("Usage: modify"));
+        assertEquals("Missing closing quote", results.get(9).getString("error"));
+        assertEquals(1, results.get(10).getInt("employees"));
+    }
+
+    @Test
+    void testSaveAndLoadRoundTrip() throws Exception {
+        assertEquals(0, run("add Bob hourly 20", "record Bob 3", "save " + source, "record Bob 1"));
+        assertEquals(source, results.get(2).getString("file"));
+
+        // The change after the save is in the journal and is replayed by load
+        EmployeeList saved = new JsonReader(source).read();
+        assertEquals(80, saved.getEmployee("Bob").getCurrentOwned());
+
+        batch = new PayrollAppBatch(directory.resolve("companies").toString());
+        assertEquals(0, run("load " + source, "pay Bob", "save", "summary"));
+        assertEquals(1, results.get(0).getInt("employees"));
+        assertEquals(source, results.get(2).getString("file"));
+        assertEquals(80, results.get(3).getLong("totalPaid"));
+        assertEquals(80, new JsonReader(source).read().getTotalPaid());
+        assertEquals(1, run("load " + directory.resolve("missing.json")));
+    }
+
+    @Test
+    void testSaveWithoutLoadIsRefused() throws IOException {
+        assertEquals(1, run("add Bob hourly 20", "save"));
+        assertTrue(results.get(1).getString("error").contains("save FILE"));
+        assertFalse(new File(source).exists());
+        assertEquals(1, run("save a b"));
+    }
+
+    @Test
+    void testCompanies() throws Exception {
+        assertEquals(0, run("company acme", "add Bob hourly 20", "save",
+                "company globex", "add Kylie salaried 50000", "company acme", "summary"));
+        assertEquals("acme", results.get(2).getString("company"));
+        assertEquals(1, results.get(6).getInt("employees"));
+        assertEquals(1, run("company ../acme"));
+
+        EmployeeList acme = new JsonReader(directory.resolve("companies").resolve("acme.json").toString()).read();
+        assertEquals(20, acme.getEmployee("Bob").getWage());
+        assertTrue(directory.resolve("companies").resolve("globex.json").toFile().exists());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs lines as a command file, keeps the result of each command in results and returns the
+    //          number of commands that failed
+    private int run(String... lines) throws IOException {
+        StringWriter output = new StringWriter();
+        int failed = batch.run(new BufferedReader(new StringReader(String.join("\n", lines))), output);
+        results = new ArrayList<JSONObject>();
+        for (String line : output.toString().split("\n")) {
+            JSONObject result = new JSONObject(line);
+            results.add(result);
+            assertEquals(result.has("error"), !result.getBoolean("ok"));
+        }
+        return failed;
+    }
+
+    // EFFECTS: deletes file and, if it is a directory, everything in it
+    private static void delete(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        Files.delete(file.toPath());
+    }
+}